@@ -18,24 +18,158 @@ package internal.sql.jdbc;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
 import javax.sql.DataSource;
-import nbbrd.sql.jdbc.SqlConnectionSupplier;
+import nbbrd.sql.jdbc.SqlCachingSupplier;
 import nbbrd.sql.jdbc.SqlFunc;
 import lombok.NonNull;
 
 /**
  * A connection supplier that uses {@link javax.sql.DataSource}.
+ * <p>
+ * The data sources can be memoized per connection string so that a factory
+ * that creates a data source, and often a pool, on every call does not open
+ * a new one per connection. A data source is created once per connection
+ * string while the other connection strings are served concurrently. The
+ * least recently used data sources are evicted beyond the max size and
+ * closed if they are {@link AutoCloseable}.
  */
-@lombok.AllArgsConstructor
-public final class DataSourceBasedSupplier implements SqlConnectionSupplier {
+@lombok.extern.java.Log
+public final class DataSourceBasedSupplier implements SqlCachingSupplier {
 
-    @lombok.NonNull
     private final SqlFunc<String, javax.sql.DataSource> toDataSource;
 
+    // zero disables the memoization
+    private final int maxSize;
+
+    // in access order, guarded by itself; a pending future is a data source being created
+    private final LinkedHashMap<String, CompletableFuture<DataSource>> dataSources = new LinkedHashMap<>(16, 0.75f, true);
+
+    public DataSourceBasedSupplier(@NonNull SqlFunc<String, javax.sql.DataSource> toDataSource) {
+        this(toDataSource, 0);
+    }
+
+    public DataSourceBasedSupplier(@NonNull SqlFunc<String, javax.sql.DataSource> toDataSource, int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Invalid max size: " + maxSize);
+        }
+        this.toDataSource = toDataSource;
+        this.maxSize = maxSize;
+    }
+
     @Override
     public @NonNull Connection getConnection(@NonNull String connectionString) throws SQLException {
         Objects.requireNonNull(connectionString);
-        return toDataSource.andThen(DataSource::getConnection).applyWithSql(connectionString);
+        return getDataSource(connectionString).getConnection();
+    }
+
+    /**
+     * Drops the memoized data sources and closes those that are
+     * {@link AutoCloseable}. The data sources still being created are closed
+     * once created.
+     *
+     * @throws SQLException if a data source cannot be closed
+     */
+    @Override
+    public void close() throws SQLException {
+        List<CompletableFuture<DataSource>> evicted;
+        synchronized (dataSources) {
+            evicted = new ArrayList<>(dataSources.values());
+            dataSources.clear();
+        }
+        SQLException first = null;
+        for (CompletableFuture<DataSource> future : evicted) {
+            if (!future.isDone()) {
+                future.thenAccept(DataSourceBasedSupplier::closeQuietly);
+                continue;
+            }
+            try {
+                closeIfCloseable(future.getNow(null));
+            } catch (Exception ex) {
+                if (first == null) {
+                    first = new SQLException("Cannot close data source", ex);
+                } else {
+                    first.addSuppressed(ex);
+                }
+            }
+        }
+        if (first != null) {
+            throw first;
+        }
+    }
+
+    private DataSource getDataSource(String connectionString) throws SQLException {
+        if (maxSize == 0) {
+            return toDataSource.applyWithSql(connectionString);
+        }
+        CompletableFuture<DataSource> result;
+        List<CompletableFuture<DataSource>> evicted = new ArrayList<>();
+        boolean creator = false;
+        synchronized (dataSources) {
+            result = dataSources.get(connectionString);
+            if (result == null) {
+                result = new CompletableFuture<>();
+                dataSources.put(connectionString, result);
+                creator = true;
+                // the data sources being created are not evicted so that their callers get an opened one
+                Iterator<CompletableFuture<DataSource>> iterator = dataSources.values().iterator();
+                while (dataSources.size() > maxSize && iterator.hasNext()) {
+                    CompletableFuture<DataSource> next = iterator.next();
+                    if (next.isDone()) {
+                        evicted.add(next);
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+        evicted.forEach(future -> closeQuietly(future.getNow(null)));
+        return creator ? create(connectionString, result) : await(connectionString, result);
+    }
+
+    // the creation is done outside the lock so that only the callers of the same connection string wait for it
+    private DataSource create(String connectionString, CompletableFuture<DataSource> future) throws SQLException {
+        try {
+            DataSource result = toDataSource.applyWithSql(connectionString);
+            future.complete(result);
+            return result;
+        } catch (SQLException | RuntimeException ex) {
+            synchronized (dataSources) {
+                dataSources.remove(connectionString, future);
+            }
+            future.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private static DataSource await(String connectionString, CompletableFuture<DataSource> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the data source of '" + connectionString + "'", ex);
+        } catch (ExecutionException ex) {
+            throw new SQLException("Cannot create data source for '" + connectionString + "'", ex.getCause());
+        }
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        try {
+            closeIfCloseable(dataSource);
+        } catch (Exception ex) {
+            log.log(Level.WARNING, "Cannot close data source", ex);
+        }
+    }
+
+    private static void closeIfCloseable(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable) {
+            ((AutoCloseable) dataSource).close();
+        }
     }
 }
@@ -17,31 +17,93 @@
 package internal.sql.jdbc;
 
 import java.sql.Connection;
+import java.sql.Driver;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.Objects;
+import java.util.Properties;
+import java.util.function.LongSupplier;
+import nbbrd.design.VisibleForTesting;
 import nbbrd.sql.jdbc.SqlConnectionSupplier;
 import nbbrd.sql.jdbc.SqlFunc;
 import lombok.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * A connection supplier that uses {@link DriverManager}.
+ * <p>
+ * The registered driver of the class is resolved once and connects directly,
+ * without scanning all the registered drivers. Its registration is checked
+ * again after a delay so that a deregistered driver is no longer used and
+ * the connections fall back to {@link DriverManager}.
  */
-@lombok.AllArgsConstructor
 public final class DriverManagerSupplier implements SqlConnectionSupplier {
 
-    @lombok.NonNull
     private final String driverClassName;
-
-    @lombok.NonNull
     private final SqlFunc<String, String> toUrl;
+    private final Duration revalidation;
+    private final LongSupplier clock;
+    private volatile Resolved resolved = null;
+
+    public DriverManagerSupplier(@NonNull String driverClassName, @NonNull SqlFunc<String, String> toUrl) {
+        this(driverClassName, toUrl, Duration.ofSeconds(10), System::nanoTime);
+    }
+
+    @VisibleForTesting
+    DriverManagerSupplier(@NonNull String driverClassName, @NonNull SqlFunc<String, String> toUrl, @NonNull Duration revalidation, @NonNull LongSupplier clock) {
+        this.driverClassName = driverClassName;
+        this.toUrl = toUrl;
+        this.revalidation = revalidation;
+        this.clock = clock;
+    }
 
     @Override
     public @NonNull Connection getConnection(@NonNull String connectionString) throws SQLException {
         Objects.requireNonNull(connectionString);
-        if (!SqlConnectionSupplier.isDriverLoadable(driverClassName)) {
-            throw new SQLException("Can't load jdbc driver '" + driverClassName + "'");
+        Driver driver = getDriver();
+        String url = toUrl.applyWithSql(connectionString);
+        if (driver != null) {
+            Connection result = driver.connect(url, new Properties());
+            if (result != null) {
+                return result;
+            }
+        }
+        return DriverManager.getConnection(url);
+    }
+
+    // null if the driver is loadable but not registered
+    private @Nullable Driver getDriver() throws SQLException {
+        Resolved current = resolved;
+        if (current != null && clock.getAsLong() - current.getCheckedAt() < revalidation.toNanos()) {
+            return current.getDriver();
+        }
+        Driver result = lookupRegisteredDriver();
+        if (result == null) {
+            // loading the class registers the driver
+            if (!SqlConnectionSupplier.isDriverLoadable(driverClassName)) {
+                throw new SQLException("Can't load jdbc driver '" + driverClassName + "'");
+            }
+            result = lookupRegisteredDriver();
         }
-        return toUrl.andThen(DriverManager::getConnection).applyWithSql(connectionString);
+        resolved = result != null ? new Resolved(result, clock.getAsLong()) : null;
+        return result;
+    }
+
+    private @Nullable Driver lookupRegisteredDriver() {
+        return Collections
+                .list(DriverManager.getDrivers())
+                .stream()
+                .filter(driver -> driver.getClass().getName().equals(driverClassName))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @lombok.Value
+    private static class Resolved {
+
+        Driver driver;
+        long checkedAt;
     }
 }
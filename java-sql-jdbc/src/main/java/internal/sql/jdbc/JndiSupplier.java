@@ -18,44 +18,137 @@ package internal.sql.jdbc;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import javax.naming.CommunicationException;
 import javax.naming.Context;
 import javax.naming.NamingException;
+import javax.naming.ServiceUnavailableException;
 import javax.sql.DataSource;
-import nbbrd.sql.jdbc.SqlConnectionSupplier;
+import nbbrd.design.VisibleForTesting;
+import nbbrd.sql.jdbc.SqlCachingSupplier;
 import lombok.NonNull;
 
 /**
+ * A connection supplier that looks up a {@link DataSource} by name.
+ * <p>
+ * The context is created once and reused, and the data sources can be cached
+ * per name for a time-to-live. A failed lookup invalidates the cached data
+ * source of its name; the context is closed so that the next lookup starts
+ * afresh only if the naming service cannot be reached.
  *
  * @author Philippe Charles
  */
-@lombok.AllArgsConstructor
-public final class JndiSupplier implements SqlConnectionSupplier {
+@lombok.extern.java.Log
+public final class JndiSupplier implements SqlCachingSupplier {
 
-    @lombok.NonNull
     private final Callable<? extends Context> contextSupplier;
+    private final Duration ttl;
+    private final LongSupplier clock;
+    private final ConcurrentMap<String, Cached> dataSources = new ConcurrentHashMap<>();
+    private Context context = null;
+
+    public JndiSupplier(@NonNull Callable<? extends Context> contextSupplier) {
+        this(contextSupplier, Duration.ZERO);
+    }
+
+    public JndiSupplier(@NonNull Callable<? extends Context> contextSupplier, @NonNull Duration ttl) {
+        this(contextSupplier, ttl, System::nanoTime);
+    }
+
+    @VisibleForTesting
+    JndiSupplier(@NonNull Callable<? extends Context> contextSupplier, @NonNull Duration ttl, @NonNull LongSupplier clock) {
+        if (ttl.isNegative()) {
+            throw new IllegalArgumentException("Invalid ttl: " + ttl);
+        }
+        this.contextSupplier = contextSupplier;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
 
     @Override
     public @NonNull Connection getConnection(@NonNull String connectionString) throws SQLException {
         Objects.requireNonNull(connectionString);
-        return lookupByName(connectionString).getConnection();
+        return getDataSource(connectionString).getConnection();
+    }
+
+    /**
+     * Drops the cached data sources and closes the context.
+     *
+     * @throws SQLException if the context cannot be closed
+     */
+    @Override
+    public synchronized void close() throws SQLException {
+        dataSources.clear();
+        if (context != null) {
+            Context closing = context;
+            context = null;
+            try {
+                closing.close();
+            } catch (NamingException ex) {
+                throw new SQLException("Cannot close context", ex);
+            }
+        }
     }
 
-    private DataSource lookupByName(String name) throws SQLException {
+    private DataSource getDataSource(String name) throws SQLException {
+        Cached cached = dataSources.get(name);
+        if (cached != null && clock.getAsLong() - cached.getLoadedAt() < ttl.toNanos()) {
+            return cached.getDataSource();
+        }
+        DataSource result = lookupByName(name);
+        if (!ttl.isZero()) {
+            dataSources.put(name, new Cached(result, clock.getAsLong()));
+        }
+        return result;
+    }
+
+    // a context is not guaranteed to support concurrent access
+    private synchronized DataSource lookupByName(String name) throws SQLException {
         try {
-            Context ctx = getContext();
-            return (DataSource) ctx.lookup(name);
-        } catch (NamingException | ClassCastException ex) {
+            return (DataSource) getContext().lookup(name);
+        } catch (NamingException ex) {
+            dataSources.remove(name);
+            if (ex instanceof CommunicationException || ex instanceof ServiceUnavailableException) {
+                resetContext();
+            }
+            throw new SQLException("Cannot retrieve javax.sql.DataSource for '" + name + "'", ex);
+        } catch (ClassCastException ex) {
             throw new SQLException("Cannot retrieve javax.sql.DataSource for '" + name + "'", ex);
         }
     }
 
     private Context getContext() throws SQLException {
-        try {
-            return contextSupplier.call();
-        } catch (Exception ex) {
-            throw new SQLException("Cannot retrieve context", ex);
+        if (context == null) {
+            try {
+                context = contextSupplier.call();
+            } catch (Exception ex) {
+                throw new SQLException("Cannot retrieve context", ex);
+            }
         }
+        return context;
+    }
+
+    private void resetContext() {
+        if (context != null) {
+            try {
+                context.close();
+            } catch (NamingException ex) {
+                log.log(Level.FINE, "Cannot close context", ex);
+            }
+            context = null;
+        }
+    }
+
+    @lombok.Value
+    private static class Cached {
+
+        DataSource dataSource;
+        long loadedAt;
     }
 }
@@ -0,0 +1,571 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.jdbc;
+
+import lombok.NonNull;
+import nbbrd.design.VisibleForTesting;
+import nbbrd.sql.jdbc.SqlConnectionPool;
+import nbbrd.sql.jdbc.SqlConnectionSupplier;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+
+import static java.lang.String.format;
+
+/**
+ * A connection supplier that keeps a bounded pool of connections per
+ * connection string and lends them through proxies whose {@code close()}
+ * returns them to the pool.
+ * <p>
+ * Waiting borrowers are served in order of arrival. Idle connections are
+ * checked with {@link Connection#isValid(int)} when borrowed, and
+ * connections are closed once their lifetime or their idle timeout elapses.
+ * The statements, metadata and result sets obtained through a lent connection
+ * lead back to it instead of the pooled connection, and they are closed when
+ * it is returned.
+ *
+ * @author Philippe Charles
+ */
+@lombok.extern.java.Log
+public final class PooledSupplier implements SqlConnectionPool {
+
+    private final SqlConnectionSupplier delegate;
+    private final Config config;
+    private final LongSupplier clock;
+    private final ConcurrentMap<String, Pool> pools = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> housekeeping;
+    private volatile boolean closed = false;
+
+    public PooledSupplier(@NonNull SqlConnectionSupplier delegate, @NonNull Config config) {
+        this(delegate, config, System::nanoTime);
+    }
+
+    @VisibleForTesting
+    PooledSupplier(@NonNull SqlConnectionSupplier delegate, @NonNull Config config, @NonNull LongSupplier clock) {
+        if (config.getMaxSize() < 1) {
+            throw new IllegalArgumentException("Invalid max size: " + config.getMaxSize());
+        }
+        if (config.getMinIdle() < 0 || config.getMinIdle() > config.getMaxSize()) {
+            throw new IllegalArgumentException("Invalid min idle: " + config.getMinIdle());
+        }
+        checkNotNegative(config.getMaxLifetime(), "max lifetime");
+        checkNotNegative(config.getIdleTimeout(), "idle timeout");
+        checkNotNegative(config.getMaxWait(), "max wait");
+        checkNotNegative(config.getValidationTimeout(), "validation timeout");
+        checkNotNegative(config.getHousekeepingPeriod(), "housekeeping period");
+        this.delegate = delegate;
+        this.config = config;
+        this.clock = clock;
+        this.housekeeping = config.getHousekeepingPeriod().isZero() ? null : schedule(this::maintain, config.getHousekeepingPeriod());
+    }
+
+    @Override
+    public @NonNull Connection getConnection(@NonNull String connectionString) throws SQLException {
+        Objects.requireNonNull(connectionString);
+        checkNotClosed();
+        return pools.computeIfAbsent(connectionString, Pool::new).borrow();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (housekeeping != null) {
+            housekeeping.cancel(false);
+        }
+        SQLException first = null;
+        for (Pool pool : pools.values()) {
+            try {
+                pool.close();
+            } catch (SQLException ex) {
+                if (first == null) {
+                    first = ex;
+                } else {
+                    first.addSuppressed(ex);
+                }
+            }
+        }
+        if (first != null) {
+            throw first;
+        }
+    }
+
+    /**
+     * Closes the expired connections and opens the minimum idle ones.
+     */
+    @VisibleForTesting
+    void maintain() {
+        for (Pool pool : pools.values()) {
+            if (closed) {
+                return;
+            }
+            pool.maintain();
+        }
+    }
+
+    @VisibleForTesting
+    int getIdleCount(String connectionString) {
+        Pool pool = pools.get(connectionString);
+        return pool != null ? pool.getIdleCount() : 0;
+    }
+
+    @VisibleForTesting
+    int getWaitingCount(String connectionString) {
+        Pool pool = pools.get(connectionString);
+        return pool != null ? pool.permits.getQueueLength() : 0;
+    }
+
+    private void checkNotClosed() throws SQLException {
+        if (closed) {
+            throw new SQLException("Pool closed");
+        }
+    }
+
+    private boolean isElapsed(long since, Duration duration) {
+        return !duration.isZero() && clock.getAsLong() - since >= duration.toNanos();
+    }
+
+    private final class Pool {
+
+        private final String connectionString;
+
+        // a permit per borrowed connection; a fair semaphore serves the waiting borrowers in order
+        private final Semaphore permits;
+
+        // the most recently returned connections are at the head of the deque
+        private final Deque<PooledConnection> idle = new ArrayDeque<>();
+
+        // opened connections, borrowed or idle
+        private int total = 0;
+
+        Pool(String connectionString) {
+            this.connectionString = connectionString;
+            this.permits = new Semaphore(config.getMaxSize(), true);
+        }
+
+        Connection borrow() throws SQLException {
+            acquire();
+            try {
+                checkNotClosed();
+                PooledConnection result;
+                while ((result = pollIdle()) != null) {
+                    if (isUsable(result)) {
+                        return result.lend(this);
+                    }
+                    discard(result);
+                }
+                return open().lend(this);
+            } catch (SQLException | RuntimeException ex) {
+                permits.release();
+                throw ex;
+            }
+        }
+
+        void giveBack(PooledConnection pooled) throws SQLException {
+            boolean reusable = !closed && !isElapsed(pooled.createdAt, config.getMaxLifetime()) && reset(pooled.connection);
+            synchronized (this) {
+                if (reusable) {
+                    pooled.idleSince = clock.getAsLong();
+                    idle.push(pooled);
+                } else {
+                    total--;
+                }
+            }
+            permits.release();
+            if (!reusable) {
+                pooled.connection.close();
+            }
+        }
+
+        void maintain() {
+            List<PooledConnection> evicted = new ArrayList<>();
+            synchronized (this) {
+                // the oldest idle connections are at the tail of the deque
+                idle.removeIf(pooled -> {
+                    if (isElapsed(pooled.createdAt, config.getMaxLifetime())) {
+                        evicted.add(pooled);
+                        return true;
+                    }
+                    return false;
+                });
+                while (idle.size() > config.getMinIdle() && isElapsed(idle.peekLast().idleSince, config.getIdleTimeout())) {
+                    evicted.add(idle.pollLast());
+                }
+                total -= evicted.size();
+            }
+            evicted.forEach(this::discardQuietly);
+            try {
+                fillIdle();
+            } catch (SQLException ex) {
+                log.log(Level.WARNING, "Cannot open idle connection", ex);
+            }
+        }
+
+        synchronized int getIdleCount() {
+            return idle.size();
+        }
+
+        void close() throws SQLException {
+            List<PooledConnection> evicted;
+            synchronized (this) {
+                evicted = new ArrayList<>(idle);
+                idle.clear();
+                total -= evicted.size();
+            }
+            // wakes up the waiting borrowers that then see that the pool is closed
+            permits.release(config.getMaxSize());
+            SQLException first = null;
+            for (PooledConnection pooled : evicted) {
+                try {
+                    pooled.connection.close();
+                } catch (SQLException ex) {
+                    if (first == null) {
+                        first = ex;
+                    } else {
+                        first.addSuppressed(ex);
+                    }
+                }
+            }
+            if (first != null) {
+                throw first;
+            }
+        }
+
+        private void acquire() throws SQLException {
+            try {
+                if (!permits.tryAcquire(config.getMaxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                    throw new SQLTimeoutException(format(Locale.ROOT, "Timeout while waiting for a connection to '%s' after %s ms", connectionString, config.getMaxWait().toMillis()));
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a connection", ex);
+            }
+        }
+
+        // the opening holds a permit so that the pool never exceeds its max size;
+        // it yields to the waiting borrowers since tryAcquire() ignores fairness
+        private void fillIdle() throws SQLException {
+            while (!closed && !permits.hasQueuedThreads() && permits.tryAcquire()) {
+                try {
+                    synchronized (this) {
+                        if (idle.size() >= config.getMinIdle() || total >= config.getMaxSize()) {
+                            return;
+                        }
+                    }
+                    PooledConnection pooled = open();
+                    synchronized (this) {
+                        idle.addLast(pooled);
+                    }
+                } finally {
+                    permits.release();
+                }
+            }
+        }
+
+        private PooledConnection open() throws SQLException {
+            synchronized (this) {
+                total++;
+            }
+            try {
+                return new PooledConnection(delegate.getConnection(connectionString), clock.getAsLong());
+            } catch (SQLException | RuntimeException ex) {
+                synchronized (this) {
+                    total--;
+                }
+                throw ex;
+            }
+        }
+
+        private synchronized PooledConnection pollIdle() {
+            return idle.poll();
+        }
+
+        private boolean isUsable(PooledConnection pooled) {
+            if (isElapsed(pooled.createdAt, config.getMaxLifetime())) {
+                return false;
+            }
+            try {
+                return pooled.connection.isValid(getValidationTimeoutInSeconds());
+            } catch (SQLException ex) {
+                return false;
+            }
+        }
+
+        private void discard(PooledConnection pooled) {
+            synchronized (this) {
+                total--;
+            }
+            discardQuietly(pooled);
+        }
+
+        private void discardQuietly(PooledConnection pooled) {
+            try {
+                pooled.connection.close();
+            } catch (SQLException ex) {
+                log.log(Level.FINE, "Cannot close connection", ex);
+            }
+        }
+
+        private int getValidationTimeoutInSeconds() {
+            long millis = config.getValidationTimeout().toMillis();
+            return (int) Math.min(Integer.MAX_VALUE, (millis + 999) / 1000);
+        }
+    }
+
+    // a borrowed connection stays usable until its transaction is rolled back
+    private static boolean reset(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            connection.clearWarnings();
+            return true;
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class PooledConnection {
+
+        final Connection connection;
+        final long createdAt;
+        long idleSince;
+
+        Connection lend(Pool pool) {
+            return (Connection) Proxy.newProxyInstance(PooledSupplier.class.getClassLoader(), new Class<?>[]{Connection.class}, new Lease(pool, this));
+        }
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class Lease implements InvocationHandler {
+
+        private final Pool pool;
+        private final PooledConnection pooled;
+        private final Set<Bound> children = newIdentitySet();
+        private volatile boolean closed = false;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (markClosed()) {
+                        // the statements of a connection are released with it
+                        closeAll(children);
+                        pool.giveBack(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    if (closed) {
+                        return true;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + pooled.connection + "]";
+            }
+            checkNotClosed();
+            Object result;
+            try {
+                result = method.invoke(pooled.connection, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+            return bind(result, method.getReturnType(), this, (Connection) proxy, null, children);
+        }
+
+        void checkNotClosed() throws SQLException {
+            if (closed) {
+                throw new SQLException("Connection closed");
+            }
+        }
+
+        private synchronized boolean markClosed() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+    }
+
+    // the objects that can lead back to the pooled connection
+    private static boolean isBoundToConnection(Class<?> type) {
+        return type == Statement.class
+                || type == PreparedStatement.class
+                || type == CallableStatement.class
+                || type == DatabaseMetaData.class
+                || type == ResultSet.class;
+    }
+
+    private static Object bind(Object result, Class<?> type, Lease lease, Connection connection, Object parent, Set<Bound> owner) {
+        if (result == null || !isBoundToConnection(type)) {
+            return result;
+        }
+        Bound bound = new Bound(lease, connection, parent, result, owner);
+        synchronized (owner) {
+            owner.add(bound);
+        }
+        return Proxy.newProxyInstance(PooledSupplier.class.getClassLoader(), new Class<?>[]{type}, bound);
+    }
+
+    private static void closeAll(Set<Bound> bounds) {
+        List<Bound> list;
+        synchronized (bounds) {
+            list = new ArrayList<>(bounds);
+            bounds.clear();
+        }
+        list.forEach(Bound::release);
+    }
+
+    private static <T> Set<T> newIdentitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * An object created through a lent connection. It gives back the lent
+     * connection instead of the pooled one, is closed when the lease ends and
+     * cannot be used afterwards.
+     */
+    @lombok.RequiredArgsConstructor
+    private static final class Bound implements InvocationHandler {
+
+        private final Lease lease;
+        private final Connection connection;
+        private final Object parent;
+        private final Object target;
+        private final Set<Bound> owner;
+        private final Set<Bound> children = newIdentitySet();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (owner) {
+                        owner.remove(this);
+                    }
+                    if (lease.closed) {
+                        return null;
+                    }
+                    break;
+                case "isClosed":
+                    if (lease.closed) {
+                        return true;
+                    }
+                    break;
+                case "getConnection":
+                    if (method.getParameterCount() == 0) {
+                        lease.checkNotClosed();
+                        return connection;
+                    }
+                    break;
+                case "getStatement":
+                    if (method.getParameterCount() == 0) {
+                        lease.checkNotClosed();
+                        // the result sets of metadata have no statement
+                        return parent instanceof Statement ? parent : null;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + target + "]";
+            }
+            lease.checkNotClosed();
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+            return bind(result, method.getReturnType(), lease, connection, proxy, children);
+        }
+
+        void release() {
+            closeAll(children);
+            if (target instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) target).close();
+                } catch (Exception ex) {
+                    log.log(Level.FINE, "Cannot close statement", ex);
+                }
+            }
+        }
+    }
+
+    private static void checkNotNegative(Duration duration, String name) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + duration);
+        }
+    }
+
+    private static ScheduledFuture<?> schedule(Runnable task, Duration period) {
+        long nanos = period.toNanos();
+        return HOUSEKEEPER.scheduleWithFixedDelay(task, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static final ScheduledThreadPoolExecutor HOUSEKEEPER = newHousekeeper();
+
+    private static ScheduledThreadPoolExecutor newHousekeeper() {
+        ScheduledThreadPoolExecutor result = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "sql-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        result.setRemoveOnCancelPolicy(true);
+        return result;
+    }
+}
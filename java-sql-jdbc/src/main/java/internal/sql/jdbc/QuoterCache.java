@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.jdbc;
+
+import lombok.NonNull;
+import nbbrd.sql.jdbc.SqlIdentifierQuoter;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of identifier quoters keyed by driver name, driver version and URL.
+ * <p>
+ * A quoter is computed once per key: concurrent requests of a missing key
+ * wait for the first one instead of querying the metadata themselves. The
+ * metadata calls made by the computation are counted so that the hits report
+ * the number of calls they avoided.
+ *
+ * @author Philippe Charles
+ */
+public final class QuoterCache {
+
+    public static final QuoterCache SHARED = new QuoterCache(256);
+
+    private final int maxSize;
+    private final ConcurrentMap<Key, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder avoidedCallCount = new LongAdder();
+
+    public QuoterCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Invalid max size: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    public @NonNull SqlIdentifierQuoter get(@NonNull DatabaseMetaData metaData) throws SQLException {
+        Key key = new Key(metaData.getDriverName(), metaData.getDriverVersion(), metaData.getURL());
+
+        CompletableFuture<Entry> created = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = entries.putIfAbsent(key, created);
+        if (existing != null) {
+            Entry result = await(existing);
+            hitCount.increment();
+            avoidedCallCount.add(result.getCallCount());
+            return result.getQuoter();
+        }
+
+        missCount.increment();
+        evictIfFull(key);
+        try {
+            Entry result = load(metaData);
+            created.complete(result);
+            return result.getQuoter();
+        } catch (SQLException | RuntimeException ex) {
+            // the next request tries again
+            entries.remove(key, created);
+            created.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    public @NonNull SqlIdentifierQuoter.CacheMetrics getMetrics() {
+        return new SqlIdentifierQuoter.CacheMetrics(hitCount.sum(), missCount.sum(), avoidedCallCount.sum(), entries.size());
+    }
+
+    private void evictIfFull(Key added) {
+        Iterator<Key> iterator = entries.keySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            if (!iterator.next().equals(added)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static Entry await(CompletableFuture<Entry> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for identifier quoter", ex);
+        } catch (ExecutionException ex) {
+            throw new SQLException("Cannot load identifier quoter", ex.getCause());
+        }
+    }
+
+    private static Entry load(DatabaseMetaData metaData) throws SQLException {
+        AtomicInteger callCount = new AtomicInteger();
+        DatabaseMetaData counting = (DatabaseMetaData) Proxy.newProxyInstance(
+                QuoterCache.class.getClassLoader(),
+                new Class<?>[]{DatabaseMetaData.class},
+                (proxy, method, args) -> {
+                    callCount.incrementAndGet();
+                    try {
+                        return method.invoke(metaData, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+        SqlIdentifierQuoter quoter = SqlIdentifierQuoter.of(counting);
+        return new Entry(quoter, callCount.get());
+    }
+
+    @lombok.Value
+    private static class Key {
+
+        String driverName;
+        String driverVersion;
+        String url;
+    }
+
+    @lombok.Value
+    private static class Entry {
+
+        SqlIdentifierQuoter quoter;
+        int callCount;
+    }
+}
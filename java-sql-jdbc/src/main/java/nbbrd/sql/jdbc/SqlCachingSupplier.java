@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package nbbrd.sql.jdbc;
+
+import java.sql.SQLException;
+
+/**
+ * A connection supplier that keeps resources across calls, such as a naming
+ * context or the data sources of the connection strings, and releases them
+ * when it is closed.
+ *
+ * @author Philippe Charles
+ * @see SqlConnectionSupplier#ofJndi(java.time.Duration)
+ * @see SqlConnectionSupplier#ofDataSource(SqlFunc, int)
+ */
+public interface SqlCachingSupplier extends SqlConnectionSupplier, AutoCloseable {
+
+    /**
+     * Releases the resources kept by this supplier. The connections already
+     * supplied stay opened.
+     *
+     * @throws SQLException if a resource cannot be released
+     */
+    @Override
+    void close() throws SQLException;
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package nbbrd.sql.jdbc;
+
+import lombok.NonNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * A connection supplier that keeps a pool of opened connections per
+ * connection string. Closing a supplied connection returns it to its pool
+ * instead of closing it.
+ *
+ * @author Philippe Charles
+ * @see SqlConnectionSupplier#pooled(SqlConnectionSupplier, Config)
+ */
+public interface SqlConnectionPool extends SqlConnectionSupplier, AutoCloseable {
+
+    /**
+     * Borrows a connection from the pool of a connection string, waiting for
+     * one if the pool is exhausted. The connection must be closed after use
+     * to return it to the pool.
+     *
+     * @param connectionString a non-null connection string
+     * @return a non-null connection
+     * @throws SQLException if no connection can be opened or if the wait
+     *                      timeout elapses
+     */
+    @Override
+    @NonNull Connection getConnection(@NonNull String connectionString) throws SQLException;
+
+    /**
+     * Closes the idle connections and the borrowed ones when they are returned.
+     *
+     * @throws SQLException if a connection cannot be closed
+     */
+    @Override
+    void close() throws SQLException;
+
+    @lombok.Value
+    @lombok.Builder(toBuilder = true)
+    class Config {
+
+        /**
+         * Maximum number of connections per connection string.
+         */
+        @lombok.Builder.Default
+        int maxSize = 10;
+
+        /**
+         * Number of idle connections kept opened per connection string.
+         */
+        @lombok.Builder.Default
+        int minIdle = 0;
+
+        /**
+         * Time after which a connection is closed; zero means no limit.
+         */
+        @lombok.NonNull
+        @lombok.Builder.Default
+        Duration maxLifetime = Duration.ofMinutes(30);
+
+        /**
+         * Time after which an idle connection beyond the minimum is closed;
+         * zero means no limit.
+         */
+        @lombok.NonNull
+        @lombok.Builder.Default
+        Duration idleTimeout = Duration.ofMinutes(10);
+
+        /**
+         * Time to wait for a connection when the pool is exhausted.
+         */
+        @lombok.NonNull
+        @lombok.Builder.Default
+        Duration maxWait = Duration.ofSeconds(30);
+
+        /**
+         * Timeout of the {@link Connection#isValid(int)} check of an idle
+         * connection before it is borrowed; zero means no timeout.
+         */
+        @lombok.NonNull
+        @lombok.Builder.Default
+        Duration validationTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Period of the background eviction of expired connections and of
+         * the opening of the minimum idle ones; zero disables it.
+         */
+        @lombok.NonNull
+        @lombok.Builder.Default
+        Duration housekeepingPeriod = Duration.ofSeconds(30);
+    }
+}
@@ -20,6 +20,7 @@ import internal.sql.jdbc.DataSourceBasedSupplier;
 import internal.sql.jdbc.DriverManagerSupplier;
 import internal.sql.jdbc.JndiSupplier;
 import internal.sql.jdbc.NoOpSupplier;
+import internal.sql.jdbc.PooledSupplier;
 import nbbrd.design.StaticFactoryMethod;
 import lombok.NonNull;
 
@@ -28,6 +29,7 @@ import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.Collections;
 
 /**
@@ -58,11 +60,55 @@ public interface SqlConnectionSupplier {
         return new DataSourceBasedSupplier(toDataSource);
     }
 
+    /**
+     * Creates a supplier that reuses the data source of a connection string
+     * instead of creating one on every call.
+     *
+     * @param toDataSource a non-null data source factory
+     * @param maxSize      the maximum number of data sources kept; the least
+     *                     recently used ones are evicted and closed if they are
+     *                     {@link AutoCloseable}
+     * @return a non-null supplier that must be closed after use to close the
+     * data sources it keeps
+     */
+    @StaticFactoryMethod(SqlCachingSupplier.class)
+    static @NonNull SqlCachingSupplier ofDataSource(@NonNull SqlFunc<String, javax.sql.DataSource> toDataSource, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Invalid max size: " + maxSize);
+        }
+        return new DataSourceBasedSupplier(toDataSource, maxSize);
+    }
+
     @StaticFactoryMethod
     static @NonNull SqlConnectionSupplier ofJndi() {
         return new JndiSupplier(InitialContext::new);
     }
 
+    /**
+     * Creates a supplier that looks up data sources by name and caches them.
+     *
+     * @param ttl a non-null time-to-live of the data sources; zero disables caching
+     * @return a non-null supplier that must be closed after use to close its
+     * naming context
+     */
+    @StaticFactoryMethod(SqlCachingSupplier.class)
+    static @NonNull SqlCachingSupplier ofJndi(@NonNull Duration ttl) {
+        return new JndiSupplier(InitialContext::new, ttl);
+    }
+
+    /**
+     * Creates a supplier that reuses the connections of another supplier
+     * through a pool per connection string.
+     *
+     * @param delegate a non-null supplier that opens the connections
+     * @param config   a non-null pool configuration
+     * @return a non-null pool that must be closed after use
+     */
+    @StaticFactoryMethod(SqlConnectionPool.class)
+    static @NonNull SqlConnectionPool pooled(@NonNull SqlConnectionSupplier delegate, @NonNull SqlConnectionPool.Config config) {
+        return new PooledSupplier(delegate, config);
+    }
+
     @StaticFactoryMethod
     static @NonNull SqlConnectionSupplier noOp() {
         return NoOpSupplier.INSTANCE;
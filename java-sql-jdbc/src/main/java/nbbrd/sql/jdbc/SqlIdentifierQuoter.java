@@ -17,6 +17,7 @@
 package nbbrd.sql.jdbc;
 
 import internal.sql.jdbc.JdbcUtil;
+import internal.sql.jdbc.QuoterCache;
 import nbbrd.design.StaticFactoryMethod;
 import nbbrd.design.VisibleForTesting;
 import lombok.NonNull;
@@ -47,6 +48,42 @@ public class SqlIdentifierQuoter {
         );
     }
 
+    /**
+     * Creates a quoter from a database metadata or reuses the one already
+     * created for the same driver name, driver version and URL.
+     *
+     * @param metaData a non-null database metadata
+     * @return a non-null quoter
+     * @throws SQLException if a database access error occurs
+     */
+    @StaticFactoryMethod
+    public static @NonNull SqlIdentifierQuoter ofCached(@NonNull DatabaseMetaData metaData) throws SQLException {
+        return QuoterCache.SHARED.get(metaData);
+    }
+
+    /**
+     * Gets the metrics of the cache used by {@link #ofCached(DatabaseMetaData)}.
+     *
+     * @return non-null metrics
+     */
+    public static @NonNull CacheMetrics getCacheMetrics() {
+        return QuoterCache.SHARED.getMetrics();
+    }
+
+    @lombok.Value
+    public static class CacheMetrics {
+
+        long hitCount;
+        long missCount;
+
+        /**
+         * Number of metadata calls that the hits did not make.
+         */
+        long avoidedMetaDataCallCount;
+
+        int size;
+    }
+
     public static @NonNull Builder builder() {
         return new Builder()
                 .quoteString(DEFAULT_IDENTIFIER_QUOTE_STRING)
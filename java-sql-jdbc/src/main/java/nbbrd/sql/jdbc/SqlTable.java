@@ -16,7 +16,9 @@
  */
 package nbbrd.sql.jdbc;
 
+import lombok.AccessLevel;
 import lombok.NonNull;
+import nbbrd.design.VisibleForTesting;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.sql.DatabaseMetaData;
@@ -83,21 +85,18 @@ public class SqlTable {
         Objects.requireNonNull(tableNamePattern, "tableNamePattern");
 
         try (ResultSet rs = md.getTables(catalog, schemaPattern, tableNamePattern, types)) {
-            return allOf(rs);
+            return fromResultSet(rs);
         }
     }
 
-    private static List<SqlTable> allOf(ResultSet tables) throws SQLException {
+    @VisibleForTesting
+    static List<SqlTable> fromResultSet(ResultSet tables) throws SQLException {
         // some infos are not supported by all drivers!
-        String[] normalizedColumnNames = getNormalizedColumnNames(tables.getMetaData());
+        ColumnPlan plan = ColumnPlan.of(tables.getMetaData());
 
         List<SqlTable> result = new ArrayList<>();
-        Map<String, String> row = new HashMap<>();
         while (tables.next()) {
-            for (int i = 0; i < normalizedColumnNames.length; i++) {
-                row.put(normalizedColumnNames[i], tables.getString(i + 1));
-            }
-            result.add(fromMap(row));
+            result.add(plan.read(tables));
         }
         return result;
     }
@@ -111,32 +110,76 @@ public class SqlTable {
         return columnNames;
     }
 
-    private static @NonNull SqlTable fromMap(@NonNull Map<String, String> map) {
-        return new SqlTable(
-                get(map, "TABLE_CAT", "TABLE_CATALOG"),
-                get(map, "TABLE_SCHEM", "TABLE_SCHEMA"),
-                nullToEmpty(get(map, "TABLE_NAME")),
-                nullToEmpty(get(map, "TABLE_TYPE")),
-                get(map, "REMARKS"),
-                get(map, "TYPE_CAT"),
-                get(map, "TYPE_SCHEM"),
-                get(map, "TYPE_NAME"),
-                get(map, "SELF_REFERENCING_COL_NAME"),
-                get(map, "REF_GENERATION"));
-    }
-
     private static @NonNull String nullToEmpty(@Nullable String o) {
         return (o == null) ? "" : o;
     }
 
-    private static @Nullable String get(@NonNull Map<String, String> map, String... keys) {
-        for (String key : keys) {
-            String result = map.get(key);
-            if (result != null) {
-                return result;
+    /**
+     * Positions of the columns that hold the fields of a table, computed once
+     * per result set so that the rows are read by index.
+     */
+    @lombok.RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class ColumnPlan {
+
+        // alternative column names of each field, in the order of the constructor
+        private static final String[][] FIELD_COLUMN_NAMES = {
+                {"TABLE_CAT", "TABLE_CATALOG"},
+                {"TABLE_SCHEM", "TABLE_SCHEMA"},
+                {"TABLE_NAME"},
+                {"TABLE_TYPE"},
+                {"REMARKS"},
+                {"TYPE_CAT"},
+                {"TYPE_SCHEM"},
+                {"TYPE_NAME"},
+                {"SELF_REFERENCING_COL_NAME"},
+                {"REF_GENERATION"}
+        };
+
+        static ColumnPlan of(ResultSetMetaData md) throws SQLException {
+            String[] normalizedColumnNames = getNormalizedColumnNames(md);
+
+            // the last column of a given name wins
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < normalizedColumnNames.length; i++) {
+                positions.put(normalizedColumnNames[i], i + 1);
+            }
+
+            int[][] columns = new int[FIELD_COLUMN_NAMES.length][];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = Arrays.stream(FIELD_COLUMN_NAMES[i])
+                        .map(positions::get)
+                        .filter(Objects::nonNull)
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+            }
+            return new ColumnPlan(columns);
+        }
+
+        private final int[][] columns;
+
+        SqlTable read(ResultSet rs) throws SQLException {
+            return new SqlTable(
+                    get(rs, 0),
+                    get(rs, 1),
+                    nullToEmpty(get(rs, 2)),
+                    nullToEmpty(get(rs, 3)),
+                    get(rs, 4),
+                    get(rs, 5),
+                    get(rs, 6),
+                    get(rs, 7),
+                    get(rs, 8),
+                    get(rs, 9));
+        }
+
+        private @Nullable String get(ResultSet rs, int field) throws SQLException {
+            for (int column : columns[field]) {
+                String result = rs.getString(column);
+                if (result != null) {
+                    return result;
+                }
             }
+            return null;
         }
-        return null;
     }
 
     /**
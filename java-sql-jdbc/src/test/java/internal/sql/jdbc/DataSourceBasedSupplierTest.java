@@ -18,9 +18,18 @@ package internal.sql.jdbc;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import org.hsqldb.jdbc.JDBCDataSource;
 import org.junit.jupiter.api.Test;;
 
@@ -46,6 +55,125 @@ public class DataSourceBasedSupplierTest {
         }).doesNotThrowAnyException();
     }
 
+    @Test
+    public void testMemoization() throws SQLException {
+        List<CloseableDataSource> created = new ArrayList<>();
+        DataSourceBasedSupplier x = new DataSourceBasedSupplier(connectionString -> {
+            CloseableDataSource result = new CloseableDataSource();
+            result.setDatabase("jdbc:hsqldb:" + connectionString);
+            created.add(result);
+            return result;
+        }, 2);
+
+        x.getConnection("mem:a").close();
+        x.getConnection("mem:a").close();
+        assertThat(created).hasSize(1);
+
+        x.getConnection("mem:b").close();
+        x.getConnection("mem:a").close();
+        x.getConnection("mem:c").close();
+        assertThat(created).hasSize(3);
+        assertThat(created.get(1).closed)
+                .as("The least recently used data source is evicted and closed")
+                .isTrue();
+        assertThat(created.get(0).closed).isFalse();
+
+        x.getConnection("mem:a").close();
+        assertThat(created).hasSize(3);
+
+        x.close();
+        assertThat(created).allMatch(dataSource -> dataSource.closed);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new DataSourceBasedSupplier(connectionString -> newDataSource(connectionString), -1));
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        List<String> created = new CopyOnWriteArrayList<>();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DataSourceBasedSupplier x = new DataSourceBasedSupplier(connectionString -> {
+            created.add(connectionString);
+            if (connectionString.equals("mem:slow")) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    throw new SQLException(ex);
+                }
+            }
+            if (connectionString.equals("mem:bad")) {
+                throw new SQLException("bad");
+            }
+            return newDataSource("jdbc:hsqldb:" + connectionString);
+        }, 10);
+
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    x.getConnection("mem:slow").close();
+                } catch (SQLException ex) {
+                    errors.add(ex);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> x.getConnection("mem:fast").close(),
+                "A data source being created must not block the other connection strings");
+
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        assertThat(errors).isEmpty();
+        assertThat(created)
+                .as("A data source is created once per connection string")
+                .containsExactlyInAnyOrder("mem:slow", "mem:fast");
+
+        assertThatExceptionOfType(SQLException.class)
+                .isThrownBy(() -> x.getConnection("mem:bad"))
+                .withMessage("bad");
+        assertThatExceptionOfType(SQLException.class)
+                .isThrownBy(() -> x.getConnection("mem:bad"))
+                .withMessage("bad");
+        assertThat(created)
+                .as("A failed creation is not memoized")
+                .containsOnlyOnce("mem:slow", "mem:fast")
+                .hasSize(4);
+
+        x.close();
+    }
+
+    @Test
+    public void testNoMemoization() throws SQLException {
+        List<JDBCDataSource> created = new ArrayList<>();
+        DataSourceBasedSupplier x = new DataSourceBasedSupplier(connectionString -> {
+            JDBCDataSource result = newDataSource("jdbc:hsqldb:" + connectionString);
+            created.add(result);
+            return result;
+        });
+
+        x.getConnection("mem:a").close();
+        x.getConnection("mem:a").close();
+        assertThat(created).hasSize(2);
+    }
+
+    private static final class CloseableDataSource extends JDBCDataSource implements AutoCloseable {
+
+        boolean closed = false;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
     static JDBCDataSource newDataSource(String database) {
         JDBCDataSource result = new JDBCDataSource();
         result.setDatabase(database);
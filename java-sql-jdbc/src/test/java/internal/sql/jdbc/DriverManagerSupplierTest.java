@@ -17,7 +17,12 @@
 package internal.sql.jdbc;
 
 import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
 import static org.assertj.core.api.Assertions.*;
 import org.hsqldb.jdbc.JDBCDriver;
 import org.junit.jupiter.api.Test;;
@@ -47,4 +52,37 @@ public class DriverManagerSupplierTest {
             }
         }).doesNotThrowAnyException();
     }
+
+    @Test
+    public void testDeregisteredDriver() throws SQLException {
+        AtomicLong clock = new AtomicLong();
+        DriverManagerSupplier x = new DriverManagerSupplier(JDBCDriver.class.getName(), o -> "jdbc:hsqldb:" + o, Duration.ofSeconds(10), clock::get);
+
+        x.getConnection("mem:test").close();
+
+        Driver driver = Collections
+                .list(DriverManager.getDrivers())
+                .stream()
+                .filter(JDBCDriver.class::isInstance)
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+
+        DriverManager.deregisterDriver(driver);
+        try {
+            assertThatCode(() -> x.getConnection("mem:test").close())
+                    .as("The resolved driver is used until its registration is checked again")
+                    .doesNotThrowAnyException();
+
+            clock.addAndGet(Duration.ofSeconds(10).toNanos());
+            assertThatExceptionOfType(SQLException.class)
+                    .as("A deregistered driver falls back to DriverManager")
+                    .isThrownBy(() -> x.getConnection("mem:test"));
+        } finally {
+            DriverManager.registerDriver(driver);
+        }
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThatCode(() -> x.getConnection("mem:test").close())
+                .doesNotThrowAnyException();
+    }
 }
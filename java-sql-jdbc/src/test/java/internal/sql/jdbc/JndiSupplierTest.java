@@ -18,9 +18,14 @@ package internal.sql.jdbc;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 import javax.naming.Binding;
+import javax.naming.CommunicationException;
 import javax.naming.Context;
 import javax.naming.Name;
 import javax.naming.NameClassPair;
@@ -59,8 +64,88 @@ public class JndiSupplierTest {
         }).doesNotThrowAnyException();
     }
 
+    @Test
+    public void testCache() throws SQLException {
+        AtomicLong clock = new AtomicLong();
+        List<InMemoryDriverContext> contexts = new ArrayList<>();
+        JndiSupplier x = new JndiSupplier(() -> {
+            InMemoryDriverContext result = new InMemoryDriverContext();
+            contexts.add(result);
+            return result;
+        }, Duration.ofSeconds(10), clock::get);
+
+        x.getConnection(InMemoryDriver.HSQLDB.name()).close();
+        x.getConnection(InMemoryDriver.HSQLDB.name()).close();
+        assertThat(contexts).hasSize(1);
+        assertThat(contexts.get(0).lookups).isEqualTo(1);
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        x.getConnection(InMemoryDriver.HSQLDB.name()).close();
+        assertThat(contexts).hasSize(1);
+        assertThat(contexts.get(0).lookups)
+                .as("An expired data source is looked up again with the same context")
+                .isEqualTo(2);
+
+        assertThatExceptionOfType(SQLException.class)
+                .isThrownBy(() -> x.getConnection("abc"))
+                .withMessageContaining("abc");
+        assertThat(contexts.get(0).closed)
+                .as("A missing name keeps the context")
+                .isFalse();
+
+        assertThatExceptionOfType(SQLException.class)
+                .isThrownBy(() -> x.getConnection(UNREACHABLE))
+                .withMessageContaining(UNREACHABLE);
+        assertThat(contexts.get(0).closed)
+                .as("An unreachable naming service closes the context")
+                .isTrue();
+
+        x.getConnection(InMemoryDriver.HSQLDB.name()).close();
+        assertThat(contexts)
+                .as("The other data sources stay cached")
+                .hasSize(1);
+        assertThat(contexts.get(0).lookups).isEqualTo(4);
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        x.getConnection(InMemoryDriver.HSQLDB.name()).close();
+        assertThat(contexts).hasSize(2);
+        assertThat(contexts.get(1).lookups).isEqualTo(1);
+
+        x.close();
+        assertThat(contexts.get(1).closed).isTrue();
+
+        x.getConnection(InMemoryDriver.HSQLDB.name()).close();
+        assertThat(contexts).hasSize(3);
+    }
+
+    @Test
+    public void testNoCache() throws SQLException {
+        InMemoryDriverContext context = new InMemoryDriverContext();
+        JndiSupplier x = new JndiSupplier(() -> context, Duration.ZERO);
+
+        x.getConnection(InMemoryDriver.HSQLDB.name()).close();
+        x.getConnection(InMemoryDriver.HSQLDB.name()).close();
+        assertThat(context.lookups).isEqualTo(2);
+
+        JndiSupplier uncached = new JndiSupplier(() -> context);
+        uncached.getConnection(InMemoryDriver.HSQLDB.name()).close();
+        uncached.getConnection(InMemoryDriver.HSQLDB.name()).close();
+        assertThat(context.lookups)
+                .as("Data sources are not cached by default")
+                .isEqualTo(4);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new JndiSupplier(() -> context, Duration.ofSeconds(-1)));
+    }
+
+    private static final String UNREACHABLE = "unreachable";
+
     private static final class InMemoryDriverContext implements Context {
 
+        int lookups = 0;
+
+        boolean closed = false;
+
         @Override
         public Object lookup(Name name) throws NamingException {
             throw new NamingException("Not supported yet.");
@@ -68,6 +153,10 @@ public class JndiSupplierTest {
 
         @Override
         public Object lookup(String name) throws NamingException {
+            lookups++;
+            if (UNREACHABLE.equals(name)) {
+                throw new CommunicationException(name);
+            }
             return Stream.of(InMemoryDriver.values())
                     .filter(driver -> driver.name().equals(name))
                     .map(driver -> DataSourceBasedSupplierTest.newDataSource(driver.getUrl()))
@@ -202,7 +291,7 @@ public class JndiSupplierTest {
 
         @Override
         public void close() throws NamingException {
-            throw new NamingException("Not supported yet.");
+            closed = true;
         }
 
         @Override
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.jdbc;
+
+import nbbrd.sql.jdbc.InMemoryDriver;
+import nbbrd.sql.jdbc.SqlConnectionPool;
+import nbbrd.sql.jdbc.SqlConnectionSupplier;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * @author Philippe Charles
+ */
+public class PooledSupplierTest {
+
+    private static final String CONN_STRING = "test";
+
+    @Test
+    public void testReuse() throws SQLException {
+        for (InMemoryDriver driver : InMemoryDriver.values()) {
+            CountingSupplier delegate = new CountingSupplier(driver);
+            try (PooledSupplier x = new PooledSupplier(delegate, config().build(), System::nanoTime)) {
+                Connection first = x.getConnection(CONN_STRING);
+                assertThat(first.isValid(1)).isTrue();
+                first.close();
+                assertThat(first.isClosed()).isTrue();
+                assertThatExceptionOfType(SQLException.class)
+                        .as("A returned connection cannot be used")
+                        .isThrownBy(first::createStatement);
+                first.close();
+
+                try (Connection second = x.getConnection(CONN_STRING)) {
+                    assertThat(second.isClosed()).isFalse();
+                    assertThat(second).isNotSameAs(first);
+                }
+                assertThat(delegate.opened).hasSize(1);
+                assertThat(delegate.opened.get(0).isClosed()).isFalse();
+                assertThat(x.getIdleCount(CONN_STRING)).isEqualTo(1);
+
+                try (Connection other = x.getConnection("other")) {
+                    assertThat(delegate.opened).hasSize(2);
+                }
+            }
+            assertThat(delegate.opened).allMatch(PooledSupplierTest::isPhysicallyClosed);
+        }
+    }
+
+    @Test
+    public void testMaxSize() throws SQLException {
+        CountingSupplier delegate = new CountingSupplier(InMemoryDriver.HSQLDB);
+        try (PooledSupplier x = new PooledSupplier(delegate, config().maxSize(1).maxWait(Duration.ofMillis(10)).build(), System::nanoTime)) {
+            Connection first = x.getConnection(CONN_STRING);
+            assertThatExceptionOfType(SQLTimeoutException.class)
+                    .isThrownBy(() -> x.getConnection(CONN_STRING))
+                    .withMessageContaining(CONN_STRING);
+            first.close();
+            x.getConnection(CONN_STRING).close();
+            assertThat(delegate.opened).hasSize(1);
+        }
+    }
+
+    @Test
+    public void testFairWaiting() throws Exception {
+        CountingSupplier delegate = new CountingSupplier(InMemoryDriver.HSQLDB);
+        try (PooledSupplier x = new PooledSupplier(delegate, config().maxSize(1).build(), System::nanoTime)) {
+            Connection holder = x.getConnection(CONN_STRING);
+
+            List<Integer> order = new CopyOnWriteArrayList<>();
+            CountDownLatch done = new CountDownLatch(3);
+            for (int i = 0; i < 3; i++) {
+                int index = i;
+                Thread thread = new Thread(() -> {
+                    try (Connection ignore = x.getConnection(CONN_STRING)) {
+                        order.add(index);
+                    } catch (SQLException ex) {
+                        throw new RuntimeException(ex);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+                thread.start();
+                awaitWaitingCount(x, i + 1);
+            }
+
+            holder.close();
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(order).containsExactly(0, 1, 2);
+        }
+    }
+
+    @Test
+    public void testBoundObjects() throws SQLException {
+        CountingSupplier delegate = new CountingSupplier(InMemoryDriver.HSQLDB);
+        try (PooledSupplier x = new PooledSupplier(delegate, config().build(), System::nanoTime)) {
+            Connection conn = x.getConnection(CONN_STRING);
+            Statement stmt = conn.createStatement();
+            assertThat(stmt.getConnection()).isSameAs(conn);
+            try (ResultSet rs = stmt.executeQuery("VALUES (1)")) {
+                assertThat(rs.next()).isTrue();
+                assertThat(rs.getInt(1)).isEqualTo(1);
+                assertThat(rs.getStatement()).isSameAs(stmt);
+                assertThat(rs.getStatement().getConnection()).isSameAs(conn);
+            }
+            PreparedStatement prepared = conn.prepareStatement("VALUES (1)");
+            assertThat(prepared.getConnection()).isSameAs(conn);
+            assertThat(conn.prepareCall("CALL ABS(-1)").getConnection()).isSameAs(conn);
+            assertThat(conn.getMetaData().getConnection()).isSameAs(conn);
+            try (ResultSet rs = conn.getMetaData().getTables(null, null, "%", null)) {
+                assertThat(rs.getStatement())
+                        .as("A result set of metadata must not expose the pooled connection")
+                        .isNull();
+            }
+
+            Statement physical = stmt.unwrap(Statement.class);
+            ResultSet open = prepared.executeQuery();
+            conn.close();
+            assertThat(physical.isClosed())
+                    .as("Returning a connection must close its statements")
+                    .isTrue();
+            assertThat(stmt.isClosed()).isTrue();
+            assertThat(open.isClosed()).isTrue();
+            assertThatExceptionOfType(SQLException.class)
+                    .as("A statement cannot be used once its connection is returned")
+                    .isThrownBy(() -> prepared.executeQuery())
+                    .withMessage("Connection closed");
+            assertThatExceptionOfType(SQLException.class)
+                    .isThrownBy(stmt::getConnection)
+                    .withMessage("Connection closed");
+            assertThatCode(stmt::close).doesNotThrowAnyException();
+
+            try (Connection next = x.getConnection(CONN_STRING)) {
+                assertThat(delegate.opened).hasSize(1);
+                assertThat(next.createStatement().executeQuery("VALUES (1)").next()).isTrue();
+            }
+        }
+    }
+
+    @Test
+    public void testValidation() throws SQLException {
+        for (InMemoryDriver driver : InMemoryDriver.values()) {
+            CountingSupplier delegate = new CountingSupplier(driver);
+            try (PooledSupplier x = new PooledSupplier(delegate, config().build(), System::nanoTime)) {
+                x.getConnection(CONN_STRING).close();
+                delegate.opened.get(0).close();
+
+                try (Connection conn = x.getConnection(CONN_STRING)) {
+                    assertThat(conn.isValid(1)).isTrue();
+                }
+                assertThat(delegate.opened).hasSize(2);
+            }
+        }
+    }
+
+    @Test
+    public void testReset() throws SQLException {
+        CountingSupplier delegate = new CountingSupplier(InMemoryDriver.H2);
+        try (PooledSupplier x = new PooledSupplier(delegate, config().build(), System::nanoTime)) {
+            try (Connection conn = x.getConnection(CONN_STRING)) {
+                conn.setAutoCommit(false);
+            }
+            try (Connection conn = x.getConnection(CONN_STRING)) {
+                assertThat(conn.getAutoCommit()).isTrue();
+            }
+            assertThat(delegate.opened).hasSize(1);
+        }
+    }
+
+    @Test
+    public void testMaxLifetime() throws SQLException {
+        AtomicLong clock = new AtomicLong();
+        CountingSupplier delegate = new CountingSupplier(InMemoryDriver.HSQLDB);
+        try (PooledSupplier x = new PooledSupplier(delegate, config().maxLifetime(Duration.ofSeconds(10)).build(), clock::get)) {
+            x.getConnection(CONN_STRING).close();
+
+            clock.addAndGet(Duration.ofSeconds(11).toNanos());
+            x.getConnection(CONN_STRING).close();
+            assertThat(delegate.opened).hasSize(2);
+            assertThat(isPhysicallyClosed(delegate.opened.get(0))).isTrue();
+
+            try (Connection conn = x.getConnection(CONN_STRING)) {
+                clock.addAndGet(Duration.ofSeconds(11).toNanos());
+            }
+            assertThat(isPhysicallyClosed(delegate.opened.get(1)))
+                    .as("An expired connection is closed when returned")
+                    .isTrue();
+            assertThat(x.getIdleCount(CONN_STRING)).isZero();
+        }
+    }
+
+    @Test
+    public void testIdleTimeoutAndMinIdle() throws SQLException {
+        AtomicLong clock = new AtomicLong();
+        CountingSupplier delegate = new CountingSupplier(InMemoryDriver.HSQLDB);
+        try (PooledSupplier x = new PooledSupplier(delegate, config().minIdle(1).idleTimeout(Duration.ofSeconds(5)).build(), clock::get)) {
+            Connection first = x.getConnection(CONN_STRING);
+            Connection second = x.getConnection(CONN_STRING);
+            first.close();
+            second.close();
+            assertThat(x.getIdleCount(CONN_STRING)).isEqualTo(2);
+
+            clock.addAndGet(Duration.ofSeconds(6).toNanos());
+            x.maintain();
+            assertThat(x.getIdleCount(CONN_STRING))
+                    .as("Idle connections are closed down to the minimum")
+                    .isEqualTo(1);
+            assertThat(delegate.opened).filteredOn(PooledSupplierTest::isPhysicallyClosed).hasSize(1);
+
+            x.getConnection(CONN_STRING);
+            x.maintain();
+            assertThat(x.getIdleCount(CONN_STRING))
+                    .as("The minimum idle connections are opened")
+                    .isEqualTo(1);
+            assertThat(delegate.opened).hasSize(3);
+        }
+    }
+
+    @Test
+    public void testClose() throws SQLException {
+        CountingSupplier delegate = new CountingSupplier(InMemoryDriver.HSQLDB);
+        PooledSupplier x = new PooledSupplier(delegate, config().build(), System::nanoTime);
+        Connection borrowed = x.getConnection(CONN_STRING);
+        x.getConnection(CONN_STRING).close();
+        x.close();
+
+        assertThat(isPhysicallyClosed(delegate.opened.get(1))).isTrue();
+        assertThat(isPhysicallyClosed(delegate.opened.get(0))).isFalse();
+        borrowed.close();
+        assertThat(isPhysicallyClosed(delegate.opened.get(0))).isTrue();
+
+        assertThatExceptionOfType(SQLException.class)
+                .isThrownBy(() -> x.getConnection(CONN_STRING))
+                .withMessage("Pool closed");
+    }
+
+    @Test
+    public void testConfig() {
+        SqlConnectionSupplier delegate = new CountingSupplier(InMemoryDriver.HSQLDB);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new PooledSupplier(delegate, config().maxSize(0).build()));
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new PooledSupplier(delegate, config().minIdle(11).build()));
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new PooledSupplier(delegate, config().maxWait(Duration.ofSeconds(-1)).build()));
+
+        assertThatNullPointerException()
+                .isThrownBy(() -> new PooledSupplier(delegate, config().build()).getConnection(null));
+    }
+
+    private static SqlConnectionPool.Config.Builder config() {
+        return SqlConnectionPool.Config.builder().housekeepingPeriod(Duration.ZERO);
+    }
+
+    private static void awaitWaitingCount(PooledSupplier x, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (x.getWaitingCount(CONN_STRING) < expected) {
+            if (System.nanoTime() > deadline) {
+                fail("Timeout while waiting for %s borrowers", expected);
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private static boolean isPhysicallyClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class CountingSupplier implements SqlConnectionSupplier {
+
+        private final InMemoryDriver driver;
+
+        final List<Connection> opened = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Connection getConnection(String connectionString) throws SQLException {
+            Connection result = driver.getConnection();
+            opened.add(result);
+            return result;
+        }
+    }
+}
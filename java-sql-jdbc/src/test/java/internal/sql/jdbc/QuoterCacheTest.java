@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.jdbc;
+
+import nbbrd.sql.jdbc.InMemoryDriver;
+import nbbrd.sql.jdbc.SqlIdentifierQuoter;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * @author Philippe Charles
+ */
+public class QuoterCacheTest {
+
+    @Test
+    public void testGet() throws SQLException {
+        for (InMemoryDriver driver : InMemoryDriver.values()) {
+            QuoterCache x = new QuoterCache(10);
+            try (Connection conn = driver.getConnection()) {
+                DatabaseMetaData metaData = conn.getMetaData();
+                SqlIdentifierQuoter expected = SqlIdentifierQuoter.of(metaData);
+
+                assertThat(x.get(metaData)).isEqualTo(expected);
+                assertThat(x.getMetrics()).isEqualTo(new SqlIdentifierQuoter.CacheMetrics(0, 1, 0, 1));
+
+                for (int i = 0; i < 3; i++) {
+                    assertThat(x.get(metaData)).isSameAs(x.get(metaData));
+                }
+                SqlIdentifierQuoter.CacheMetrics metrics = x.getMetrics();
+                assertThat(metrics.getHitCount()).isEqualTo(6);
+                assertThat(metrics.getMissCount()).isEqualTo(1);
+                assertThat(metrics.getAvoidedMetaDataCallCount())
+                        .as("Quote string, keywords, storage rule and extra chars are not loaded again")
+                        .isGreaterThanOrEqualTo(6 * 4);
+                assertThat(metrics.getAvoidedMetaDataCallCount() % metrics.getHitCount()).isZero();
+            }
+        }
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        QuoterCache x = new QuoterCache(10);
+        AtomicInteger keywordCalls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (Connection conn = InMemoryDriver.HSQLDB.getConnection()) {
+            DatabaseMetaData metaData = intercept(conn.getMetaData(), "getSQLKeywords", () -> {
+                keywordCalls.incrementAndGet();
+                started.countDown();
+                release.await();
+            });
+
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<SqlIdentifierQuoter>> results = new ArrayList<>();
+                results.add(executor.submit(() -> x.get(metaData)));
+                started.await();
+                for (int i = 0; i < 3; i++) {
+                    results.add(executor.submit(() -> x.get(metaData)));
+                }
+                release.countDown();
+                for (Future<SqlIdentifierQuoter> result : results) {
+                    assertThat(result.get()).isSameAs(results.get(0).get());
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+        assertThat(keywordCalls).hasValue(1);
+        assertThat(x.getMetrics().getMissCount()).isEqualTo(1);
+        assertThat(x.getMetrics().getHitCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testFailure() throws SQLException {
+        QuoterCache x = new QuoterCache(10);
+        AtomicInteger failures = new AtomicInteger(1);
+        try (Connection conn = InMemoryDriver.HSQLDB.getConnection()) {
+            DatabaseMetaData metaData = intercept(conn.getMetaData(), "getSQLKeywords", () -> {
+                if (failures.getAndDecrement() > 0) {
+                    throw new SQLException("boom");
+                }
+            });
+
+            assertThatExceptionOfType(SQLException.class)
+                    .isThrownBy(() -> x.get(metaData))
+                    .withMessage("boom");
+            assertThat(x.getMetrics().getSize()).isZero();
+
+            assertThat(x.get(metaData)).isNotNull();
+            assertThat(x.getMetrics().getMissCount()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void testMaxSize() throws SQLException {
+        QuoterCache x = new QuoterCache(1);
+        for (InMemoryDriver driver : InMemoryDriver.values()) {
+            try (Connection conn = driver.getConnection()) {
+                x.get(conn.getMetaData());
+            }
+        }
+        assertThat(x.getMetrics().getSize()).isEqualTo(1);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> new QuoterCache(0));
+    }
+
+    private interface Interceptor {
+
+        void run() throws Exception;
+    }
+
+    private static DatabaseMetaData intercept(DatabaseMetaData delegate, String methodName, Interceptor interceptor) {
+        return (DatabaseMetaData) Proxy.newProxyInstance(
+                QuoterCacheTest.class.getClassLoader(),
+                new Class<?>[]{DatabaseMetaData.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals(methodName)) {
+                        interceptor.run();
+                    }
+                    try {
+                        return method.invoke(delegate, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+}
@@ -17,6 +17,7 @@
 package nbbrd.sql.jdbc;
 
 import java.sql.Driver;
+import java.time.Duration;
 import static nbbrd.sql.jdbc.SqlConnectionSupplier.*;
 import static org.assertj.core.api.Assertions.*;
 import org.hsqldb.jdbc.JDBCDataSource;
@@ -36,6 +37,14 @@ public class SqlConnectionSupplierTest {
 
         assertThat(ofDataSource(o -> new JDBCDataSource())).isNotNull();
 
+        assertThatNullPointerException()
+                .isThrownBy(() -> ofDataSource(null, 1));
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ofDataSource(o -> new JDBCDataSource(), 0));
+
+        assertThat(ofDataSource(o -> new JDBCDataSource(), 1)).isNotNull();
+
         assertThatNullPointerException()
                 .isThrownBy(() -> ofDriverManager(null, o -> o));
 
@@ -46,7 +55,18 @@ public class SqlConnectionSupplierTest {
 
         assertThat(ofJndi()).isNotNull();
 
+        assertThatNullPointerException()
+                .isThrownBy(() -> ofJndi(null));
+
+        assertThat(ofJndi(Duration.ZERO)).isNotNull();
+
         assertThat(noOp()).isNotNull();
+
+        assertThatNullPointerException()
+                .isThrownBy(() -> pooled(null, SqlConnectionPool.Config.builder().build()));
+
+        assertThatNullPointerException()
+                .isThrownBy(() -> pooled(noOp(), null));
     }
 
     @Test
@@ -59,6 +59,23 @@ public class SqlIdentifierQuoterTest {
         }
     }
 
+    @Test
+    public void testCachedFactory() throws SQLException {
+        assertThatNullPointerException().isThrownBy(() -> SqlIdentifierQuoter.ofCached(null));
+
+        for (InMemoryDriver driver : InMemoryDriver.values()) {
+            try (Connection conn = driver.getConnection()) {
+                long hitCount = SqlIdentifierQuoter.getCacheMetrics().getHitCount();
+
+                assertThat(SqlIdentifierQuoter.ofCached(conn.getMetaData()))
+                        .isEqualTo(SqlIdentifierQuoter.of(conn.getMetaData()))
+                        .isSameAs(SqlIdentifierQuoter.ofCached(conn.getMetaData()));
+
+                assertThat(SqlIdentifierQuoter.getCacheMetrics().getHitCount()).isGreaterThan(hitCount);
+            }
+        }
+    }
+
     @Test
     public void testLoadIdentifierQuoteString() throws SQLException {
         assertThatNullPointerException().isThrownBy(() -> loadIdentifierQuoteString(null));
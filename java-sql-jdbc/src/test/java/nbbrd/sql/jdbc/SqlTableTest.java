@@ -115,6 +115,22 @@ public class SqlTableTest {
         }
     }
 
+    @Test
+    public void testAllOfResultSet() throws SQLException {
+        try (Connection conn = InMemoryDriver.SQLITE.getConnection();
+             ResultSet rs = conn.createStatement().executeQuery(
+                     "SELECT 'cat' AS table_catalog, NULL AS table_cat, 'sch' AS table_schem, 'name' AS table_name, NULL AS table_type, 'other' AS other")) {
+            assertThat(SqlTable.fromResultSet(rs))
+                    .containsExactly(SqlTable
+                            .builder()
+                            .catalog("cat")
+                            .schema("sch")
+                            .name("name")
+                            .type("")
+                            .build());
+        }
+    }
+
     private static List<String> getCatalogs(DatabaseMetaData metaData) throws SQLException {
         List<String> result = new ArrayList<>();
         try (ResultSet rs = metaData.getCatalogs()) {
@@ -36,6 +36,10 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 @lombok.RequiredArgsConstructor(staticName = "of")
 final class LhodConnection extends _Connection {
 
+    static @NonNull LhodConnection of(@NonNull TabDataExecutor executor, @NonNull String connectionString) {
+        return of(executor, connectionString, LhodOptions.DEFAULT);
+    }
+
     @lombok.NonNull
     private final TabDataExecutor executor;
 
@@ -43,8 +47,14 @@ final class LhodConnection extends _Connection {
     @lombok.NonNull
     private final String connectionString;
 
+    @lombok.Getter
+    @lombok.NonNull
+    private final LhodOptions options;
+
     private EnumMap<DynamicProperty, String> lazyProperties = null;
 
+    private boolean sessionOpened = false;
+
     @Override
     public boolean isClosed() throws SQLException {
         try {
@@ -56,6 +66,16 @@ final class LhodConnection extends _Connection {
 
     @Override
     public void close() throws SQLException {
+        try {
+            closeSession();
+        } catch (IOException ex) {
+            try {
+                executor.close();
+            } catch (IOException suppressed) {
+                ex.addSuppressed(suppressed);
+            }
+            throw new SQLException("Failed to close session", ex);
+        }
         try {
             executor.close();
         } catch (IOException ex) {
@@ -116,23 +136,106 @@ final class LhodConnection extends _Connection {
 
     @NonNull
     TabDataReader exec(@NonNull TabDataQuery query) throws IOException {
+        openSession();
         return executor.exec(query);
     }
 
+    /**
+     * Executes a query whose rows are decoded ahead on a background thread if
+     * prefetching is enabled, whatever the format of the rows. The query is
+     * given a cancellation token if it has none so that closing the rows
+     * early can abort it.
+     *
+     * @param query     a non-null query
+     * @param fetchSize the number of rows per batch, zero for the default
+     * @return a non-null reader
+     * @throws IOException if the query cannot be executed
+     */
+    @NonNull
+    TabDataReader exec(@NonNull TabDataQuery query, int fetchSize) throws IOException {
+        int prefetch = options.getPrefetch();
+        if (prefetch <= 0) {
+            return exec(query);
+        }
+        TabDataQuery cancellable = query.getCancellation() != null
+                ? query
+                : query.toBuilder().cancellation(new TabDataCancellation()).build();
+        return TabDataPrefetchReader.open(exec(cancellable), fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE, prefetch, cancellable.getCancellation());
+    }
+
+    static final int DEFAULT_FETCH_SIZE = 1000;
+
+    @NonNull
+    TabDataResults execBatch(@NonNull List<TabDataQuery> queries) throws IOException {
+        openSession();
+        return executor.execBatch(queries);
+    }
+
+    /**
+     * Executes a query along with the loading of the dynamic properties if
+     * they are not known yet, so that browsing a new connection needs a single
+     * script invocation. The rows of the query are read in memory.
+     *
+     * @param query a non-null query
+     * @return a non-null reader
+     * @throws IOException if the query cannot be executed
+     */
+    @NonNull
+    TabDataReader execWithProperties(@NonNull TabDataQuery query) throws IOException {
+        if (lazyProperties != null || options.getPropertiesCache() != null) {
+            return exec(query);
+        }
+        try (TabDataResults results = execBatch(Arrays.asList(newPropertiesQuery(), query))) {
+            try {
+                lazyProperties = getProperties(readProperties(results.next()));
+            } catch (IOException ex) {
+                // the properties are loaded again when needed
+            }
+            return TabDataSnapshot.copyOf(results.next()).newReader();
+        }
+    }
+
+    private void openSession() throws IOException {
+        if (!sessionOpened) {
+            executor.openSession(connectionString);
+            sessionOpened = true;
+        }
+    }
+
+    private void closeSession() throws IOException {
+        if (sessionOpened) {
+            sessionOpened = false;
+            executor.closeSession(connectionString);
+        }
+    }
+
     private EnumMap<DynamicProperty, String> loadProperties() throws IOException {
-        TabDataQuery query = TabDataQuery
+        PropertiesCache propertiesCache = options.getPropertiesCache();
+        return getProperties(propertiesCache != null
+                ? propertiesCache.get(connectionString, this::fetchProperties)
+                : fetchProperties());
+    }
+
+    private Map<String, String> fetchProperties() throws IOException {
+        return readProperties(exec(newPropertiesQuery()));
+    }
+
+    private TabDataQuery newPropertiesQuery() {
+        return TabDataQuery
                 .builder()
                 .procedure("DbProperties")
                 .parameter(connectionString)
                 .parameters(DYNAMIC_PROPERTY_KEYS)
                 .build();
+    }
 
-        try (TabDataReader reader = exec(query)) {
+    private static Map<String, String> readProperties(TabDataReader reader) throws IOException {
+        try (TabDataReader closeable = reader) {
             Map<String, String> properties = new HashMap<>();
-            while (reader.readNextRow()) {
-                properties.put(reader.get(0), reader.get(1));
+            while (closeable.readNextRow()) {
+                properties.put(closeable.get(0), closeable.get(1));
             }
-            return getProperties(properties);
+            return properties;
         }
     }
 
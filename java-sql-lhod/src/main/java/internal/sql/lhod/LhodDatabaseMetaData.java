@@ -118,18 +118,29 @@ final class LhodDatabaseMetaData extends _DatabaseMetaData {
     public ResultSet getTables(String catalog, String schemaPattern, String tableNamePattern, String[] types) throws SQLException {
         conn.checkState();
 
+        MetaDataCache.Key key = new MetaDataCache.Key(
+                conn.getConnectionString(),
+                catalog != null ? catalog : "",
+                schemaPattern != null && !schemaPattern.equals("%") ? schemaPattern : "",
+                tableNamePattern != null && !tableNamePattern.equals("%") ? tableNamePattern : "",
+                conn.getOptions().getTableColumns(),
+                // sorted so that the same types in another order share a cache entry
+                types != null ? Stream.of(types).distinct().sorted().collect(Collectors.toList()) : Collections.emptyList());
+
         TabDataQuery query = TabDataQuery
                 .builder()
                 .procedure("OpenSchema")
-                .parameter(conn.getConnectionString())
-                .parameter(catalog != null ? catalog : "")
-                .parameter(schemaPattern != null && !schemaPattern.equals("%") ? schemaPattern : "")
-                .parameter(tableNamePattern != null && !tableNamePattern.equals("%") ? tableNamePattern : "")
-                .parameters(types != null ? Arrays.asList(types) : Collections.emptyList())
+                .parameter(key.getConnectionString())
+                .parameter(key.getCatalog())
+                .parameter(key.getSchemaPattern())
+                .parameter(key.getTableNamePattern())
+                .parameter(String.join(",", key.getColumns()))
+                .parameters(key.getTypes())
                 .build();
 
+        MetaDataCache cache = conn.getOptions().getMetaDataCache();
         try {
-            return LhodResultSet.of(conn.exec(query));
+            return LhodResultSet.of(cache != null ? cache.get(key, () -> conn.execWithProperties(query)).newReader() : conn.execWithProperties(query));
         } catch (IOException ex) {
             throw ex instanceof TabDataRemoteError
                     ? new SQLException(ex.getMessage(), "", ((TabDataRemoteError) ex).getNumber())
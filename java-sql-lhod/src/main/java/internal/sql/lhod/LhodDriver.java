@@ -54,13 +54,22 @@ public final class LhodDriver extends _Driver {
     @lombok.NonNull
     private final TabDataEngine engine;
 
+    @lombok.NonNull
+    private final LhodOptions options;
+
     public LhodDriver() {
-        this(new PsEngine());
+        this(PooledEngine.wrap(new PsEngine()), LhodOptions.fromSystemProperties());
     }
 
     @VisibleForTesting
     public LhodDriver(@NonNull TabDataEngine engine) {
+        this(engine, LhodOptions.DEFAULT);
+    }
+
+    @VisibleForTesting
+    public LhodDriver(@NonNull TabDataEngine engine, @NonNull LhodOptions options) {
         this.engine = engine;
+        this.options = options;
     }
 
     @Override
@@ -69,7 +78,7 @@ public final class LhodDriver extends _Driver {
             return null;
         }
         try {
-            return LhodConnection.of(engine.getExecutor(), getConnectionString(url));
+            return LhodConnection.of(engine.getExecutor(), getConnectionString(url), options);
         } catch (IOException ex) {
             throw new SQLException(format(Locale.ROOT, "Cannot instantiate executor: '%s'", url), ex);
         }
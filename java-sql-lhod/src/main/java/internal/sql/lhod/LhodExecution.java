@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.List;
+import java.util.Locale;
+
+import static internal.sql.lhod.LhodResultSet.CANCELLED_STATE;
+import static java.lang.String.format;
+
+/**
+ * Execution settings and results shared by {@link LhodStatement} and
+ * {@link LhodPreparedStatement}. The state of the statements is checked by
+ * the callers.
+ *
+ * @author Philippe Charles
+ */
+@lombok.RequiredArgsConstructor(staticName = "of")
+final class LhodExecution {
+
+    @lombok.NonNull
+    private final LhodConnection conn;
+
+    @lombok.Getter
+    private int fetchSize = 0;
+
+    @lombok.Getter
+    private int maxRows = 0;
+
+    @lombok.Getter
+    private int queryTimeout = 0;
+
+    // replaced on each execution so that cancel only stops the last one
+    private volatile TabDataCancellation cancellation = null;
+
+    private TabDataResults results = null;
+
+    private String resultsSql = null;
+
+    @lombok.Getter
+    private ResultSet resultSet = null;
+
+    void setFetchSize(int rows) throws SQLException {
+        if (rows < 0) {
+            throw new SQLException("Invalid fetch size: " + rows);
+        }
+        fetchSize = rows;
+    }
+
+    void setMaxRows(int max) throws SQLException {
+        if (max < 0) {
+            throw new SQLException("Invalid max rows: " + max);
+        }
+        maxRows = max;
+    }
+
+    void setQueryTimeout(int seconds) throws SQLException {
+        if (seconds < 0) {
+            throw new SQLException("Invalid query timeout: " + seconds);
+        }
+        queryTimeout = seconds;
+    }
+
+    void cancel() {
+        TabDataCancellation current = cancellation;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    ResultSet executeQuery(String sql, List<String> parameterList) throws SQLException {
+        closeResults();
+
+        try {
+            return LhodResultSet.of(conn.exec(newQuery(sql, parameterList, newCancellation()), fetchSize), maxRows);
+        } catch (IOException ex) {
+            throw toSQLException(ex, sql);
+        }
+    }
+
+    boolean execute(String sql, List<String> parameterList) throws SQLException {
+        resultSet = executeQuery(sql, parameterList);
+        return true;
+    }
+
+    /**
+     * Executes queries created by {@link #newQuery(String, List, TabDataCancellation)}
+     * in a single batch and moves to the first result.
+     *
+     * @param sql the text reported in errors
+     * @param queries the non-empty queries of the batch
+     * @return true if the first result is a result set
+     * @throws SQLException if the batch failed
+     */
+    boolean executeBatch(String sql, List<TabDataQuery> queries) throws SQLException {
+        closeResults();
+
+        try {
+            results = conn.execBatch(queries);
+            resultsSql = sql;
+        } catch (IOException ex) {
+            throw toSQLException(ex, sql);
+        }
+        return getMoreResults();
+    }
+
+    boolean getMoreResults() throws SQLException {
+        resultSet = null;
+        if (results == null) {
+            return false;
+        }
+        try {
+            TabDataReader next = results.next();
+            if (next == null) {
+                closeResults();
+                return false;
+            }
+            resultSet = LhodResultSet.of(next, maxRows);
+            return true;
+        } catch (IOException ex) {
+            throw toSQLException(ex, resultsSql);
+        }
+    }
+
+    void closeResults() throws SQLException {
+        resultSet = null;
+        if (results != null) {
+            TabDataResults previous = results;
+            results = null;
+            resultsSql = null;
+            try {
+                previous.close();
+            } catch (IOException ex) {
+                throw new SQLException("Failed to close results", ex);
+            }
+        }
+    }
+
+    TabDataQuery newQuery(String sql, List<String> parameterList, TabDataCancellation token) {
+        return TabDataQuery
+                .builder()
+                .procedure("PreparedStatement")
+                .parameter(conn.getConnectionString())
+                .parameter(sql)
+                .maxRows(maxRows)
+                .timeout(queryTimeout)
+                .cancellation(token)
+                .parameters(parameterList)
+                .build();
+    }
+
+    TabDataCancellation newCancellation() {
+        TabDataCancellation result = new TabDataCancellation();
+        cancellation = result;
+        return result;
+    }
+
+    private static SQLException toSQLException(IOException ex, String sql) {
+        if (ex instanceof TabDataTimeoutError) {
+            return new SQLTimeoutException(ex.getMessage(), ex);
+        }
+        if (ex instanceof TabDataCancelError) {
+            return new SQLException(ex.getMessage(), CANCELLED_STATE, ex);
+        }
+        return ex instanceof TabDataRemoteError
+                ? new SQLException(ex.getMessage(), "", ((TabDataRemoteError) ex).getNumber())
+                : new SQLException(format(Locale.ROOT, "Failed to execute query '%s'", sql), ex);
+    }
+}
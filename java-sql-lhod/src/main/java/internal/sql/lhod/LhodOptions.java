@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import lombok.NonNull;
+import nbbrd.io.text.Formatter;
+import nbbrd.io.text.IntProperty;
+import nbbrd.io.text.Parser;
+import nbbrd.io.text.Property;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Options of the connections created by a driver.
+ *
+ * @author Philippe Charles
+ */
+@lombok.Value
+public class LhodOptions {
+
+    /**
+     * Number of row batches decoded ahead of the result sets on a background
+     * thread; zero disables prefetching. The batch size is the fetch size of
+     * the statement.
+     */
+    public static final IntProperty PREFETCH_PROPERTY = IntProperty.of("lhod.prefetch", 0);
+
+    /**
+     * Comma-separated columns of the table metadata sent by the scripts, such
+     * as {@code TABLE_CATALOG,TABLE_SCHEMA,TABLE_NAME,TABLE_TYPE}; empty means
+     * all columns. Unknown columns are ignored.
+     */
+    public static final Property<List<String>> TABLE_COLUMNS_PROPERTY = Property.of(
+            "lhod.tableColumns",
+            Collections.emptyList(),
+            Parser.onStringList(chars -> Pattern.compile(",").splitAsStream(chars).map(String::trim).filter(column -> !column.isEmpty())),
+            Formatter.onStringList(columns -> columns.collect(Collectors.joining(",")))
+    );
+
+    public static final LhodOptions DEFAULT = builder().build();
+
+    /**
+     * Number of row batches decoded ahead of the result sets; zero disables prefetching.
+     */
+    int prefetch;
+
+    /**
+     * Cache of schema results shared across connections; null disables caching.
+     */
+    @Nullable
+    MetaDataCache metaDataCache;
+
+    /**
+     * Cache of dynamic properties shared across connections; null disables caching.
+     */
+    @Nullable
+    PropertiesCache propertiesCache;
+
+    /**
+     * Columns of the table metadata requested to the scripts; empty means all columns.
+     */
+    @NonNull
+    List<String> tableColumns;
+
+    @lombok.Builder(toBuilder = true)
+    private LhodOptions(int prefetch, @Nullable MetaDataCache metaDataCache, @Nullable PropertiesCache propertiesCache, @NonNull List<String> tableColumns) {
+        if (prefetch < 0) {
+            throw new IllegalArgumentException("Invalid prefetch: " + prefetch);
+        }
+        this.prefetch = prefetch;
+        this.metaDataCache = metaDataCache;
+        this.propertiesCache = propertiesCache;
+        this.tableColumns = Collections.unmodifiableList(new ArrayList<>(tableColumns));
+    }
+
+    public static Builder builder() {
+        return new Builder()
+                .prefetch(0)
+                .tableColumns(Collections.emptyList());
+    }
+
+    /**
+     * Creates options configured by system properties.
+     *
+     * @return non-null options
+     */
+    public static @NonNull LhodOptions fromSystemProperties() {
+        return builder()
+                .prefetch(PREFETCH_PROPERTY.get(System.getProperties()))
+                .metaDataCache(MetaDataCache.fromSystemProperties())
+                .propertiesCache(PropertiesCache.fromSystemProperties())
+                .tableColumns(TABLE_COLUMNS_PROPERTY.get(System.getProperties()))
+                .build();
+    }
+
+    // fix javadoc
+    public static final class Builder {
+    }
+}
@@ -16,11 +16,12 @@
  */
 package internal.sql.lhod;
 
-import java.io.IOException;
-import static java.lang.String.format;
+import java.math.BigDecimal;
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -28,7 +29,7 @@ import java.util.stream.Collectors;
  *
  * @author Philippe Charles
  */
-@lombok.RequiredArgsConstructor(staticName = "of")
+@lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
 final class LhodPreparedStatement extends _PreparedStatement {
 
     @lombok.NonNull
@@ -37,29 +38,24 @@ final class LhodPreparedStatement extends _PreparedStatement {
     @lombok.NonNull
     private final String sql;
 
+    // encoded by TabDataParameters
     private final Map<Integer, String> parameters = new HashMap<>();
 
-    private boolean closed = false;
+    private final List<List<String>> batch = new ArrayList<>();
+
+    private final LhodExecution execution;
+
+    // read by cancel from another thread
+    private volatile boolean closed = false;
+
+    static LhodPreparedStatement of(@lombok.NonNull LhodConnection conn, @lombok.NonNull String sql) {
+        return new LhodPreparedStatement(conn, sql, LhodExecution.of(conn));
+    }
 
     @Override
     public ResultSet executeQuery() throws SQLException {
         checkState();
-
-        TabDataQuery query = TabDataQuery
-                .builder()
-                .procedure("PreparedStatement")
-                .parameter(conn.getConnectionString())
-                .parameter(sql)
-                .parameters(getParameterList())
-                .build();
-
-        try {
-            return LhodResultSet.of(conn.exec(query));
-        } catch (IOException ex) {
-            throw ex instanceof TabDataRemoteError
-                    ? new SQLException(ex.getMessage(), "", ((TabDataRemoteError) ex).getNumber())
-                    : new SQLException(format(Locale.ROOT, "Failed to execute query '%s'", sql), ex);
-        }
+        return execution.executeQuery(sql, getParameterList());
     }
 
     @Override
@@ -69,14 +65,174 @@ final class LhodPreparedStatement extends _PreparedStatement {
 
     @Override
     public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
         closed = true;
+        execution.closeResults();
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        setParameter(parameterIndex, TabDataParameters.ofNull(sqlType));
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        setParameter(parameterIndex, TabDataParameters.ofBoolean(x));
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        setParameter(parameterIndex, TabDataParameters.ofInt(x));
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        setParameter(parameterIndex, TabDataParameters.ofInt(x));
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        setParameter(parameterIndex, TabDataParameters.ofLong(x));
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        setParameter(parameterIndex, TabDataParameters.ofDouble(x));
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        setParameter(parameterIndex, TabDataParameters.ofDouble(x));
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        setParameter(parameterIndex, TabDataParameters.ofBigDecimal(x));
     }
 
     @Override
     public void setString(int parameterIndex, String x) throws SQLException {
+        setParameter(parameterIndex, TabDataParameters.ofString(x));
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        setParameter(parameterIndex, TabDataParameters.ofDate(x));
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        setParameter(parameterIndex, TabDataParameters.ofTimestamp(x));
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
         checkState();
-        chechParameterIndex(parameterIndex);
-        parameters.put(parameterIndex, x);
+        parameters.clear();
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        checkState();
+        batch.add(getParameterList());
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        checkState();
+        batch.clear();
+    }
+
+    /**
+     * Executes the query once per parameter set of the batch, in a single
+     * script invocation if the executor supports it. Since the query returns
+     * rows, the result of each parameter set is reached with
+     * {@link #getResultSet()} and {@link #getMoreResults()}.
+     */
+    @Override
+    public int[] executeBatch() throws SQLException {
+        checkState();
+        execution.closeResults();
+
+        if (batch.isEmpty()) {
+            return new int[0];
+        }
+
+        TabDataCancellation token = execution.newCancellation();
+        List<TabDataQuery> queries = batch
+                .stream()
+                .map(parameterList -> execution.newQuery(sql, parameterList, token))
+                .collect(Collectors.toList());
+        batch.clear();
+
+        execution.executeBatch(sql, queries);
+
+        int[] result = new int[queries.size()];
+        Arrays.fill(result, SUCCESS_NO_INFO);
+        return result;
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        checkState();
+        return execution.getResultSet();
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        checkState();
+        return -1;
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        checkState();
+        return execution.getMoreResults();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        checkState();
+        execution.setFetchSize(rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        checkState();
+        return execution.getFetchSize();
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        checkState();
+        execution.setMaxRows(max);
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        checkState();
+        return execution.getMaxRows();
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        checkState();
+        execution.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        checkState();
+        return execution.getQueryTimeout();
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        // the connection is not checked since its executor may be busy with the query to cancel
+        checkNotClosed();
+        execution.cancel();
     }
 
     @Override
@@ -94,8 +250,18 @@ final class LhodPreparedStatement extends _PreparedStatement {
                 .collect(Collectors.toList());
     }
 
+    private void setParameter(int parameterIndex, String parameter) throws SQLException {
+        checkState();
+        chechParameterIndex(parameterIndex);
+        parameters.put(parameterIndex, parameter);
+    }
+
     private void checkState() throws SQLException {
         conn.checkState();
+        checkNotClosed();
+    }
+
+    private void checkNotClosed() throws SQLException {
         if (closed) {
             throw new SQLException("PreparedStatement closed");
         }
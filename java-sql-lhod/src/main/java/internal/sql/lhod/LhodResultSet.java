@@ -16,17 +16,16 @@
  */
 package internal.sql.lhod;
 
+import lombok.NonNull;
+
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.sql.Timestamp;
-import java.text.DateFormat;
-import java.text.NumberFormat;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Locale;
 
 /**
  *
@@ -35,17 +34,36 @@ import java.util.Locale;
 @lombok.RequiredArgsConstructor(staticName = "of")
 final class LhodResultSet extends _ResultSet {
 
+    static @NonNull LhodResultSet of(@NonNull TabDataReader reader) {
+        return of(reader, 0);
+    }
+
     @lombok.NonNull
     private final TabDataReader reader;
 
-    private final DateFormat dateFormat = newDateFormat();
-    private final NumberFormat numberFormat = newNumberFormat();
+    /**
+     * Maximum number of rows, also enforced here in case the procedure ignores it; zero means no limit.
+     */
+    private final int maxRows;
+
+    private int rowCount = 0;
 
     @Override
     public boolean next() throws SQLException {
         checkState();
+        if (maxRows > 0 && rowCount >= maxRows) {
+            return false;
+        }
         try {
-            return reader.readNextRow();
+            if (reader.readNextRow()) {
+                rowCount++;
+                return true;
+            }
+            return false;
+        } catch (TabDataTimeoutError ex) {
+            throw new SQLTimeoutException(ex.getMessage(), ex);
+        } catch (TabDataCancelError ex) {
+            throw new SQLException(ex.getMessage(), CANCELLED_STATE, ex);
         } catch (IOException ex) {
             throw ex instanceof TabDataRemoteError
                     ? new SQLException(ex.getMessage(), "", ((TabDataRemoteError) ex).getNumber())
@@ -89,37 +107,37 @@ final class LhodResultSet extends _ResultSet {
 
     @Override
     public Date getDate(int columnIndex) throws SQLException {
-        return new Date(parseDate(columnIndex).getTime());
+        return new Date(parseDate(columnIndex, true));
     }
 
     @Override
     public Timestamp getTimestamp(int columnIndex) throws SQLException {
-        return new Timestamp(parseDate(columnIndex).getTime());
+        return new Timestamp(parseDate(columnIndex, false));
     }
 
     @Override
     public double getDouble(int columnIndex) throws SQLException {
-        return parseNumber(columnIndex).doubleValue();
+        return parseDouble(columnIndex);
     }
 
     @Override
     public float getFloat(int columnIndex) throws SQLException {
-        return parseNumber(columnIndex).floatValue();
+        return (float) parseDouble(columnIndex);
     }
 
     @Override
     public long getLong(int columnIndex) throws SQLException {
-        return parseNumber(columnIndex).longValue();
+        return parseLong(columnIndex);
     }
 
     @Override
     public int getInt(int columnIndex) throws SQLException {
-        return parseNumber(columnIndex).intValue();
+        return (int) parseLong(columnIndex);
     }
 
     @Override
     public short getShort(int columnIndex) throws SQLException {
-        return parseNumber(columnIndex).shortValue();
+        return (short) parseLong(columnIndex);
     }
 
     @Override
@@ -127,17 +145,25 @@ final class LhodResultSet extends _ResultSet {
         return new BigDecimal(get(columnIndex));
     }
 
-    private java.util.Date parseDate(int columnIndex) throws SQLException {
+    private long parseDate(int columnIndex, boolean ignoreTime) throws SQLException {
         try {
-            return dateFormat.parse(get(columnIndex));
+            return reader.getDate(columnIndex - 1, ignoreTime);
         } catch (ParseException ex) {
             throw new SQLException("While parsing date", ex);
         }
     }
 
-    private Number parseNumber(int columnIndex) throws SQLException {
+    private double parseDouble(int columnIndex) throws SQLException {
         try {
-            return numberFormat.parse(get(columnIndex));
+            return reader.getDouble(columnIndex - 1);
+        } catch (ParseException ex) {
+            throw new SQLException("While parsing number", ex);
+        }
+    }
+
+    private long parseLong(int columnIndex) throws SQLException {
+        try {
+            return reader.getLong(columnIndex - 1);
         } catch (ParseException ex) {
             throw new SQLException("While parsing number", ex);
         }
@@ -147,21 +173,14 @@ final class LhodResultSet extends _ResultSet {
         return reader.get(columnIndex - 1);
     }
 
+    /**
+     * SQL state of an operation cancelled by {@link java.sql.Statement#cancel()}.
+     */
+    static final String CANCELLED_STATE = "HY008";
+
     private void checkState() throws SQLException {
         if (isClosed()) {
             throw new SQLException("ResultSet closed");
         }
     }
-
-    private static final Locale EN_US = new Locale("en", "us");
-
-    private static DateFormat newDateFormat() {
-        DateFormat result = new SimpleDateFormat("MM/dd/yyyy", EN_US);
-        result.setLenient(false);
-        return result;
-    }
-
-    private static NumberFormat newNumberFormat() {
-        return NumberFormat.getInstance(EN_US);
-    }
 }
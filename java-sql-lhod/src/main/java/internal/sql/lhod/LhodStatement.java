@@ -16,43 +16,79 @@
  */
 package internal.sql.lhod;
 
-import java.io.IOException;
-import static java.lang.String.format;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Locale;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  *
  * @author Philippe Charles
  */
-@lombok.RequiredArgsConstructor(staticName = "of")
+@lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
 final class LhodStatement extends _Statement {
 
     @lombok.NonNull
     private final LhodConnection conn;
 
-    private boolean closed = false;
+    private final LhodExecution execution;
+
+    // read by cancel from another thread
+    private volatile boolean closed = false;
+
+    static LhodStatement of(@lombok.NonNull LhodConnection conn) {
+        return new LhodStatement(conn, LhodExecution.of(conn));
+    }
 
     @Override
     public ResultSet executeQuery(String sql) throws SQLException {
         checkState();
+        return execution.executeQuery(sql, Collections.emptyList());
+    }
+
+    /**
+     * Executes one or more queries separated by semicolons. Several queries
+     * run in a single batch whose results are reached with
+     * {@link #getMoreResults()}.
+     */
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        checkState();
+        execution.closeResults();
 
-        TabDataQuery query = TabDataQuery
-                .builder()
-                .procedure("PreparedStatement")
-                .parameter(conn.getConnectionString())
-                .parameter(sql)
-                .build();
-
-        try {
-            return LhodResultSet.of(conn.exec(query));
-        } catch (IOException ex) {
-            throw ex instanceof TabDataRemoteError
-                    ? new SQLException(ex.getMessage(), "", ((TabDataRemoteError) ex).getNumber())
-                    : new SQLException(format(Locale.ROOT, "Failed to execute query '%s'", sql), ex);
+        List<String> statements = splitStatements(sql);
+        if (statements.size() <= 1) {
+            return execution.execute(sql, Collections.emptyList());
         }
+
+        TabDataCancellation token = execution.newCancellation();
+        List<TabDataQuery> queries = statements
+                .stream()
+                .map(statement -> execution.newQuery(statement, Collections.emptyList(), token))
+                .collect(Collectors.toList());
+
+        return execution.executeBatch(sql, queries);
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        checkState();
+        return execution.getResultSet();
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        checkState();
+        return -1;
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        checkState();
+        return execution.getMoreResults();
     }
 
     @Override
@@ -62,7 +98,54 @@ final class LhodStatement extends _Statement {
 
     @Override
     public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
         closed = true;
+        execution.closeResults();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        checkState();
+        execution.setFetchSize(rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        checkState();
+        return execution.getFetchSize();
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        checkState();
+        execution.setMaxRows(max);
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        checkState();
+        return execution.getMaxRows();
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        checkState();
+        execution.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        checkState();
+        return execution.getQueryTimeout();
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        // the connection is not checked since its executor may be busy with the query to cancel
+        checkNotClosed();
+        execution.cancel();
     }
 
     @Override
@@ -71,8 +154,58 @@ final class LhodStatement extends _Statement {
         return conn;
     }
 
+    /**
+     * Splits queries on the semicolons that are not quoted, bracketed or
+     * commented. Line comments ({@code --}) end with the line and block
+     * comments ({@code /* *}{@code /}) are not nested. Comments are kept in
+     * the queries but the parts that only contain comments are dropped.
+     *
+     * @param sql a non-null text
+     * @return a non-null list of non-blank queries
+     */
+    static List<String> splitStatements(String sql) {
+        List<String> result = new ArrayList<>();
+        int length = sql.length();
+        int start = 0;
+        boolean code = false;
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                i = skipPast(sql, "\n", i + 2);
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                i = skipPast(sql, "*/", i + 2);
+            } else if (c == '\'' || c == '"' || c == '[') {
+                i = skipPast(sql, c == '[' ? "]" : String.valueOf(c), i + 1);
+                code = true;
+            } else if (c == ';') {
+                if (code) {
+                    result.add(sql.substring(start, i).trim());
+                }
+                start = ++i;
+                code = false;
+            } else {
+                code |= !Character.isWhitespace(c);
+                i++;
+            }
+        }
+        if (code) {
+            result.add(sql.substring(start).trim());
+        }
+        return result;
+    }
+
+    private static int skipPast(String sql, String end, int from) {
+        int index = sql.indexOf(end, from);
+        return index == -1 ? sql.length() : index + end.length();
+    }
+
     private void checkState() throws SQLException {
         conn.checkState();
+        checkNotClosed();
+    }
+
+    private void checkNotClosed() throws SQLException {
         if (closed) {
             throw new SQLException("Statement closed");
         }
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import lombok.NonNull;
+import nbbrd.io.function.IOSupplier;
+import nbbrd.io.text.IntProperty;
+import nbbrd.io.text.LongProperty;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded cache of schema results that can be shared across connections.
+ * Entries expire after a time-to-live and, when the connection string points
+ * at a local file through {@code Data Source=} or {@code DBQ=}, as soon as the
+ * modification time of that file changes. The least recently used entry is
+ * evicted when the cache is full.
+ *
+ * @author Philippe Charles
+ */
+public final class MetaDataCache {
+
+    /**
+     * Maximum number of cached results; zero disables caching.
+     */
+    public static final IntProperty MAX_SIZE_PROPERTY = IntProperty.of("lhod.metaCache.maxSize", 0);
+
+    /**
+     * Time in milliseconds after which a cached result is reloaded.
+     */
+    public static final LongProperty TTL_PROPERTY = LongProperty.of("lhod.metaCache.ttl", 60_000);
+
+    private final Duration ttl;
+    private final LongSupplier clock;
+    private final Map<Key, Cached> entries;
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    @lombok.Builder
+    private MetaDataCache(int maxSize, @NonNull Duration ttl, @NonNull LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Invalid max size: " + maxSize);
+        }
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<Key, Cached>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Cached> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets a cached result or loads it if missing, expired or outdated.
+     * Concurrent misses on the same key may load it more than once.
+     *
+     * @param key    a non-null key
+     * @param loader a non-null supplier of the rows to cache
+     * @return a non-null result
+     * @throws IOException if the result cannot be loaded
+     */
+    @NonNull TabDataSnapshot get(@NonNull Key key, @NonNull IOSupplier<? extends TabDataReader> loader) throws IOException {
+        FileTime modified = getLastModifiedTime(key.getConnectionString());
+        synchronized (this) {
+            Cached entry = entries.get(key);
+            if (entry != null && isValid(entry, modified)) {
+                hitCount++;
+                return entry.getSnapshot();
+            }
+            missCount++;
+        }
+        TabDataSnapshot result = TabDataSnapshot.copyOf(loader.getWithIO());
+        synchronized (this) {
+            entries.put(key, new Cached(result, clock.getAsLong(), modified));
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized @NonNull Metrics getMetrics() {
+        return new Metrics(hitCount, missCount, entries.size());
+    }
+
+    private boolean isValid(Cached entry, FileTime modified) {
+        return clock.getAsLong() - entry.getLoadedAt() < ttl.toNanos()
+                && Objects.equals(entry.getModified(), modified);
+    }
+
+    private static FileTime getLastModifiedTime(String connectionString) {
+        Path file = getDataFile(connectionString);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the local file that a connection string points at.
+     *
+     * @param connectionString a non-null connection string
+     * @return a regular file if any, null otherwise
+     */
+    static @Nullable Path getDataFile(@NonNull String connectionString) {
+        for (String pair : splitPairs(connectionString)) {
+            int index = pair.indexOf('=');
+            if (index == -1) {
+                continue;
+            }
+            String name = pair.substring(0, index).trim().toLowerCase(Locale.ROOT);
+            if (name.equals("data source") || name.equals("dbq")) {
+                Path result = toPath(unquote(pair.substring(index + 1).trim()));
+                if (result != null && Files.isRegularFile(result)) {
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    // semicolons between double quotes belong to the value
+    private static List<String> splitPairs(String connectionString) {
+        List<String> result = new ArrayList<>();
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < connectionString.length(); i++) {
+            char c = connectionString.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ';' && !quoted) {
+                result.add(connectionString.substring(start, i));
+                start = i + 1;
+            }
+        }
+        result.add(connectionString.substring(start));
+        return result;
+    }
+
+    private static String unquote(String value) {
+        return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")
+                ? value.substring(1, value.length() - 1)
+                : value;
+    }
+
+    private static Path toPath(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Paths.get(value);
+        } catch (InvalidPathException ex) {
+            return null;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder()
+                .maxSize(100)
+                .ttl(Duration.ofMinutes(1))
+                .clock(System::nanoTime);
+    }
+
+    /**
+     * Creates a cache configured by system properties.
+     *
+     * @return a new cache, null if caching is disabled
+     */
+    public static @Nullable MetaDataCache fromSystemProperties() {
+        int maxSize = MAX_SIZE_PROPERTY.get(System.getProperties());
+        if (maxSize <= 0) {
+            return null;
+        }
+        return builder()
+                .maxSize(maxSize)
+                .ttl(Duration.ofMillis(TTL_PROPERTY.get(System.getProperties())))
+                .build();
+    }
+
+    @lombok.Value
+    public static class Metrics {
+
+        long hitCount;
+        long missCount;
+        int size;
+    }
+
+    @lombok.Value
+    static class Key {
+
+        @lombok.NonNull
+        String connectionString;
+
+        @lombok.NonNull
+        String catalog;
+
+        @lombok.NonNull
+        String schemaPattern;
+
+        @lombok.NonNull
+        String tableNamePattern;
+
+        @lombok.NonNull
+        List<String> columns;
+
+        @lombok.NonNull
+        List<String> types;
+    }
+
+    @lombok.Value
+    private static class Cached {
+
+        TabDataSnapshot snapshot;
+        long loadedAt;
+        FileTime modified;
+    }
+
+    // fix javadoc
+    public static final class Builder {
+    }
+}
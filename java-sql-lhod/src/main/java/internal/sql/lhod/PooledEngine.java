@@ -0,0 +1,431 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import lombok.NonNull;
+import nbbrd.io.text.IntProperty;
+import nbbrd.io.text.LongProperty;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import static java.lang.String.format;
+
+/**
+ * An engine that keeps a bounded pool of executors and lends them to
+ * connections. Closing a borrowed executor returns it to the pool.
+ * Executors are checked with {@link TabDataExecutor#isClosed()} when borrowed
+ * and returned, and idle executors are evicted after a timeout, either when
+ * the pool is used or periodically by a daemon reaper so that a quiet pool
+ * does not keep its executors alive.
+ *
+ * @author Philippe Charles
+ */
+public final class PooledEngine implements TabDataEngine, Closeable {
+
+    /**
+     * Maximum number of executors; zero disables pooling.
+     */
+    public static final IntProperty MAX_SIZE_PROPERTY = IntProperty.of("lhod.pool.maxSize", 0);
+
+    /**
+     * Time in milliseconds after which an idle executor is closed.
+     */
+    public static final LongProperty IDLE_TIMEOUT_PROPERTY = LongProperty.of("lhod.pool.idleTimeout", 60_000);
+
+    /**
+     * Time in milliseconds to wait for an executor when the pool is exhausted.
+     */
+    public static final LongProperty MAX_WAIT_PROPERTY = LongProperty.of("lhod.pool.maxWait", 30_000);
+
+    /**
+     * Time in milliseconds between two checks of the idle executors; zero disables the reaper.
+     */
+    public static final LongProperty EVICTION_PERIOD_PROPERTY = LongProperty.of("lhod.pool.evictionPeriod", 10_000);
+
+    private final TabDataEngine engine;
+    private final int maxSize;
+    private final Duration idleTimeout;
+    private final Duration maxWait;
+    private final LongSupplier clock;
+    private final ScheduledFuture<?> reaper;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition available = lock.newCondition();
+    private final Deque<Idle> idle = new ArrayDeque<>();
+    private int active = 0;
+    private long borrowCount = 0;
+    private long totalWaitNanos = 0;
+    private long maxWaitNanos = 0;
+    private boolean closed = false;
+
+    @lombok.Builder
+    private PooledEngine(@NonNull TabDataEngine engine, int maxSize, @NonNull Duration idleTimeout, @NonNull Duration maxWait, @NonNull Duration evictionPeriod, @NonNull LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Invalid max size: " + maxSize);
+        }
+        if (evictionPeriod.isNegative()) {
+            throw new IllegalArgumentException("Invalid eviction period: " + evictionPeriod);
+        }
+        this.engine = engine;
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+        this.maxWait = maxWait;
+        this.clock = clock;
+        this.reaper = evictionPeriod.isZero() ? null : schedule(this::reap, evictionPeriod);
+    }
+
+    @Override
+    public @NonNull String getId() {
+        return engine.getId();
+    }
+
+    @Override
+    public @NonNull TabDataExecutor getExecutor() throws IOException {
+        return new Borrowed(borrow());
+    }
+
+    @Override
+    public void close() throws IOException {
+        List<TabDataExecutor> evicted;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (reaper != null) {
+                reaper.cancel(false);
+            }
+            evicted = drainIdle();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        closeAll(evicted);
+    }
+
+    public @NonNull Metrics getMetrics() {
+        lock.lock();
+        try {
+            return new Metrics(active, idle.size(), borrowCount, Duration.ofNanos(totalWaitNanos), Duration.ofNanos(maxWaitNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private TabDataExecutor borrow() throws IOException {
+        List<TabDataExecutor> evicted = new ArrayList<>();
+        try {
+            long start = clock.getAsLong();
+            boolean create = false;
+            TabDataExecutor result = null;
+            lock.lock();
+            try {
+                long remaining = maxWait.toNanos();
+                while (result == null && !create) {
+                    checkNotClosed();
+                    evictExpired(evicted);
+                    result = pollHealthy(evicted);
+                    if (result == null) {
+                        if (active < maxSize) {
+                            create = true;
+                        } else if (remaining <= 0) {
+                            throw new IOException(format(Locale.ROOT, "Timeout while waiting for executor after %s ms", maxWait.toMillis()));
+                        } else {
+                            remaining = available.awaitNanos(remaining);
+                        }
+                    }
+                }
+                active++;
+                recordWait(clock.getAsLong() - start);
+            } finally {
+                lock.unlock();
+            }
+            if (create) {
+                try {
+                    result = engine.getExecutor();
+                } catch (IOException | RuntimeException ex) {
+                    release();
+                    throw ex;
+                }
+            }
+            return result;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for executor");
+        } finally {
+            closeAll(evicted);
+        }
+    }
+
+    private void giveBack(TabDataExecutor executor) throws IOException {
+        boolean healthy = isHealthy(executor);
+        List<TabDataExecutor> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            active--;
+            evictExpired(evicted);
+            if (healthy && !closed) {
+                idle.push(new Idle(executor, clock.getAsLong()));
+            } else {
+                evicted.add(executor);
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        closeAll(evicted);
+    }
+
+    /**
+     * Closes the idle executors that have expired.
+     *
+     * @throws IOException if an executor cannot be closed
+     */
+    void evict() throws IOException {
+        List<TabDataExecutor> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            evictExpired(evicted);
+        } finally {
+            lock.unlock();
+        }
+        closeAll(evicted);
+    }
+
+    private void reap() {
+        try {
+            evict();
+        } catch (IOException | RuntimeException ex) {
+            // an executor that cannot be closed is dropped anyway; the reaper must keep running
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            active--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkNotClosed() throws IOException {
+        if (closed) {
+            throw new IOException("Pool closed");
+        }
+    }
+
+    private TabDataExecutor pollHealthy(List<TabDataExecutor> evicted) {
+        Idle item;
+        while ((item = idle.poll()) != null) {
+            if (isHealthy(item.getExecutor())) {
+                return item.getExecutor();
+            }
+            evicted.add(item.getExecutor());
+        }
+        return null;
+    }
+
+    // the oldest idle executors are at the tail of the deque
+    private void evictExpired(List<TabDataExecutor> evicted) {
+        long now = clock.getAsLong();
+        long timeout = idleTimeout.toNanos();
+        while (!idle.isEmpty() && now - idle.peekLast().getSince() >= timeout) {
+            evicted.add(idle.pollLast().getExecutor());
+        }
+    }
+
+    private List<TabDataExecutor> drainIdle() {
+        List<TabDataExecutor> result = new ArrayList<>(idle.size());
+        Idle item;
+        while ((item = idle.poll()) != null) {
+            result.add(item.getExecutor());
+        }
+        return result;
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount++;
+        totalWaitNanos += nanos;
+        maxWaitNanos = Math.max(maxWaitNanos, nanos);
+    }
+
+    private static boolean isHealthy(TabDataExecutor executor) {
+        try {
+            return !executor.isClosed();
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static void closeAll(List<TabDataExecutor> executors) throws IOException {
+        IOException first = null;
+        for (TabDataExecutor executor : executors) {
+            try {
+                executor.close();
+            } catch (IOException ex) {
+                if (first == null) {
+                    first = ex;
+                } else {
+                    first.addSuppressed(ex);
+                }
+            }
+        }
+        if (first != null) {
+            throw first;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder()
+                .maxSize(8)
+                .idleTimeout(Duration.ofMinutes(1))
+                .maxWait(Duration.ofSeconds(30))
+                .evictionPeriod(Duration.ofSeconds(10))
+                .clock(System::nanoTime);
+    }
+
+    /**
+     * Wraps an engine in a pool configured by system properties, or returns
+     * it as is if pooling is disabled.
+     *
+     * @param engine a non-null engine
+     * @return a non-null engine
+     */
+    public static @NonNull TabDataEngine wrap(@NonNull TabDataEngine engine) {
+        int maxSize = MAX_SIZE_PROPERTY.get(System.getProperties());
+        if (maxSize <= 0) {
+            return engine;
+        }
+        return builder()
+                .engine(engine)
+                .maxSize(maxSize)
+                .idleTimeout(Duration.ofMillis(IDLE_TIMEOUT_PROPERTY.get(System.getProperties())))
+                .maxWait(Duration.ofMillis(MAX_WAIT_PROPERTY.get(System.getProperties())))
+                .evictionPeriod(Duration.ofMillis(EVICTION_PERIOD_PROPERTY.get(System.getProperties())))
+                .build();
+    }
+
+    private static ScheduledFuture<?> schedule(Runnable task, Duration period) {
+        long nanos = period.toNanos();
+        return REAPER.scheduleWithFixedDelay(task, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static final ScheduledThreadPoolExecutor REAPER = newReaper();
+
+    private static ScheduledThreadPoolExecutor newReaper() {
+        ScheduledThreadPoolExecutor result = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "lhod-pool-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        result.setRemoveOnCancelPolicy(true);
+        return result;
+    }
+
+    @lombok.Value
+    public static class Metrics {
+
+        int active;
+        int idle;
+        long borrowCount;
+        Duration totalWaitTime;
+        Duration maxWaitTime;
+    }
+
+    @lombok.Value
+    private static class Idle {
+
+        TabDataExecutor executor;
+        long since;
+    }
+
+    @lombok.RequiredArgsConstructor
+    private final class Borrowed implements TabDataExecutor {
+
+        @lombok.NonNull
+        private final TabDataExecutor delegate;
+
+        private volatile boolean returned = false;
+
+        @Override
+        public @NonNull TabDataReader exec(@NonNull TabDataQuery query) throws IOException {
+            checkBorrowed();
+            return delegate.exec(query);
+        }
+
+        @Override
+        public @NonNull TabDataResults execBatch(@NonNull List<TabDataQuery> queries) throws IOException {
+            checkBorrowed();
+            return delegate.execBatch(queries);
+        }
+
+        @Override
+        public void openSession(@NonNull String connectionString) throws IOException {
+            checkBorrowed();
+            delegate.openSession(connectionString);
+        }
+
+        @Override
+        public void closeSession(@NonNull String connectionString) throws IOException {
+            checkBorrowed();
+            delegate.closeSession(connectionString);
+        }
+
+        @Override
+        public boolean isClosed() throws IOException {
+            return returned || delegate.isClosed();
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (this) {
+                if (returned) {
+                    return;
+                }
+                returned = true;
+            }
+            giveBack(delegate);
+        }
+
+        private void checkBorrowed() throws IOException {
+            if (returned) {
+                throw new IOException("Executor closed");
+            }
+        }
+    }
+
+    // fix javadoc
+    public static final class Builder {
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import lombok.NonNull;
+import nbbrd.io.function.IOSupplier;
+import nbbrd.io.text.BooleanProperty;
+import nbbrd.io.text.Formatter;
+import nbbrd.io.text.Parser;
+import nbbrd.io.text.Property;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A process-wide cache of the dynamic properties of the data sources, keyed
+ * by connection string. Concurrent connections to the same data source wait
+ * for a single load and a failed load is retried by the next caller.
+ * <p>
+ * The cache can be persisted to a file so that the properties survive the
+ * JVM. The connection strings are only stored as hashes since they may
+ * contain credentials. The JVMs that share the file merge their entries
+ * into it under a file lock.
+ *
+ * @author Philippe Charles
+ */
+@lombok.extern.java.Log
+public final class PropertiesCache {
+
+    /**
+     * Enables the cache.
+     */
+    public static final BooleanProperty ENABLED_PROPERTY = BooleanProperty.of("lhod.propertiesCache", false);
+
+    /**
+     * File in which the cache is persisted; none by default.
+     */
+    public static final Property<File> FILE_PROPERTY = Property.of("lhod.propertiesCache.file", null, Parser.onFile(), Formatter.onFile());
+
+    private final @Nullable Path file;
+    private final ConcurrentMap<String, CompletableFuture<Map<String, String>>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    @lombok.Builder
+    private PropertiesCache(@Nullable Path file) {
+        this.file = file;
+        if (file != null) {
+            restore(file);
+        }
+    }
+
+    /**
+     * Gets the properties of a data source or loads them if missing.
+     *
+     * @param connectionString a non-null connection string
+     * @param loader           a non-null supplier of the properties
+     * @return a non-null unmodifiable map
+     * @throws IOException if the properties cannot be loaded
+     */
+    @NonNull Map<String, String> get(@NonNull String connectionString, @NonNull IOSupplier<? extends Map<String, String>> loader) throws IOException {
+        String key = hash(connectionString);
+        CompletableFuture<Map<String, String>> created = new CompletableFuture<>();
+        CompletableFuture<Map<String, String>> existing = entries.putIfAbsent(key, created);
+        if (existing != null) {
+            hitCount.incrementAndGet();
+            return await(existing);
+        }
+        missCount.incrementAndGet();
+        Map<String, String> result;
+        try {
+            result = Collections.unmodifiableMap(new HashMap<>(loader.getWithIO()));
+        } catch (IOException | RuntimeException | Error ex) {
+            entries.remove(key, created);
+            created.completeExceptionally(ex);
+            throw ex;
+        }
+        created.complete(result);
+        if (file != null) {
+            store(file, true);
+        }
+        return result;
+    }
+
+    /**
+     * Removes all the entries, including the persisted ones of other JVMs.
+     */
+    public void clear() {
+        entries.clear();
+        if (file != null) {
+            store(file, false);
+        }
+    }
+
+    public @NonNull Metrics getMetrics() {
+        return new Metrics(hitCount.get(), missCount.get(), entries.size());
+    }
+
+    private static Map<String, String> await(CompletableFuture<Map<String, String>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for properties");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    private void restore(Path file) {
+        Map<String, Map<String, String>> restored;
+        try {
+            restored = read(file);
+        } catch (IOException ex) {
+            log.log(Level.WARNING, "Failed to restore properties from '" + file + "'", ex);
+            return;
+        }
+        restored.forEach((key, properties) -> entries.put(key, CompletableFuture.completedFuture(Collections.unmodifiableMap(properties))));
+    }
+
+    // the entries of the file that are not in this cache are kept if merging
+    private void store(Path file, boolean merge) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            synchronized (LOCK) {
+                try (FileChannel channel = FileChannel.open(parent.resolve(file.getFileName() + LOCK_FILE_SUFFIX), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     FileLock ignore = channel.lock()) {
+                    Map<String, Map<String, String>> content = merge ? read(file) : new HashMap<>();
+                    entries.forEach((key, future) -> {
+                        if (future.isDone() && !future.isCompletedExceptionally()) {
+                            content.put(key, future.join());
+                        }
+                    });
+                    write(file, content);
+                }
+            }
+        } catch (IOException ex) {
+            log.log(Level.WARNING, "Failed to store properties to '" + file + "'", ex);
+        }
+    }
+
+    // file locks are held by the whole process and cannot be shared by its threads
+    private static final Object LOCK = new Object();
+
+    private static final String LOCK_FILE_SUFFIX = ".lock";
+
+    private static Map<String, Map<String, String>> read(Path file) throws IOException {
+        Properties content = new Properties();
+        try (InputStream stream = Files.newInputStream(file)) {
+            content.load(stream);
+        } catch (NoSuchFileException ex) {
+            return new HashMap<>();
+        }
+        Map<String, Map<String, String>> result = new HashMap<>();
+        for (String name : content.stringPropertyNames()) {
+            int index = name.indexOf(SEPARATOR);
+            if (index != -1) {
+                result
+                        .computeIfAbsent(name.substring(0, index), o -> new HashMap<>())
+                        .put(name.substring(index + 1), content.getProperty(name));
+            }
+        }
+        return result;
+    }
+
+    // readers never see a partially written file
+    private static void write(Path file, Map<String, Map<String, String>> content) throws IOException {
+        Map<String, String> sorted = new TreeMap<>();
+        content.forEach((key, properties) -> properties.forEach((name, value) -> sorted.put(key + SEPARATOR + name, value)));
+        Properties properties = new Properties();
+        properties.putAll(sorted);
+        Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream stream = Files.newOutputStream(tmp)) {
+                properties.store(stream, null);
+            }
+            move(tmp, file);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static final char SEPARATOR = '/';
+
+    private static String hash(String connectionString) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(connectionString.getBytes(UTF_8));
+            StringBuilder result = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a cache configured by system properties.
+     *
+     * @return a new cache, null if caching is disabled
+     */
+    public static @Nullable PropertiesCache fromSystemProperties() {
+        if (!ENABLED_PROPERTY.get(System.getProperties())) {
+            return null;
+        }
+        File file = FILE_PROPERTY.get(System.getProperties());
+        return builder()
+                .file(file != null ? file.toPath() : null)
+                .build();
+    }
+
+    @lombok.Value
+    public static class Metrics {
+
+        long hitCount;
+        long missCount;
+        int size;
+    }
+
+    // fix javadoc
+    public static final class Builder {
+    }
+}
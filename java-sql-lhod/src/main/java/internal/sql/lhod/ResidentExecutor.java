@@ -0,0 +1,450 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import lombok.NonNull;
+import nbbrd.io.function.IOSupplier;
+import nbbrd.io.function.IOUnaryOperator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.CharArrayReader;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * An executor that keeps a single script host process alive and streams
+ * framed queries to it instead of launching a new process per query.
+ * <p>
+ * A response closed before its end is drained only if its rest is small and
+ * comes quickly; otherwise its command is aborted like on timeout and the host
+ * is restarted on the next query. Likewise, a response still opened when
+ * another query starts is kept in memory only up to a limit; beyond it, its
+ * command is aborted and its reader fails.
+ *
+ * @author Philippe Charles
+ * @see TabDataFrames
+ */
+@lombok.RequiredArgsConstructor(staticName = "of")
+public final class ResidentExecutor implements TabDataExecutor {
+
+    @lombok.NonNull
+    private final IOSupplier<Process> launcher;
+
+    @lombok.NonNull
+    private final IOUnaryOperator<TabDataQuery> resolver;
+
+    private final Object lock = new Object();
+
+    private Process process = null;
+    private Writer input = null;
+    private Reader output = null;
+    private Response response = null;
+
+    // read without the lock since a reader may hold it while blocked
+    private volatile boolean closed = false;
+
+    // set without the lock when a timeout destroys the host
+    private volatile boolean expired = false;
+
+    @Override
+    public @NonNull TabDataReader exec(@NonNull TabDataQuery query) throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                throw new IOException("Executor closed");
+            }
+            TabDataQuery request = resolver.applyWithIO(query);
+            detachResponse();
+            long startup = 0;
+            try {
+                if (process == null || expired || !process.isAlive()) {
+                    long begin = System.nanoTime();
+                    start();
+                    startup = System.nanoTime() - begin;
+                }
+                TabDataFrames.writeQuery(input, request);
+                response = new Response(TabDataFrames.newChunkedReader(output), request.getTimeout(), Duration.ofNanos(startup));
+                response.watch(process, request);
+            } catch (IOException ex) {
+                stop();
+                throw ex;
+            }
+            return new TimedReader(TabDataReader.of(response), response);
+        }
+    }
+
+    @Override
+    public void openSession(@NonNull String connectionString) throws IOException {
+        control(TabDataFrames.OPEN_SESSION, connectionString);
+    }
+
+    @Override
+    public void closeSession(@NonNull String connectionString) throws IOException {
+        control(TabDataFrames.CLOSE_SESSION, connectionString);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            stop();
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void control(String procedure, String connectionString) throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                throw new IOException("Executor closed");
+            }
+            detachResponse();
+            String content;
+            try {
+                if (process == null || expired || !process.isAlive()) {
+                    start();
+                }
+                TabDataFrames.writeQuery(input, TabDataQuery.builder().procedure(procedure).parameter(connectionString).build());
+                content = readFully(TabDataFrames.newChunkedReader(output));
+            } catch (IOException ex) {
+                stop();
+                throw ex;
+            }
+            if (!content.isEmpty()) {
+                // a non-empty reply is an error report
+                TabDataReader.of(new StringReader(content)).close();
+                throw new TabDataFormatError("Unexpected reply to " + procedure);
+            }
+        }
+    }
+
+    private void detachResponse() {
+        if (response != null) {
+            Response previous = response;
+            response = null;
+            try {
+                previous.detach();
+            } catch (IOException ex) {
+                // the host is in an unknown state
+                stop();
+            }
+        }
+    }
+
+    private void start() throws IOException {
+        stop();
+        expired = false;
+        process = launcher.getWithIO();
+        input = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), UTF_8));
+        output = new BufferedReader(new InputStreamReader(process.getInputStream(), UTF_8));
+    }
+
+    private void stop() {
+        response = null;
+        if (process == null) {
+            return;
+        }
+        try {
+            // closing stdin asks the host to leave its loop
+            input.close();
+        } catch (IOException ex) {
+            // ignore
+        }
+        try {
+            if (!process.waitFor(STOP_TIMEOUT_IN_MILLIS, TimeUnit.MILLISECONDS)) {
+                process.destroy();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            process.destroy();
+        }
+        process = null;
+        input = null;
+        output = null;
+    }
+
+    private static final long STOP_TIMEOUT_IN_MILLIS = 1000;
+
+    // rest of a response that is drained to keep the host instead of aborting it
+    private static final int DRAIN_LIMIT = 1 << 16;
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMillis(200);
+
+    // rest of a response that is kept in memory when another query starts
+    static final int DETACH_LIMIT = 1 << 20;
+
+    private static String readFully(Reader reader) throws IOException {
+        StringWriter result = new StringWriter();
+        char[] chars = new char[8192];
+        int n;
+        while ((n = reader.read(chars, 0, chars.length)) != -1) {
+            result.write(chars, 0, n);
+        }
+        reader.close();
+        return result.toString();
+    }
+
+    private final class Response extends Reader {
+
+        private Reader delegate;
+        private boolean attached = true;
+        private final int timeout;
+        private final Duration startup;
+        private TabDataTimings timings = null;
+        private ScheduledFuture<?> timer = null;
+        private Process host = null;
+        private volatile boolean ended = false;
+        private volatile boolean timedOut = false;
+        private volatile boolean cancelled = false;
+        private volatile boolean discarded = false;
+        private boolean overflowed = false;
+
+        Response(Reader delegate, int timeout, Duration startup) {
+            super(ResidentExecutor.this.lock);
+            this.delegate = delegate;
+            this.timeout = timeout;
+            this.startup = startup;
+        }
+
+        // the host reports its timings at the end of the response
+        TabDataTimings getTimings() {
+            synchronized (lock) {
+                TabDataTimings result = attached ? TabDataFrames.getTimings(delegate) : timings;
+                return result != null ? result.toBuilder().startup(startup).build() : null;
+            }
+        }
+
+        // the host is destroyed without taking the lock since a reader may hold it while blocked
+        void watch(Process host, TabDataQuery request) {
+            this.host = host;
+            if (request.getTimeout() > 0) {
+                timer = TabDataProcesses.schedule(() -> {
+                    if (!ended) {
+                        timedOut = true;
+                        abort(host);
+                    }
+                }, timeout);
+            }
+            if (request.getCancellation() != null) {
+                request.getCancellation().onCancel(() -> {
+                    if (!ended) {
+                        cancelled = true;
+                        abort(host);
+                    }
+                });
+            }
+        }
+
+        private void abort(Process host) {
+            expired = true;
+            TabDataProcesses.destroy(host);
+        }
+
+        private void end() {
+            ended = true;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        }
+
+        // keeps the rest of the response in memory so that the host can serve another query
+        void detach() throws IOException {
+            if (!attached) {
+                return;
+            }
+            CharArrayWriter buffer = new CharArrayWriter();
+            char[] chars = new char[8192];
+            int n;
+            try {
+                while ((n = delegate.read(chars, 0, chars.length)) != -1) {
+                    if (buffer.size() + n > DETACH_LIMIT) {
+                        overflowed = true;
+                        attached = false;
+                        discard();
+                        return;
+                    }
+                    buffer.write(chars, 0, n);
+                }
+                delegate.close();
+            } catch (IOException ex) {
+                throw checkAbort(ex);
+            } finally {
+                end();
+            }
+            timings = TabDataFrames.getTimings(delegate);
+            delegate = new CharArrayReader(buffer.toCharArray());
+            attached = false;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            synchronized (lock) {
+                if (overflowed) {
+                    throw new IOException("Response aborted since its rest exceeds " + DETACH_LIMIT + " chars while another query runs");
+                }
+                try {
+                    int result = delegate.read(cbuf, off, len);
+                    if (result == -1) {
+                        end();
+                    }
+                    return result;
+                } catch (IOException ex) {
+                    throw checkAbort(ex);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (lock) {
+                if (attached && response == this) {
+                    response = null;
+                }
+                try {
+                    if (attached && !ended && !drain()) {
+                        discard();
+                    } else {
+                        delegate.close();
+                        if (attached) {
+                            timings = TabDataFrames.getTimings(delegate);
+                        }
+                    }
+                } catch (IOException ex) {
+                    // the abort has already been reported and the host is restarted on next query
+                    if (!timedOut && !cancelled && !discarded) {
+                        throw ex;
+                    }
+                } finally {
+                    attached = false;
+                    end();
+                }
+            }
+        }
+
+        // skips the rest of the response if it is small and comes quickly
+        private boolean drain() throws IOException {
+            ScheduledFuture<?> deadline = TabDataProcesses.schedule(() -> {
+                if (!ended) {
+                    discard();
+                }
+            }, DRAIN_TIMEOUT);
+            try {
+                char[] chars = new char[8192];
+                long count = 0;
+                int n;
+                while ((n = delegate.read(chars, 0, chars.length)) != -1) {
+                    count += n;
+                    if (count >= DRAIN_LIMIT) {
+                        return false;
+                    }
+                }
+                ended = true;
+                return true;
+            } finally {
+                deadline.cancel(false);
+            }
+        }
+
+        private void discard() {
+            discarded = true;
+            if (host != null) {
+                abort(host);
+            }
+        }
+
+        private IOException checkAbort(IOException ex) {
+            return cancelled ? new TabDataCancelError() : timedOut ? new TabDataTimeoutError(timeout) : ex;
+        }
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class TimedReader extends TabDataReader {
+
+        private final TabDataReader delegate;
+
+        private final Response response;
+
+        @Override
+        public @NonNull List<TabDataColumn> getColumns() {
+            return delegate.getColumns();
+        }
+
+        @Override
+        public boolean isClosed() throws IOException {
+            return delegate.isClosed();
+        }
+
+        @Override
+        public boolean readNextRow() throws IOException {
+            return delegate.readNextRow();
+        }
+
+        @Override
+        public String get(int index) {
+            return delegate.get(index);
+        }
+
+        @Override
+        public @NonNull CharSequence getChars(int index) {
+            return delegate.getChars(index);
+        }
+
+        @Override
+        public long getLong(int index) throws ParseException {
+            return delegate.getLong(index);
+        }
+
+        @Override
+        public double getDouble(int index) throws ParseException {
+            return delegate.getDouble(index);
+        }
+
+        @Override
+        public long getDate(int index, boolean ignoreTime) throws ParseException {
+            return delegate.getDate(index, ignoreTime);
+        }
+
+        @Override
+        public TabDataTimings getTimings() {
+            return response.getTimings();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
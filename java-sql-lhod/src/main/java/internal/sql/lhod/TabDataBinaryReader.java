@@ -0,0 +1,420 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import lombok.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Reads the binary format written by the scripts with a .NET BinaryWriter.
+ * <p>
+ * Numbers are little-endian and strings are UTF-8 bytes prefixed by their
+ * 7-bit encoded length. A stream starts with the {@code LHDB} magic and a
+ * version byte, followed by records, each starting with a marker byte:
+ * <ul>
+ * <li>{@code HEADER}: column count (int32) then name (string) and ADO type
+ * (int32) of each column</li>
+ * <li>{@code ROW}: one type-tagged value per column</li>
+ * <li>{@code ERROR}: error code (int32) and message (string)</li>
+ * <li>{@code END}: end of data, also implied by the end of the stream</li>
+ * </ul>
+ * A value is a tag byte followed by its payload: nothing for {@code NULL},
+ * a string for {@code STRING} and {@code DECIMAL}, an int64 for
+ * {@code INT64}, a float64 for {@code DOUBLE}, a byte for {@code BOOLEAN}
+ * and an int64 count of 100-nanosecond ticks since 0001-01-01 in local time
+ * for {@code DATETIME}.
+ * <p>
+ * Values are rendered and parsed as the text reader would do with the text
+ * written by the scripts, so that both formats give the same results; typed
+ * payloads only skip the parsing when that gives the same value.
+ *
+ * @author Philippe Charles
+ */
+final class TabDataBinaryReader extends TabDataReader {
+
+    static final byte[] MAGIC = {'L', 'H', 'D', 'B'};
+    static final int VERSION = 1;
+
+    static final int END = 0;
+    static final int HEADER = 1;
+    static final int ROW = 2;
+    static final int ERROR = 3;
+
+    static final int NULL = 0;
+    static final int STRING = 1;
+    static final int INT64 = 2;
+    static final int DOUBLE = 3;
+    static final int BOOLEAN = 4;
+    static final int DATETIME = 5;
+    static final int DECIMAL = 6;
+
+    static final long TICKS_PER_SECOND = 10_000_000L;
+    static final long EPOCH_SECONDS_AT_TICK_ZERO = -62_135_596_800L;
+
+    // the general format of .NET Framework doubles, used by PowerShell to render them
+    private static final MathContext DOUBLE_TEXT_PRECISION = new MathContext(15, RoundingMode.HALF_UP);
+
+    private static final DateTimeFormatter DATETIME_TEXT = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss", Locale.ROOT);
+
+    static @NonNull TabDataReader open(@NonNull InputStream stream) throws IOException {
+        Input input = new Input(stream instanceof BufferedInputStream ? stream : new BufferedInputStream(stream));
+        for (byte b : MAGIC) {
+            if (input.readByte() != b) {
+                throw new TabDataFormatError("Invalid magic");
+            }
+        }
+        int version = input.readByte();
+        if (version != VERSION) {
+            throw new TabDataFormatError(format(Locale.ROOT, "Unsupported version '%s'", version));
+        }
+        int marker = input.readMarker();
+        switch (marker) {
+            case HEADER:
+                return new TabDataBinaryReader(input, readColumns(input));
+            case ERROR:
+                throw readError(input);
+            default:
+                throw new TabDataFormatError(format(Locale.ROOT, "Expected header, found marker '%s'", marker));
+        }
+    }
+
+    private final Input input;
+    private final List<TabDataColumn> columns;
+    private final byte[] tags;
+    private final long[] longs;
+    private final double[] doubles;
+    private final String[] strings;
+    private final TabDataParser parser = new TabDataParser();
+    private boolean ended = false;
+    private boolean closed = false;
+
+    private TabDataBinaryReader(Input input, List<TabDataColumn> columns) {
+        this.input = input;
+        this.columns = columns;
+        this.tags = new byte[columns.size()];
+        this.longs = new long[columns.size()];
+        this.doubles = new double[columns.size()];
+        this.strings = new String[columns.size()];
+    }
+
+    @Override
+    public @NonNull List<TabDataColumn> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public boolean readNextRow() throws IOException {
+        if (ended) {
+            return false;
+        }
+        int marker = input.readMarker();
+        switch (marker) {
+            case ROW:
+                readRow();
+                return true;
+            case END:
+            case -1:
+                ended = true;
+                return false;
+            case ERROR:
+                ended = true;
+                throw readError(input);
+            default:
+                throw new TabDataFormatError(format(Locale.ROOT, "Unexpected marker '%s'", marker));
+        }
+    }
+
+    @Override
+    public String get(int index) {
+        String result = strings[index];
+        if (result == null) {
+            result = toText(index);
+            strings[index] = result;
+        }
+        return result;
+    }
+
+    @Override
+    public @NonNull CharSequence getChars(int index) {
+        return get(index);
+    }
+
+    @Override
+    public long getLong(int index) throws ParseException {
+        switch (tags[index]) {
+            case INT64:
+                return longs[index];
+            case DOUBLE:
+                if (isPlainInteger(doubles[index])) {
+                    return (long) doubles[index];
+                }
+                return parser.parseLong(get(index));
+            default:
+                return parser.parseLong(get(index));
+        }
+    }
+
+    @Override
+    public double getDouble(int index) throws ParseException {
+        switch (tags[index]) {
+            case INT64:
+                return longs[index];
+            case DOUBLE:
+                if (isPlainInteger(doubles[index])) {
+                    return doubles[index];
+                }
+                // the text is rounded to 15 digits
+                return parser.parseDouble(get(index));
+            default:
+                return parser.parseDouble(get(index));
+        }
+    }
+
+    @Override
+    public long getDate(int index, boolean ignoreTime) throws ParseException {
+        switch (tags[index]) {
+            case DATETIME:
+                // the text has no fraction of seconds
+                LocalDateTime result = toLocalDateTime(longs[index]).withNano(0);
+                return (ignoreTime ? result.toLocalDate().atStartOfDay() : result)
+                        .atZone(ZoneId.systemDefault())
+                        .toInstant()
+                        .toEpochMilli();
+            default:
+                return parser.parseDate(get(index), ignoreTime);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        input.close();
+    }
+
+    private void readRow() throws IOException {
+        for (int i = 0; i < tags.length; i++) {
+            int tag = input.readByte();
+            tags[i] = (byte) tag;
+            strings[i] = null;
+            switch (tag) {
+                case NULL:
+                    break;
+                case STRING:
+                case DECIMAL:
+                    strings[i] = input.readString();
+                    break;
+                case INT64:
+                case DATETIME:
+                    longs[i] = input.readInt64();
+                    break;
+                case DOUBLE:
+                    doubles[i] = Double.longBitsToDouble(input.readInt64());
+                    break;
+                case BOOLEAN:
+                    longs[i] = input.readByte();
+                    break;
+                default:
+                    throw new TabDataFormatError(format(Locale.ROOT, "Unexpected tag '%s'", tag));
+            }
+        }
+    }
+
+    // mimics the text written by the scripts
+    private String toText(int index) {
+        switch (tags[index]) {
+            case INT64:
+                return Long.toString(longs[index]);
+            case DOUBLE:
+                return formatDouble(doubles[index]);
+            case BOOLEAN:
+                return longs[index] != 0 ? "True" : "False";
+            case DATETIME:
+                return DATETIME_TEXT.format(toLocalDateTime(longs[index]));
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * Formats a double like {@code Double.ToString()} of the .NET Framework
+     * in the invariant culture: 15 significant digits, and the scientific
+     * notation if the exponent is lower than -4 or greater than 14.
+     *
+     * @param value a double
+     * @return a non-null text
+     */
+    static @NonNull String formatDouble(double value) {
+        if (isPlainInteger(value)) {
+            return Long.toString((long) value);
+        }
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "Infinity" : "-Infinity";
+        }
+        BigDecimal rounded = new BigDecimal(value).round(DOUBLE_TEXT_PRECISION).stripTrailingZeros();
+        int exponent = rounded.precision() - rounded.scale() - 1;
+        if (exponent > -5 && exponent < 15) {
+            return rounded.toPlainString();
+        }
+        String digits = rounded.unscaledValue().abs().toString();
+        StringBuilder result = new StringBuilder(digits.length() + 8);
+        if (rounded.signum() < 0) {
+            result.append('-');
+        }
+        result.append(digits.charAt(0));
+        if (digits.length() > 1) {
+            result.append('.').append(digits, 1, digits.length());
+        }
+        result.append(exponent < 0 ? "E-" : "E+");
+        int absExponent = Math.abs(exponent);
+        if (absExponent < 10) {
+            result.append('0');
+        }
+        return result.append(absExponent).toString();
+    }
+
+    private static boolean isPlainInteger(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15;
+    }
+
+    private static LocalDateTime toLocalDateTime(long ticks) {
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(ticks, TICKS_PER_SECOND) + EPOCH_SECONDS_AT_TICK_ZERO,
+                (int) Math.floorMod(ticks, TICKS_PER_SECOND) * 100,
+                ZoneOffset.UTC);
+    }
+
+    private static List<TabDataColumn> readColumns(Input input) throws IOException {
+        int count = input.readInt32();
+        if (count < 1) {
+            throw new TabDataFormatError(format(Locale.ROOT, "Invalid column count '%s'", count));
+        }
+        List<TabDataColumn> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = input.readString();
+            result.add(new TabDataColumn(name, input.readInt32()));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static TabDataRemoteError readError(Input input) throws IOException {
+        int errorCode = input.readInt32();
+        return new TabDataRemoteError(input.readString(), errorCode);
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class Input {
+
+        private final InputStream stream;
+        private byte[] buffer = new byte[256];
+
+        int readMarker() throws IOException {
+            return stream.read();
+        }
+
+        int readByte() throws IOException {
+            int result = stream.read();
+            if (result == -1) {
+                throw new EOFException();
+            }
+            return result;
+        }
+
+        int readInt32() throws IOException {
+            readFully(4);
+            return (buffer[0] & 0xFF)
+                    | (buffer[1] & 0xFF) << 8
+                    | (buffer[2] & 0xFF) << 16
+                    | (buffer[3] & 0xFF) << 24;
+        }
+
+        long readInt64() throws IOException {
+            readFully(8);
+            long result = 0;
+            for (int i = 7; i >= 0; i--) {
+                result = result << 8 | (buffer[i] & 0xFF);
+            }
+            return result;
+        }
+
+        String readString() throws IOException {
+            int length = read7BitEncodedInt();
+            readFully(length);
+            return new String(buffer, 0, length, UTF_8);
+        }
+
+        void close() throws IOException {
+            stream.close();
+        }
+
+        private int read7BitEncodedInt() throws IOException {
+            int result = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    if (result < 0) {
+                        break;
+                    }
+                    return result;
+                }
+            }
+            throw new TabDataFormatError("Invalid string length");
+        }
+
+        private void readFully(int length) throws IOException {
+            if (length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(length, buffer.length * 2));
+            }
+            int offset = 0;
+            while (offset < length) {
+                int n = stream.read(buffer, offset, length - offset);
+                if (n == -1) {
+                    throw new EOFException();
+                }
+                offset += n;
+            }
+        }
+    }
+}
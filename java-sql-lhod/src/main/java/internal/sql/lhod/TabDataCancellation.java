@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import lombok.NonNull;
+
+/**
+ * Lets a query be cancelled from another thread while it runs.
+ * <p>
+ * Executors register the action that aborts the query; the reads that follow
+ * the cancellation fail with an error instead of returning the rest of the rows.
+ *
+ * @author Philippe Charles
+ */
+public final class TabDataCancellation {
+
+    private Runnable action = null;
+
+    private boolean cancelled = false;
+
+    /**
+     * Registers the action that aborts the query, replacing any previous one.
+     * The action is run immediately if the query has already been cancelled.
+     *
+     * @param action a non-null action that must not block
+     */
+    public void onCancel(@NonNull Runnable action) {
+        boolean run;
+        synchronized (this) {
+            this.action = action;
+            run = cancelled;
+        }
+        if (run) {
+            action.run();
+        }
+    }
+
+    public void cancel() {
+        Runnable run;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            run = action;
+        }
+        if (run != null) {
+            run.run();
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+}
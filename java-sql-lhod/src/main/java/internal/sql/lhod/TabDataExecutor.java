@@ -20,6 +20,7 @@ import lombok.NonNull;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.List;
 
 /**
  * @author Philippe Charles
@@ -30,4 +31,38 @@ public interface TabDataExecutor extends Closeable {
     TabDataReader exec(@NonNull TabDataQuery query) throws IOException;
 
     boolean isClosed() throws IOException;
+
+    /**
+     * Executes several queries whose results are read one after the other.
+     * The default implementation executes each query when its result is
+     * reached; executors may run them all in a single script invocation.
+     *
+     * @param queries a non-empty list of queries
+     * @return non-null results
+     * @throws IOException if the queries cannot be executed
+     */
+    default @NonNull TabDataResults execBatch(@NonNull List<TabDataQuery> queries) throws IOException {
+        return TabDataResults.ofSequence(this, queries);
+    }
+
+    /**
+     * Asks the executor to keep a provider connection open for the given
+     * connection string until {@link #closeSession(String)} is called.
+     * The default implementation does nothing.
+     *
+     * @param connectionString a non-null connection string
+     * @throws IOException if the session cannot be opened
+     */
+    default void openSession(@NonNull String connectionString) throws IOException {
+    }
+
+    /**
+     * Releases the provider connection kept by {@link #openSession(String)}.
+     * The default implementation does nothing.
+     *
+     * @param connectionString a non-null connection string
+     * @throws IOException if the session cannot be closed
+     */
+    default void closeSession(@NonNull String connectionString) throws IOException {
+    }
 }
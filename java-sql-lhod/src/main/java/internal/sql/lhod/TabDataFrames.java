@@ -0,0 +1,360 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import lombok.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Framing used to talk to a resident script host over its standard streams.
+ * <p>
+ * A query is sent as a count of strings followed by each string, and each
+ * string is a length followed by its chars. The strings are the procedure, the
+ * maximum number of rows, the timeout in seconds and the parameters. A response is a sequence of
+ * chunks, each chunk being a length followed by its chars, and is terminated
+ * by an empty chunk. Lengths are decimal numbers of UTF-16 chars followed by a
+ * line feed. A timing record, made of a {@code T} followed by the microseconds
+ * spent to parse, connect, execute and stream separated by commas and a line
+ * feed, may take the place of a length. Lengths and counts greater than
+ * {@link #MAX_LENGTH} are rejected as a corrupted stream.
+ *
+ * @author Philippe Charles
+ */
+@lombok.experimental.UtilityClass
+public class TabDataFrames {
+
+    /**
+     * Control procedure that opens a provider connection kept by the host.
+     */
+    public static final String OPEN_SESSION = "OpenSession";
+
+    /**
+     * Control procedure that closes a provider connection kept by the host.
+     */
+    public static final String CLOSE_SESSION = "CloseSession";
+
+    public void writeQuery(@NonNull Writer writer, @NonNull TabDataQuery query) throws IOException {
+        writeLength(writer, LIMIT_COUNT + 1 + query.getParameters().size());
+        writeString(writer, query.getProcedure());
+        writeString(writer, Integer.toString(query.getMaxRows()));
+        writeString(writer, Integer.toString(query.getTimeout()));
+        for (String parameter : query.getParameters()) {
+            writeString(writer, parameter);
+        }
+        writer.flush();
+    }
+
+    public @Nullable TabDataQuery readQuery(@NonNull Reader reader) throws IOException {
+        int count = readLength(reader);
+        if (count == -1) {
+            return null;
+        }
+        if (count < LIMIT_COUNT + 1) {
+            throw new TabDataFormatError("Expected procedure name and limits");
+        }
+        TabDataQuery.Builder result = TabDataQuery
+                .builder()
+                .procedure(readString(reader))
+                .maxRows(readLimit(reader))
+                .timeout(readLimit(reader));
+        for (int i = LIMIT_COUNT + 1; i < count; i++) {
+            result.parameter(readString(reader));
+        }
+        return result.build();
+    }
+
+    /**
+     * Writes the arguments of a procedure as a count of strings followed by
+     * each string.
+     *
+     * @param writer    a non-null writer
+     * @param arguments the non-null arguments
+     * @throws IOException if the arguments cannot be written
+     */
+    public void writeArguments(@NonNull Writer writer, @NonNull List<String> arguments) throws IOException {
+        writeLength(writer, arguments.size());
+        for (String argument : arguments) {
+            writeString(writer, argument);
+        }
+        writer.flush();
+    }
+
+    public @NonNull List<String> readArguments(@NonNull Reader reader) throws IOException {
+        int count = readLength(reader);
+        if (count == -1) {
+            throw new EOFException("Expected argument count");
+        }
+        // the count is not trusted to size the list
+        List<String> result = new ArrayList<>(Math.min(count, 16));
+        for (int i = 0; i < count; i++) {
+            result.add(readString(reader));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the timings reported in a response.
+     *
+     * @param reader a non-null reader created by {@link #newChunkedReader(Reader)}
+     * @return the timings if the response has reported them so far, null otherwise
+     */
+    public @Nullable TabDataTimings getTimings(@NonNull Reader reader) {
+        return reader instanceof ChunkedReader ? ((ChunkedReader) reader).timings : null;
+    }
+
+    public @NonNull Reader newChunkedReader(@NonNull Reader reader) {
+        return new ChunkedReader(reader);
+    }
+
+    public @NonNull Writer newChunkedWriter(@NonNull Writer writer) {
+        return new ChunkedWriter(writer);
+    }
+
+    /**
+     * Maximum length of a string or a chunk and maximum count of strings.
+     */
+    public static final int MAX_LENGTH = 1 << 26;
+
+    private static final int LIMIT_COUNT = 2;
+
+    private static final char TIMINGS_PREFIX = 'T';
+
+    private static final int TIMINGS_COUNT = 4;
+
+    private TabDataTimings readTimings(Reader reader) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != '\n') {
+            if (c == -1) {
+                throw new EOFException("Unexpected end of timings");
+            }
+            line.append((char) c);
+        }
+        String[] values = line.toString().trim().split(",", -1);
+        if (values.length != TIMINGS_COUNT) {
+            throw new TabDataFormatError("Invalid timings '" + line + "'");
+        }
+        try {
+            return TabDataTimings
+                    .builder()
+                    .parse(ofMicros(values[0]))
+                    .connect(ofMicros(values[1]))
+                    .execute(ofMicros(values[2]))
+                    .stream(ofMicros(values[3]))
+                    .build();
+        } catch (NumberFormatException ex) {
+            throw new TabDataFormatError("Invalid timings '" + line + "'", ex);
+        }
+    }
+
+    private Duration ofMicros(String value) {
+        return Duration.of(Long.parseLong(value), ChronoUnit.MICROS);
+    }
+
+    private int readLimit(Reader reader) throws IOException {
+        String result = readString(reader);
+        try {
+            return Integer.parseInt(result);
+        } catch (NumberFormatException ex) {
+            throw new TabDataFormatError("Invalid limit '" + result + "'", ex);
+        }
+    }
+
+    private void writeString(Writer writer, String value) throws IOException {
+        writeLength(writer, value.length());
+        writer.write(value);
+    }
+
+    private String readString(Reader reader) throws IOException {
+        int length = readLength(reader);
+        if (length == -1) {
+            throw new EOFException("Expected string length");
+        }
+        char[] result = new char[length];
+        readFully(reader, result, 0, length);
+        return new String(result);
+    }
+
+    private void writeLength(Writer writer, int length) throws IOException {
+        writer.write(Integer.toString(length));
+        writer.write('\n');
+    }
+
+    private int readLength(Reader reader) throws IOException {
+        return readLength(reader, reader.read());
+    }
+
+    private int readLength(Reader reader, int first) throws IOException {
+        int c = first;
+        if (c == -1) {
+            return -1;
+        }
+        int result = 0;
+        int digits = 0;
+        while (c != '\n') {
+            if (c >= '0' && c <= '9') {
+                // checked on every digit so that the value cannot wrap
+                result = result * 10 + (c - '0');
+                if (result > MAX_LENGTH) {
+                    throw new TabDataFormatError("Length exceeds " + MAX_LENGTH);
+                }
+                digits++;
+            } else if (c == -1) {
+                throw new EOFException("Unexpected end of length");
+            } else if (c != '\r') {
+                throw new TabDataFormatError("Invalid length char '" + (char) c + "'");
+            }
+            c = reader.read();
+        }
+        if (digits == 0) {
+            throw new TabDataFormatError("Missing length");
+        }
+        return result;
+    }
+
+    private void readFully(Reader reader, char[] buffer, int offset, int length) throws IOException {
+        while (length > 0) {
+            int n = reader.read(buffer, offset, length);
+            if (n == -1) {
+                throw new EOFException("Unexpected end of frame");
+            }
+            offset += n;
+            length -= n;
+        }
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class ChunkedReader extends Reader {
+
+        @lombok.NonNull
+        private final Reader reader;
+
+        private int remaining = 0;
+        private TabDataTimings timings = null;
+        private boolean ended = false;
+        private boolean closed = false;
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Reader closed");
+            }
+            if (len == 0) {
+                return 0;
+            }
+            if (ended) {
+                return -1;
+            }
+            if (remaining == 0) {
+                int length = readChunkLength();
+                if (length == -1) {
+                    throw new EOFException("Unexpected end of response");
+                }
+                if (length == 0) {
+                    ended = true;
+                    return -1;
+                }
+                remaining = length;
+            }
+            int result = reader.read(cbuf, off, Math.min(len, remaining));
+            if (result == -1) {
+                throw new EOFException("Unexpected end of chunk");
+            }
+            remaining -= result;
+            return result;
+        }
+
+        private int readChunkLength() throws IOException {
+            int c = reader.read();
+            while (c == TIMINGS_PREFIX) {
+                timings = readTimings(reader);
+                c = reader.read();
+            }
+            return readLength(reader, c);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            try {
+                char[] buffer = new char[8192];
+                while (read(buffer, 0, buffer.length) != -1) {
+                    // drain until end of response
+                }
+            } finally {
+                closed = true;
+            }
+        }
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class ChunkedWriter extends Writer {
+
+        @lombok.NonNull
+        private final Writer writer;
+
+        private boolean closed = false;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Writer closed");
+            }
+            if (len > 0) {
+                writeLength(writer, len);
+                writer.write(cbuf, off, len);
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Writer closed");
+            }
+            if (len > 0) {
+                writeLength(writer, len);
+                writer.write(str, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            writeLength(writer, 0);
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import lombok.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Encoding of the parameters of a prepared statement for the scripts.
+ * <p>
+ * A parameter is its ADO data type followed by a colon and its value, or its
+ * type alone if it is null. Values are formatted independently of the locale
+ * and dates are local date-times.
+ *
+ * @author Philippe Charles
+ * @see <a href="https://learn.microsoft.com/en-us/sql/ado/reference/ado-api/datatypeenum">DataTypeEnum</a>
+ */
+@lombok.experimental.UtilityClass
+class TabDataParameters {
+
+    static final int AD_INTEGER = 3;
+    static final int AD_DOUBLE = 5;
+    static final int AD_DATE = 7;
+    static final int AD_BOOLEAN = 11;
+    static final int AD_BIG_INT = 20;
+    static final int AD_NUMERIC = 131;
+    static final int AD_VAR_CHAR = 200;
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS", Locale.ROOT);
+
+    @NonNull String ofString(@Nullable String value) {
+        return encode(AD_VAR_CHAR, value);
+    }
+
+    @NonNull String ofInt(int value) {
+        return encode(AD_INTEGER, Integer.toString(value));
+    }
+
+    @NonNull String ofLong(long value) {
+        return encode(AD_BIG_INT, Long.toString(value));
+    }
+
+    @NonNull String ofDouble(double value) {
+        return encode(AD_DOUBLE, Double.toString(value));
+    }
+
+    @NonNull String ofBoolean(boolean value) {
+        return encode(AD_BOOLEAN, value ? "1" : "0");
+    }
+
+    @NonNull String ofBigDecimal(@Nullable BigDecimal value) {
+        return encode(AD_NUMERIC, value != null ? value.toPlainString() : null);
+    }
+
+    @NonNull String ofDate(@Nullable Date value) {
+        return encode(AD_DATE, value != null ? value.toLocalDate().atStartOfDay().format(DATE_TIME_FORMAT) : null);
+    }
+
+    @NonNull String ofTimestamp(@Nullable Timestamp value) {
+        return encode(AD_DATE, value != null ? value.toLocalDateTime().format(DATE_TIME_FORMAT) : null);
+    }
+
+    @NonNull String ofNull(int sqlType) {
+        return encode(getType(sqlType), null);
+    }
+
+    private String encode(int type, String value) {
+        return value != null ? type + ":" + value : Integer.toString(type);
+    }
+
+    private int getType(int sqlType) {
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return AD_INTEGER;
+            case Types.BIGINT:
+                return AD_BIG_INT;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return AD_DOUBLE;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return AD_NUMERIC;
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+                return AD_DATE;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return AD_BOOLEAN;
+            default:
+                return AD_VAR_CHAR;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import lombok.NonNull;
+
+import java.text.DateFormat;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+
+/**
+ * Parses the en_US numbers and dates written by the scripts directly from
+ * the field chars. Unexpected input is handed to the legacy formatters.
+ * <p>
+ * Not thread-safe; use one instance per reader.
+ *
+ * @author Philippe Charles
+ */
+final class TabDataParser {
+
+    private static final Locale EN_US = new Locale("en", "us");
+
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Calendar calendar = newCalendar();
+    private DateFormat dateFormat = null;
+    private NumberFormat numberFormat = null;
+
+    // state of the last successful number scan
+    private boolean negative;
+    private long mantissa;
+    private int digits;
+    private int fractionDigits;
+    private long integralPart;
+
+    // position of the date scan
+    private int cursor;
+
+    /**
+     * Parses a number and truncates it toward zero, like
+     * {@link Number#longValue()} does on the legacy result.
+     */
+    public long parseLong(@NonNull CharSequence text) throws ParseException {
+        if (scanNumber(text) && digits - fractionDigits <= MAX_LONG_DIGITS) {
+            return negative ? -integralPart : integralPart;
+        }
+        return legacyNumber(text).longValue();
+    }
+
+    public double parseDouble(@NonNull CharSequence text) throws ParseException {
+        if (scanNumber(text) && digits <= MAX_EXACT_DIGITS && fractionDigits < POWERS_OF_TEN.length) {
+            // both operands are exact so the division is correctly rounded
+            double result = fractionDigits == 0 ? mantissa : mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative ? -result : result;
+        }
+        return legacyNumber(text).doubleValue();
+    }
+
+    /**
+     * Parses {@code M/d/yyyy} optionally followed by {@code H:mm[:ss]} and an
+     * optional {@code AM}/{@code PM} marker.
+     *
+     * @param text       the field chars
+     * @param ignoreTime true if the time part must be ignored
+     * @return milliseconds since epoch in the default time zone
+     */
+    public long parseDate(@NonNull CharSequence text, boolean ignoreTime) throws ParseException {
+        long result = scanDate(text, ignoreTime);
+        return result != Long.MIN_VALUE ? result : legacyDate(text).getTime();
+    }
+
+    private boolean scanNumber(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        negative = false;
+        mantissa = 0;
+        digits = 0;
+        fractionDigits = 0;
+        integralPart = 0;
+
+        if (i < length && text.charAt(i) == '-') {
+            negative = true;
+            i++;
+        }
+
+        int integralDigits = 0;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (isDigit(c)) {
+                if (!appendDigit(c)) {
+                    return false;
+                }
+                integralDigits++;
+            } else if (c == ',' && integralDigits > 0 && i + 1 < length && isDigit(text.charAt(i + 1))) {
+                // grouping separator
+            } else {
+                break;
+            }
+        }
+        if (integralDigits == 0) {
+            return false;
+        }
+        integralPart = mantissa;
+
+        if (i < length && text.charAt(i) == '.') {
+            i++;
+            int start = i;
+            for (; i < length && isDigit(text.charAt(i)); i++) {
+                if (!appendDigit(text.charAt(i))) {
+                    return false;
+                }
+                fractionDigits++;
+            }
+            if (i == start) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    private boolean appendDigit(char c) {
+        if (digits == MAX_LONG_DIGITS) {
+            return false;
+        }
+        mantissa = mantissa * 10 + (c - '0');
+        if (mantissa != 0) {
+            digits++;
+        }
+        return true;
+    }
+
+    private long scanDate(CharSequence text, boolean ignoreTime) {
+        int length = text.length();
+        cursor = 0;
+
+        int month = readInt(text, 1, 2);
+        if (month < 0 || !skip(text, '/')) {
+            return Long.MIN_VALUE;
+        }
+        int day = readInt(text, 1, 2);
+        if (day < 0 || !skip(text, '/')) {
+            return Long.MIN_VALUE;
+        }
+        int year = readInt(text, 4, 4);
+        if (year < 0) {
+            return Long.MIN_VALUE;
+        }
+
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        if (cursor < length) {
+            if (!skip(text, ' ')) {
+                return Long.MIN_VALUE;
+            }
+            hour = readInt(text, 1, 2);
+            if (hour < 0 || !skip(text, ':')) {
+                return Long.MIN_VALUE;
+            }
+            minute = readInt(text, 2, 2);
+            if (minute < 0) {
+                return Long.MIN_VALUE;
+            }
+            if (cursor < length && text.charAt(cursor) == ':') {
+                cursor++;
+                second = readInt(text, 2, 2);
+                if (second < 0) {
+                    return Long.MIN_VALUE;
+                }
+            }
+            if (cursor < length) {
+                hour = readMeridiem(text, hour);
+                if (hour < 0) {
+                    return Long.MIN_VALUE;
+                }
+            }
+            if (cursor != length) {
+                return Long.MIN_VALUE;
+            }
+        }
+
+        if (year < 1 || month < 1 || month > 12 || day < 1 || hour > 23 || minute > 59 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+        calendar.clear();
+        calendar.set(year, month - 1, 1);
+        if (day > calendar.getActualMaximum(Calendar.DAY_OF_MONTH)) {
+            return Long.MIN_VALUE;
+        }
+        if (ignoreTime) {
+            calendar.set(year, month - 1, day);
+        } else {
+            calendar.set(year, month - 1, day, hour, minute, second);
+        }
+        return calendar.getTimeInMillis();
+    }
+
+    private int readMeridiem(CharSequence text, int hour) {
+        if (!skip(text, ' ') || cursor + 2 != text.length() || hour < 1 || hour > 12) {
+            return -1;
+        }
+        char first = Character.toUpperCase(text.charAt(cursor));
+        char second = Character.toUpperCase(text.charAt(cursor + 1));
+        if (second != 'M' || (first != 'A' && first != 'P')) {
+            return -1;
+        }
+        cursor += 2;
+        return (hour % 12) + (first == 'P' ? 12 : 0);
+    }
+
+    private int readInt(CharSequence text, int minDigits, int maxDigits) {
+        int result = 0;
+        int i = cursor;
+        int end = Math.min(text.length(), i + maxDigits);
+        for (; i < end && isDigit(text.charAt(i)); i++) {
+            result = result * 10 + (text.charAt(i) - '0');
+        }
+        if (i - cursor < minDigits) {
+            return -1;
+        }
+        cursor = i;
+        return result;
+    }
+
+    private boolean skip(CharSequence text, char c) {
+        if (cursor < text.length() && text.charAt(cursor) == c) {
+            cursor++;
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private Number legacyNumber(CharSequence text) throws ParseException {
+        if (numberFormat == null) {
+            numberFormat = NumberFormat.getInstance(EN_US);
+        }
+        return numberFormat.parse(text.toString());
+    }
+
+    private java.util.Date legacyDate(CharSequence text) throws ParseException {
+        if (dateFormat == null) {
+            dateFormat = new SimpleDateFormat("MM/dd/yyyy", EN_US);
+            dateFormat.setLenient(false);
+        }
+        return dateFormat.parse(text.toString());
+    }
+
+    private static Calendar newCalendar() {
+        Calendar result = new GregorianCalendar();
+        result.setLenient(false);
+        return result;
+    }
+}
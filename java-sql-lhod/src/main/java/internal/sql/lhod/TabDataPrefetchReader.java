@@ -0,0 +1,374 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import lombok.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A reader that decodes the rows of another reader on a background thread
+ * into a bounded ring of row batches, so that decoding overlaps with the
+ * production of the rows by the remote process.
+ * <p>
+ * The background thread blocks when all batches are full and the rows that
+ * precede an error are delivered before the error is thrown. Closing the
+ * reader before the end of the rows aborts the query and closes the delegate
+ * so that a background thread blocked in a read does not delay it.
+ *
+ * @author Philippe Charles
+ */
+final class TabDataPrefetchReader extends TabDataReader {
+
+    static @NonNull TabDataReader open(@NonNull TabDataReader delegate, int batchSize, int batchCount) {
+        return open(delegate, batchSize, batchCount, null);
+    }
+
+    /**
+     * Opens a reader that decodes the rows of another reader ahead.
+     *
+     * @param delegate     a non-null reader
+     * @param batchSize    the number of rows per batch
+     * @param batchCount   the number of batches decoded ahead
+     * @param cancellation the token of the query that produces the rows, used
+     *                     to abort it without waiting for a blocked read; null
+     *                     if the delegate is only closed
+     * @return a non-null reader
+     */
+    static @NonNull TabDataReader open(@NonNull TabDataReader delegate, int batchSize, int batchCount, @Nullable TabDataCancellation cancellation) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+        }
+        if (batchCount < 1) {
+            throw new IllegalArgumentException("Invalid batch count: " + batchCount);
+        }
+        TabDataPrefetchReader result = new TabDataPrefetchReader(delegate, batchSize, batchCount, cancellation);
+        result.producer.start();
+        return result;
+    }
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final TabDataReader delegate;
+
+    private final TabDataCancellation cancellation;
+
+    private final AtomicBoolean delegateClosed = new AtomicBoolean(false);
+
+    private final int columnCount;
+
+    // one more batch than requested is held by the consumer
+    private final BlockingQueue<Batch> free;
+
+    private final BlockingQueue<Batch> filled;
+
+    private final Thread producer;
+
+    private final Field[] fields;
+
+    private final TabDataParser parser = new TabDataParser();
+
+    private Batch current = null;
+
+    private int row = -1;
+
+    private volatile boolean closed = false;
+
+    private volatile IOException closeError = null;
+
+    private TabDataPrefetchReader(TabDataReader delegate, int batchSize, int batchCount, TabDataCancellation cancellation) {
+        this.delegate = delegate;
+        this.cancellation = cancellation;
+        this.columnCount = delegate.getColumns().size();
+        this.free = new ArrayBlockingQueue<>(batchCount + 1);
+        this.filled = new ArrayBlockingQueue<>(batchCount + 1);
+        for (int i = 0; i < batchCount + 1; i++) {
+            free.add(new Batch(batchSize, columnCount));
+        }
+        this.producer = new Thread(this::produce, "lhod-prefetch-" + THREAD_COUNT.incrementAndGet());
+        this.producer.setDaemon(true);
+        this.fields = new Field[columnCount];
+    }
+
+    @Override
+    public @NonNull List<TabDataColumn> getColumns() {
+        return delegate.getColumns();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public boolean readNextRow() throws IOException {
+        if (closed) {
+            throw new IOException("Reader closed");
+        }
+        while (current == null || row + 1 >= current.size) {
+            if (current != null) {
+                if (current.error != null) {
+                    // the rows that precede the error have been consumed
+                    throw rethrow(current.error);
+                }
+                if (current.last) {
+                    return false;
+                }
+                recycle(current);
+            }
+            current = takeFilled();
+            row = -1;
+        }
+        row++;
+        return true;
+    }
+
+    @Override
+    public String get(int index) {
+        return current.get(row, index);
+    }
+
+    @Override
+    public @NonNull CharSequence getChars(int index) {
+        Field result = fields[index];
+        if (result == null) {
+            result = new Field(index);
+            fields[index] = result;
+        }
+        return result;
+    }
+
+    @Override
+    public long getLong(int index) throws ParseException {
+        return parser.parseLong(getChars(index));
+    }
+
+    @Override
+    public double getDouble(int index) throws ParseException {
+        return parser.parseDouble(getChars(index));
+    }
+
+    @Override
+    public long getDate(int index, boolean ignoreTime) throws ParseException {
+        return parser.parseDate(getChars(index), ignoreTime);
+    }
+
+    @Override
+    public TabDataTimings getTimings() {
+        return delegate.getTimings();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (cancellation != null && producer.isAlive()) {
+            // releases a read blocked on the source, which may hold the lock needed to close it
+            cancellation.cancel();
+        }
+        IOException error = closeDelegate();
+        producer.interrupt();
+        try {
+            producer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing reader");
+        }
+        if (error == null) {
+            error = closeError;
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    // called by both threads; the first call wins
+    private IOException closeDelegate() {
+        if (!delegateClosed.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            delegate.close();
+            return null;
+        } catch (IOException ex) {
+            return ex;
+        }
+    }
+
+    private Batch takeFilled() throws IOException {
+        try {
+            return filled.take();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for rows");
+        }
+    }
+
+    private void recycle(Batch batch) {
+        batch.clear();
+        free.add(batch);
+    }
+
+    private void produce() {
+        try {
+            Batch batch;
+            do {
+                batch = free.take();
+                fill(batch);
+                filled.add(batch);
+            } while (!batch.last && !closed);
+        } catch (InterruptedException ex) {
+            // closed by the consumer
+        } finally {
+            // releases the source as soon as the rows end, before the reader is closed
+            IOException error = closeDelegate();
+            if (error != null) {
+                closeError = error;
+            }
+        }
+    }
+
+    private void fill(Batch batch) {
+        try {
+            while (batch.size < batch.capacity && !closed) {
+                if (!delegate.readNextRow()) {
+                    batch.last = true;
+                    return;
+                }
+                batch.append(delegate);
+            }
+        } catch (IOException | RuntimeException | Error ex) {
+            batch.error = ex;
+            batch.last = true;
+        }
+    }
+
+    private static IOException rethrow(Throwable error) {
+        if (error instanceof IOException) {
+            return (IOException) error;
+        }
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        throw (Error) error;
+    }
+
+    private static final class Batch {
+
+        private final int capacity;
+        private final int columnCount;
+
+        // chars of all rows; field j of row i spans [bounds[i * columnCount + j], bounds[i * columnCount + j + 1])
+        private char[] chars = new char[4096];
+        private final int[] bounds;
+        private final String[] strings;
+
+        private int size = 0;
+        private boolean last = false;
+        private Throwable error = null;
+
+        Batch(int capacity, int columnCount) {
+            this.capacity = capacity;
+            this.columnCount = columnCount;
+            this.bounds = new int[capacity * columnCount + 1];
+            this.strings = new String[capacity * columnCount];
+        }
+
+        void append(TabDataReader reader) {
+            int offset = size * columnCount;
+            int pos = bounds[offset];
+            for (int j = 0; j < columnCount; j++) {
+                CharSequence field = reader.getChars(j);
+                int length = field.length();
+                if (pos + length > chars.length) {
+                    chars = Arrays.copyOf(chars, Math.max(chars.length * 2, pos + length));
+                }
+                for (int k = 0; k < length; k++) {
+                    chars[pos + k] = field.charAt(k);
+                }
+                pos += length;
+                bounds[offset + j + 1] = pos;
+            }
+            size++;
+        }
+
+        int start(int row, int index) {
+            return bounds[row * columnCount + index];
+        }
+
+        int end(int row, int index) {
+            return bounds[row * columnCount + index + 1];
+        }
+
+        String get(int row, int index) {
+            int i = row * columnCount + index;
+            String result = strings[i];
+            if (result == null) {
+                result = new String(chars, bounds[i], bounds[i + 1] - bounds[i]);
+                strings[i] = result;
+            }
+            return result;
+        }
+
+        void clear() {
+            Arrays.fill(strings, 0, size * columnCount, null);
+            size = 0;
+            last = false;
+            error = null;
+        }
+    }
+
+    @lombok.RequiredArgsConstructor
+    private final class Field implements CharSequence {
+
+        private final int index;
+
+        @Override
+        public int length() {
+            return current.end(row, index) - current.start(row, index);
+        }
+
+        @Override
+        public char charAt(int i) {
+            if (i < 0 || i >= length()) {
+                throw new IndexOutOfBoundsException(Integer.toString(i));
+            }
+            return current.chars[current.start(row, index) + i];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return get(index);
+        }
+    }
+}
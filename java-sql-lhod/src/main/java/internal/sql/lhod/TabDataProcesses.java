@@ -0,0 +1,283 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import lombok.NonNull;
+import nbbrd.io.function.IOConsumer;
+import nbbrd.io.sys.EndOfProcessException;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Launching of the script processes that run the procedures.
+ * <p>
+ * The limits of a query are given to the scripts through environment
+ * variables. The output of a process destroys it, along with the processes it
+ * has started, when closed, when the timeout of the query elapses or when the
+ * query is cancelled. The scripts report their errors in the output itself; a
+ * process that cannot even run its script ends with a non-zero exit code that
+ * is reported along with its error stream when the output ends.
+ *
+ * @author Philippe Charles
+ */
+@lombok.experimental.UtilityClass
+public class TabDataProcesses {
+
+    /**
+     * Environment variable holding the maximum number of rows; zero means no limit.
+     */
+    public static final String MAX_ROWS_VARIABLE = "LHOD_MAX_ROWS";
+
+    /**
+     * Environment variable holding the timeout in seconds; zero means no limit.
+     */
+    public static final String TIMEOUT_VARIABLE = "LHOD_TIMEOUT";
+
+    public void putLimits(@NonNull Map<String, String> environment, @NonNull TabDataQuery query) {
+        environment.put(MAX_ROWS_VARIABLE, Integer.toString(query.getMaxRows()));
+        environment.put(TIMEOUT_VARIABLE, Integer.toString(query.getTimeout()));
+    }
+
+    /**
+     * Starts a process and returns its output.
+     *
+     * @param builder a non-null process builder
+     * @param query   the non-null query whose timeout and cancellation apply to the process
+     * @return a non-null stream that destroys the process when closed
+     * @throws IOException if the process cannot be started
+     */
+    public @NonNull InputStream start(@NonNull ProcessBuilder builder, @NonNull TabDataQuery query) throws IOException {
+        return start(builder, query, IOConsumer.noOp());
+    }
+
+    /**
+     * Starts a process, sends it a request over its standard input and returns
+     * its output.
+     * <p>
+     * The request is written while the timeout and the cancellation of the
+     * query already apply, so that a process that does not read its input
+     * cannot block the caller forever.
+     *
+     * @param builder a non-null process builder
+     * @param query   the non-null query whose timeout and cancellation apply to the process
+     * @param input   a non-null function that writes the request
+     * @return a non-null stream that destroys the process when closed
+     * @throws IOException if the process cannot be started or the request cannot be sent
+     */
+    public @NonNull InputStream start(@NonNull ProcessBuilder builder, @NonNull TabDataQuery query, @NonNull IOConsumer<? super OutputStream> input) throws IOException {
+        Process process = builder.start();
+        InputStream result = watch(process, query);
+        try (OutputStream stdin = process.getOutputStream()) {
+            input.acceptWithIO(stdin);
+        } catch (IOException ex) {
+            try {
+                result.close();
+            } catch (IOException suppressed) {
+                ex.addSuppressed(suppressed);
+            }
+            throw ex;
+        }
+        return result;
+    }
+
+    InputStream watch(Process process, TabDataQuery query) {
+        ProcessInputStream result = new ProcessInputStream(process, query.getTimeout());
+        if (query.getCancellation() != null) {
+            query.getCancellation().onCancel(result::cancel);
+        }
+        return result;
+    }
+
+    ScheduledFuture<?> schedule(Runnable task, int timeout) {
+        return WATCHDOG.schedule(task, timeout, TimeUnit.SECONDS);
+    }
+
+    ScheduledFuture<?> schedule(Runnable task, Duration delay) {
+        return WATCHDOG.schedule(task, delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Destroys a process and the processes it has started.
+     *
+     * @param process a non-null process
+     */
+    void destroy(Process process) {
+        // descendants are collected first since they are reparented once their parent ends
+        List<Object> descendants = getDescendants(process);
+        process.destroyForcibly();
+        for (Object descendant : descendants) {
+            try {
+                DESTROY_HANDLE.invoke(descendant);
+            } catch (ReflectiveOperationException ex) {
+                // already ended
+            }
+        }
+    }
+
+    // process handles are only available since Java 9
+    private final Method DESCENDANTS = lookup("java.lang.Process", "descendants");
+    private final Method DESTROY_HANDLE = lookup("java.lang.ProcessHandle", "destroyForcibly");
+
+    private Method lookup(String className, String methodName) {
+        try {
+            return Class.forName(className).getMethod(methodName);
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    private List<Object> getDescendants(Process process) {
+        if (DESCENDANTS == null || DESTROY_HANDLE == null) {
+            return Collections.emptyList();
+        }
+        try {
+            return ((Stream<?>) DESCENDANTS.invoke(process)).collect(Collectors.toList());
+        } catch (ReflectiveOperationException | UnsupportedOperationException ex) {
+            return Collections.emptyList();
+        }
+    }
+
+    private final ScheduledThreadPoolExecutor WATCHDOG = newWatchdog();
+
+    private ScheduledThreadPoolExecutor newWatchdog() {
+        ScheduledThreadPoolExecutor result = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "lhod-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        result.setRemoveOnCancelPolicy(true);
+        return result;
+    }
+
+    // a process whose output has ended is expected to exit soon
+    private final long EXIT_TIMEOUT_IN_MILLIS = 5000;
+
+    private static final class ProcessInputStream extends FilterInputStream {
+
+        private final Process process;
+        private final int timeout;
+        private final ScheduledFuture<?> timer;
+        private volatile boolean timedOut = false;
+        private volatile boolean cancelled = false;
+        private volatile boolean closed = false;
+        private boolean exited = false;
+
+        ProcessInputStream(Process process, int timeout) {
+            super(new BufferedInputStream(process.getInputStream()));
+            this.process = process;
+            this.timeout = timeout;
+            this.timer = timeout > 0 ? schedule(this::expire, timeout) : null;
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return checkEnd(super.read());
+            } catch (IOException ex) {
+                throw checkError(ex);
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                return checkEnd(super.read(b, off, len));
+            } catch (IOException ex) {
+                throw checkError(ex);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            try {
+                // the process is destroyed first so that the pipe is not drained
+                destroy(process);
+            } finally {
+                super.close();
+            }
+        }
+
+        // the pipe is left to the reading thread which sees its end
+        void cancel() {
+            if (!closed && process.isAlive()) {
+                cancelled = true;
+                destroy(process);
+            }
+        }
+
+        private void expire() {
+            if (!closed && process.isAlive()) {
+                timedOut = true;
+                destroy(process);
+            }
+        }
+
+        private int checkEnd(int result) throws IOException {
+            if (result == -1) {
+                IOException error = getAbortError();
+                if (error != null) {
+                    throw error;
+                }
+                checkExit();
+            }
+            return result;
+        }
+
+        // the error stream is read only on failure, like ProcessReader does
+        private void checkExit() throws IOException {
+            if (exited || closed) {
+                return;
+            }
+            exited = true;
+            try {
+                if (process.waitFor(EXIT_TIMEOUT_IN_MILLIS, TimeUnit.MILLISECONDS) && process.exitValue() != 0) {
+                    throw EndOfProcessException.of(process);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the end of process", ex);
+            }
+        }
+
+        private IOException checkError(IOException ex) {
+            IOException error = getAbortError();
+            return error != null && ex.getClass() != error.getClass() ? error : ex;
+        }
+
+        private IOException getAbortError() {
+            return cancelled ? new TabDataCancelError() : timedOut ? new TabDataTimeoutError(timeout) : null;
+        }
+    }
+}
@@ -16,6 +16,8 @@
  */
 package internal.sql.lhod;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 import java.util.List;
 
 /**
@@ -23,7 +25,7 @@ import java.util.List;
  * @author Philippe Charles
  */
 @lombok.Value
-@lombok.Builder
+@lombok.Builder(toBuilder = true)
 public class TabDataQuery {
 
     @lombok.NonNull
@@ -31,4 +33,24 @@ public class TabDataQuery {
 
     @lombok.Singular
     List<String> parameters;
+
+    /**
+     * Maximum number of rows that the procedure returns; zero means no limit.
+     */
+    @lombok.Builder.Default
+    int maxRows = 0;
+
+    /**
+     * Number of seconds after which the procedure is aborted; zero means no limit.
+     */
+    @lombok.Builder.Default
+    int timeout = 0;
+
+    /**
+     * Token used to cancel the procedure from another thread; null if the procedure cannot be cancelled.
+     */
+    @lombok.EqualsAndHashCode.Exclude
+    @lombok.ToString.Exclude
+    @Nullable
+    TabDataCancellation cancellation;
 }
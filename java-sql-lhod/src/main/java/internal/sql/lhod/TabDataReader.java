@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 National Bank of Belgium
+ * Copyright 2026 National Bank of Belgium
  *
  * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
  * by the European Commission - subsequent versions of the EUPL (the "Licence");
@@ -16,125 +16,112 @@
  */
 package internal.sql.lhod;
 
-import internal.nbbrd.picocsv.Csv;
-import lombok.AccessLevel;
 import lombok.NonNull;
 import nbbrd.design.StaticFactoryMethod;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
-import java.util.ArrayList;
+import java.text.ParseException;
 import java.util.List;
-import java.util.Locale;
-
-import static java.lang.String.format;
 
 /**
+ * Reads the columns and rows returned by a procedure.
+ *
  * @author Philippe Charles
  */
-@lombok.RequiredArgsConstructor(access = AccessLevel.PRIVATE)
-public final class TabDataReader implements Closeable {
-
-    private static final Csv.Format FORMAT = Csv.Format.RFC4180.toBuilder().delimiter('\t').build();
-
+public abstract class TabDataReader implements Closeable {
+
+    /**
+     * Creates a reader of the tab-separated text format.
+     *
+     * @param reader a non-null char stream
+     * @return a non-null reader positioned before the first row
+     * @throws IOException if the headers cannot be read
+     */
     @StaticFactoryMethod
     public static @NonNull TabDataReader of(@NonNull Reader reader) throws IOException {
-        Csv.Reader tsv = Csv.Reader.of(FORMAT, Csv.ReaderOptions.DEFAULT, reader);
-        List<TabDataColumn> columns = readColumnHeaders(tsv);
-        return new TabDataReader(tsv, columns, new String[columns.size()]);
-    }
-
-    private final Csv.Reader reader;
-
-    @lombok.Getter
-    private final List<TabDataColumn> columns;
-
-    private final String[] currentRow;
-
-    private boolean closed = false;
-
-    public boolean isClosed() throws IOException {
-        return closed;
-    }
-
-    public boolean readNextRow() throws IOException {
-        if (reader.readLine()) {
-            if (!reader.readField()) {
-                throw parseError(reader);
-            }
-            int idx = 0;
-            do {
-                currentRow[idx++] = reader.toString();
-            } while (reader.readField());
-            return true;
-        }
-        return false;
-    }
-
-    public String get(int index) {
-        return currentRow[index];
+        return TabDataTextReader.open(reader);
     }
 
-    @Override
-    public void close() throws IOException {
-        closed = true;
-        reader.close();
-    }
-
-    private static TabDataRemoteError parseError(Csv.Reader reader) throws IOException {
-        if (!reader.readLine()) {
-            throw new TabDataFormatError("Expected error on next row");
-        }
-
-        if (!reader.readField()) {
-            throw new TabDataFormatError("Expected error code on next field");
-        }
-        String errorCode = reader.toString();
-
-        if (!reader.readField()) {
-            throw new TabDataFormatError("Expected error description on next field");
-        }
-        String errorMessage = reader.toString();
-
-        try {
-            return new TabDataRemoteError(errorMessage, Integer.parseInt(errorCode));
-        } catch (NumberFormatException ex) {
-            throw new TabDataFormatError("Cannot parse error code", ex);
-        }
+    /**
+     * Creates a reader of the binary format.
+     *
+     * @param stream a non-null byte stream
+     * @return a non-null reader positioned before the first row
+     * @throws IOException if the headers cannot be read
+     * @see TabDataBinaryReader
+     */
+    @StaticFactoryMethod
+    public static @NonNull TabDataReader ofBinary(@NonNull InputStream stream) throws IOException {
+        return TabDataBinaryReader.open(stream);
     }
 
-    private static List<TabDataColumn> readColumnHeaders(Csv.Reader reader) throws IOException {
-        List<String> names = readHeader(reader, "names");
-        List<String> types = readHeader(reader, "types");
-
-        if (names.size() != types.size()) {
-            throw new TabDataFormatError(format(Locale.ROOT, "Invalid data type length: expected '%s', found '%s'", names.size(), types.size()));
-        }
-
-        List<TabDataColumn> result = new ArrayList<>();
-        for (int i = 0; i < names.size(); i++) {
-            try {
-                result.add(new TabDataColumn(names.get(i), Integer.parseInt(types.get(i))));
-            } catch (NumberFormatException ex) {
-                throw new TabDataFormatError("Cannot parse type code", ex);
-            }
-        }
-        return result;
+    TabDataReader() {
     }
 
-    private static List<String> readHeader(Csv.Reader reader, String id) throws IOException {
-        if (!reader.readLine()) {
-            throw new TabDataFormatError(format(Locale.ROOT, "Expected header %s", id));
-        }
-        if (!reader.readField()) {
-            throw parseError(reader);
-        }
-        List<String> result = new ArrayList<>();
-        result.add(reader.toString());
-        while (reader.readField()) {
-            result.add(reader.toString());
-        }
-        return result;
+    public abstract @NonNull List<TabDataColumn> getColumns();
+
+    public abstract boolean isClosed() throws IOException;
+
+    public abstract boolean readNextRow() throws IOException;
+
+    /**
+     * Gets a field of the current row as a string.
+     * The string is created on first access and then reused.
+     *
+     * @param index the zero-based index of the field
+     * @return a non-null string
+     */
+    public abstract String get(int index);
+
+    /**
+     * Gets a field of the current row as a char sequence, without necessarily
+     * creating a string. The sequence is only valid until the next call to
+     * {@link #readNextRow()}.
+     *
+     * @param index the zero-based index of the field
+     * @return a non-null char sequence
+     */
+    public abstract @NonNull CharSequence getChars(int index);
+
+    /**
+     * Gets a field of the current row as a number truncated toward zero.
+     *
+     * @param index the zero-based index of the field
+     * @return a long value
+     * @throws ParseException if the field is not a number
+     */
+    public abstract long getLong(int index) throws ParseException;
+
+    /**
+     * Gets a field of the current row as a number.
+     *
+     * @param index the zero-based index of the field
+     * @return a double value
+     * @throws ParseException if the field is not a number
+     */
+    public abstract double getDouble(int index) throws ParseException;
+
+    /**
+     * Gets a field of the current row as a date in the default time zone.
+     *
+     * @param index      the zero-based index of the field
+     * @param ignoreTime true if the time part must be ignored
+     * @return milliseconds since epoch
+     * @throws ParseException if the field is not a date
+     */
+    public abstract long getDate(int index, boolean ignoreTime) throws ParseException;
+
+    /**
+     * Gets the time spent in each phase of the procedure. The timings are
+     * known once all the rows have been read.
+     *
+     * @return the timings, or null if the engine does not report them or has not reported them yet
+     */
+    public @Nullable TabDataTimings getTimings() {
+        return null;
     }
 }
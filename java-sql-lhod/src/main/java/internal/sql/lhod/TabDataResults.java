@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import lombok.NonNull;
+import nbbrd.design.StaticFactoryMethod;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.Closeable;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the results of a batch of queries one after the other.
+ * <p>
+ * Moving to the next result closes the reader of the previous one and closing
+ * the results closes the reader of the current one.
+ *
+ * @author Philippe Charles
+ */
+public abstract class TabDataResults implements Closeable {
+
+    /**
+     * Creates results from the sections of a text stream. Each section uses
+     * the chunked framing of {@link TabDataFrames} and holds the output of a
+     * query in the tab-separated text format.
+     *
+     * @param reader a non-null char stream
+     * @param count  the number of sections
+     * @return non-null results
+     */
+    @StaticFactoryMethod
+    public static @NonNull TabDataResults ofSections(@NonNull Reader reader, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Invalid count: " + count);
+        }
+        return new SectionResults(reader, count);
+    }
+
+    /**
+     * Creates results that execute the queries one by one when moving to the
+     * next result.
+     *
+     * @param executor a non-null executor
+     * @param queries  a non-empty list of queries
+     * @return non-null results
+     */
+    static @NonNull TabDataResults ofSequence(@NonNull TabDataExecutor executor, @NonNull List<TabDataQuery> queries) {
+        if (queries.isEmpty()) {
+            throw new IllegalArgumentException("Empty batch");
+        }
+        return new SequenceResults(executor, new ArrayList<>(queries));
+    }
+
+    private int index = -1;
+
+    private TabDataReader current = null;
+
+    private boolean closed = false;
+
+    TabDataResults() {
+    }
+
+    public abstract int getCount();
+
+    /**
+     * Moves to the next result.
+     *
+     * @return the reader of the next result, null if there are no more results
+     * @throws IOException if the previous result cannot be closed or the next one cannot be read
+     */
+    public @Nullable TabDataReader next() throws IOException {
+        if (closed) {
+            throw new IOException("Results closed");
+        }
+        if (current != null) {
+            TabDataReader previous = current;
+            current = null;
+            previous.close();
+        }
+        if (index + 1 >= getCount()) {
+            return null;
+        }
+        index++;
+        current = open(index);
+        return current;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (current != null) {
+                current.close();
+            }
+        } finally {
+            current = null;
+            closeResources();
+        }
+    }
+
+    abstract TabDataReader open(int index) throws IOException;
+
+    abstract void closeResources() throws IOException;
+
+    @lombok.RequiredArgsConstructor
+    private static final class SectionResults extends TabDataResults {
+
+        private final Reader reader;
+
+        private final int count;
+
+        @Override
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        TabDataReader open(int index) throws IOException {
+            Reader section = TabDataFrames.newChunkedReader(reader);
+            if (index == count - 1) {
+                // nothing follows the last section so that the stream is closed without being drained
+                section = new FilterReader(section) {
+                    @Override
+                    public void close() throws IOException {
+                        reader.close();
+                    }
+                };
+            }
+            try {
+                return TabDataReader.of(section);
+            } catch (IOException ex) {
+                try {
+                    section.close();
+                } catch (IOException suppressed) {
+                    ex.addSuppressed(suppressed);
+                }
+                throw ex;
+            }
+        }
+
+        @Override
+        void closeResources() throws IOException {
+            reader.close();
+        }
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class SequenceResults extends TabDataResults {
+
+        private final TabDataExecutor executor;
+
+        private final List<TabDataQuery> queries;
+
+        @Override
+        public int getCount() {
+            return queries.size();
+        }
+
+        @Override
+        TabDataReader open(int index) throws IOException {
+            return executor.exec(queries.get(index));
+        }
+
+        @Override
+        void closeResources() {
+        }
+    }
+}
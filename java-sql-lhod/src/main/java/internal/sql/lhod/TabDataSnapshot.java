@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable copy of the columns and rows of a reader that can be read
+ * any number of times.
+ *
+ * @author Philippe Charles
+ */
+@lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+final class TabDataSnapshot {
+
+    /**
+     * Reads all the rows of a reader and closes it.
+     *
+     * @param reader a non-null reader positioned before the first row
+     * @return a non-null snapshot
+     * @throws IOException if the rows cannot be read
+     */
+    static @NonNull TabDataSnapshot copyOf(@NonNull TabDataReader reader) throws IOException {
+        try (TabDataReader closeable = reader) {
+            List<TabDataColumn> columns = Collections.unmodifiableList(new ArrayList<>(closeable.getColumns()));
+            List<String[]> rows = new ArrayList<>();
+            while (closeable.readNextRow()) {
+                String[] row = new String[columns.size()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = closeable.get(i);
+                }
+                rows.add(row);
+            }
+            return new TabDataSnapshot(columns, rows);
+        }
+    }
+
+    @lombok.Getter
+    private final List<TabDataColumn> columns;
+
+    private final List<String[]> rows;
+
+    int getRowCount() {
+        return rows.size();
+    }
+
+    @NonNull TabDataReader newReader() {
+        return new SnapshotReader();
+    }
+
+    private final class SnapshotReader extends TabDataReader {
+
+        private final TabDataParser parser = new TabDataParser();
+
+        private int row = -1;
+
+        private boolean closed = false;
+
+        @Override
+        public @NonNull List<TabDataColumn> getColumns() {
+            return columns;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public boolean readNextRow() throws IOException {
+            if (closed) {
+                throw new IOException("Reader closed");
+            }
+            if (row + 1 >= rows.size()) {
+                return false;
+            }
+            row++;
+            return true;
+        }
+
+        @Override
+        public String get(int index) {
+            return rows.get(row)[index];
+        }
+
+        @Override
+        public @NonNull CharSequence getChars(int index) {
+            return get(index);
+        }
+
+        @Override
+        public long getLong(int index) throws ParseException {
+            return parser.parseLong(get(index));
+        }
+
+        @Override
+        public double getDouble(int index) throws ParseException {
+            return parser.parseDouble(get(index));
+        }
+
+        @Override
+        public long getDate(int index, boolean ignoreTime) throws ParseException {
+            return parser.parseDate(get(index), ignoreTime);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
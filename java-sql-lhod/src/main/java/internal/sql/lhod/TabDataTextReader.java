@@ -0,0 +1,243 @@
+/*
+ * Copyright 2016 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import internal.nbbrd.picocsv.Csv;
+import lombok.AccessLevel;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static java.lang.String.format;
+
+/**
+ * Reads the tab-separated text format.
+ *
+ * @author Philippe Charles
+ */
+@lombok.RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class TabDataTextReader extends TabDataReader {
+
+    private static final Csv.Format FORMAT = Csv.Format.RFC4180.toBuilder().delimiter('\t').build();
+
+    // strict line separators leave a carriage return in the last field when CRLF straddles a buffer boundary
+    private static final Csv.ReaderOptions OPTIONS = Csv.ReaderOptions.builder().lenientSeparator(true).build();
+
+    static @NonNull TabDataReader open(@NonNull Reader reader) throws IOException {
+        Csv.Reader tsv = Csv.Reader.of(FORMAT, OPTIONS, reader);
+        List<TabDataColumn> columns = readColumnHeaders(tsv);
+        return new TabDataTextReader(tsv, columns, new int[columns.size() + 1], new String[columns.size()], new Field[columns.size()]);
+    }
+
+    private final Csv.Reader reader;
+
+    private final List<TabDataColumn> columns;
+
+    // chars of the current row; field i spans [fieldBounds[i], fieldBounds[i + 1])
+    private char[] rowChars = new char[256];
+
+    private final int[] fieldBounds;
+
+    // strings materialized on demand for the current row
+    private final String[] currentRow;
+
+    private final Field[] fields;
+
+    private final TabDataParser parser = new TabDataParser();
+
+    private boolean closed = false;
+
+    @Override
+    public @NonNull List<TabDataColumn> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public boolean isClosed() throws IOException {
+        return closed;
+    }
+
+    @Override
+    public boolean readNextRow() throws IOException {
+        if (reader.readLine()) {
+            if (!reader.readField()) {
+                throw parseError(reader);
+            }
+            int idx = 0;
+            int pos = 0;
+            do {
+                if (idx == currentRow.length) {
+                    throw new TabDataFormatError(format(Locale.ROOT, "Too many fields: expected '%s'", currentRow.length));
+                }
+                pos = appendField(pos);
+                currentRow[idx++] = null;
+                fieldBounds[idx] = pos;
+            } while (reader.readField());
+            // missing fields are empty
+            while (idx < currentRow.length) {
+                currentRow[idx++] = null;
+                fieldBounds[idx] = pos;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String get(int index) {
+        String result = currentRow[index];
+        if (result == null) {
+            int start = fieldBounds[index];
+            result = new String(rowChars, start, fieldBounds[index + 1] - start);
+            currentRow[index] = result;
+        }
+        return result;
+    }
+
+    @Override
+    public @NonNull CharSequence getChars(int index) {
+        Field result = fields[index];
+        if (result == null) {
+            result = new Field(index);
+            fields[index] = result;
+        }
+        return result;
+    }
+
+    @Override
+    public long getLong(int index) throws ParseException {
+        return parser.parseLong(getChars(index));
+    }
+
+    @Override
+    public double getDouble(int index) throws ParseException {
+        return parser.parseDouble(getChars(index));
+    }
+
+    @Override
+    public long getDate(int index, boolean ignoreTime) throws ParseException {
+        return parser.parseDate(getChars(index), ignoreTime);
+    }
+
+    private int appendField(int pos) {
+        int length = reader.length();
+        if (pos + length > rowChars.length) {
+            rowChars = Arrays.copyOf(rowChars, Math.max(rowChars.length * 2, pos + length));
+        }
+        for (int i = 0; i < length; i++) {
+            rowChars[pos + i] = reader.charAt(i);
+        }
+        return pos + length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        reader.close();
+    }
+
+    @lombok.RequiredArgsConstructor
+    private final class Field implements CharSequence {
+
+        private final int index;
+
+        @Override
+        public int length() {
+            return fieldBounds[index + 1] - fieldBounds[index];
+        }
+
+        @Override
+        public char charAt(int i) {
+            if (i < 0 || i >= length()) {
+                throw new IndexOutOfBoundsException(Integer.toString(i));
+            }
+            return rowChars[fieldBounds[index] + i];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return get(index);
+        }
+    }
+
+    private static TabDataRemoteError parseError(Csv.Reader reader) throws IOException {
+        if (!reader.readLine()) {
+            throw new TabDataFormatError("Expected error on next row");
+        }
+
+        if (!reader.readField()) {
+            throw new TabDataFormatError("Expected error code on next field");
+        }
+        String errorCode = reader.toString();
+
+        if (!reader.readField()) {
+            throw new TabDataFormatError("Expected error description on next field");
+        }
+        String errorMessage = reader.toString();
+
+        try {
+            return new TabDataRemoteError(errorMessage, Integer.parseInt(errorCode));
+        } catch (NumberFormatException ex) {
+            throw new TabDataFormatError("Cannot parse error code", ex);
+        }
+    }
+
+    private static List<TabDataColumn> readColumnHeaders(Csv.Reader reader) throws IOException {
+        List<String> names = readHeader(reader, "names");
+        List<String> types = readHeader(reader, "types");
+
+        if (names.size() != types.size()) {
+            throw new TabDataFormatError(format(Locale.ROOT, "Invalid data type length: expected '%s', found '%s'", names.size(), types.size()));
+        }
+
+        List<TabDataColumn> result = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            try {
+                result.add(new TabDataColumn(names.get(i), Integer.parseInt(types.get(i))));
+            } catch (NumberFormatException ex) {
+                throw new TabDataFormatError("Cannot parse type code", ex);
+            }
+        }
+        return result;
+    }
+
+    private static List<String> readHeader(Csv.Reader reader, String id) throws IOException {
+        if (!reader.readLine()) {
+            throw new TabDataFormatError(format(Locale.ROOT, "Expected header %s", id));
+        }
+        if (!reader.readField()) {
+            throw parseError(reader);
+        }
+        List<String> result = new ArrayList<>();
+        result.add(reader.toString());
+        while (reader.readField()) {
+            result.add(reader.toString());
+        }
+        return result;
+    }
+}
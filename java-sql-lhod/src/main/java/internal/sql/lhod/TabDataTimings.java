@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import java.time.Duration;
+
+/**
+ * Time spent in each phase of a procedure, as reported by the engine.
+ *
+ * @author Philippe Charles
+ */
+@lombok.Value
+@lombok.Builder(toBuilder = true)
+public class TabDataTimings {
+
+    /**
+     * Time spent to start the script host before the procedure.
+     */
+    @lombok.NonNull
+    @lombok.Builder.Default
+    Duration startup = Duration.ZERO;
+
+    /**
+     * Time spent to parse the procedure script; zero if it was already parsed.
+     */
+    @lombok.NonNull
+    @lombok.Builder.Default
+    Duration parse = Duration.ZERO;
+
+    /**
+     * Time spent to open or reuse the provider connection.
+     */
+    @lombok.NonNull
+    @lombok.Builder.Default
+    Duration connect = Duration.ZERO;
+
+    /**
+     * Time spent by the provider to execute the command.
+     */
+    @lombok.NonNull
+    @lombok.Builder.Default
+    Duration execute = Duration.ZERO;
+
+    /**
+     * Time spent to write the rows.
+     */
+    @lombok.NonNull
+    @lombok.Builder.Default
+    Duration stream = Duration.ZERO;
+
+    public @lombok.NonNull Duration getTotal() {
+        return startup.plus(parse).plus(connect).plus(execute).plus(stream);
+    }
+}
@@ -22,6 +22,7 @@ import internal.sys.CachedResourceExtractor;
 import internal.sys.DefaultResourceExtractor;
 import internal.sys.ResourceExtractor;
 import lombok.NonNull;
+import nbbrd.io.text.BooleanProperty;
 
 /**
  *
@@ -29,7 +30,36 @@ import lombok.NonNull;
  */
 public final class PsEngine implements TabDataEngine {
 
-    private final ResourceExtractor scripts = CachedResourceExtractor.of(DefaultResourceExtractor.of(PsEngine.class));
+    /**
+     * Keeps one PowerShell host alive per executor instead of launching one per query.
+     */
+    public static final BooleanProperty RESIDENT_PROPERTY = BooleanProperty.of("lhod.ps.resident", false);
+
+    /**
+     * Asks the scripts for the binary format instead of tab-separated text.
+     * Ignored in resident mode. Experimental: the binary writer of the
+     * scripts has not been tested against a real provider.
+     */
+    public static final BooleanProperty BINARY_PROPERTY = BooleanProperty.of("lhod.ps.binary", false);
+
+    private final ResourceExtractor scripts = CachedResourceExtractor.of(DefaultResourceExtractor.ofHashed(PsEngine.class, "com.github.nbbrd.java-sql-util", "java-sql-lhod"));
+
+    private final boolean resident;
+
+    private final boolean binary;
+
+    public PsEngine() {
+        this(RESIDENT_PROPERTY.get(System.getProperties()), BINARY_PROPERTY.get(System.getProperties()));
+    }
+
+    public PsEngine(boolean resident) {
+        this(resident, false);
+    }
+
+    public PsEngine(boolean resident, boolean binary) {
+        this.resident = resident;
+        this.binary = binary;
+    }
 
     @Override
     public @NonNull String getId() {
@@ -38,6 +68,6 @@ public final class PsEngine implements TabDataEngine {
 
     @Override
     public @NonNull TabDataExecutor getExecutor() {
-        return new PsExecutor(scripts);
+        return resident ? PsExecutor.resident(scripts) : new PsExecutor(scripts, binary);
     }
 }
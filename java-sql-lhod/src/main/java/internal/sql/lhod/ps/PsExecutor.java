@@ -16,19 +16,29 @@
  */
 package internal.sql.lhod.ps;
 
+import internal.sql.lhod.ResidentExecutor;
 import internal.sql.lhod.TabDataExecutor;
+import internal.sql.lhod.TabDataFrames;
+import internal.sql.lhod.TabDataProcesses;
 import internal.sql.lhod.TabDataQuery;
 import internal.sql.lhod.TabDataReader;
+import internal.sql.lhod.TabDataResults;
 import internal.sys.ResourceExtractor;
 import lombok.NonNull;
-import nbbrd.io.sys.ProcessReader;
 import nbbrd.io.win.PowerShellWrapper;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
-import java.util.Base64;
-import java.util.stream.Stream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -41,14 +51,51 @@ final class PsExecutor implements TabDataExecutor {
     @NonNull
     private final ResourceExtractor scripts;
 
+    private final boolean binary;
+
     private boolean closed = false;
 
+    PsExecutor(@NonNull ResourceExtractor scripts) {
+        this(scripts, false);
+    }
+
     @Override
     public @NonNull TabDataReader exec(@NonNull TabDataQuery query) throws IOException {
         if (closed) {
             throw new IOException("Executor closed");
         }
-        return TabDataReader.of(exec(query.getProcedure() + ".ps1", query.getParameters().toArray(new String[0])));
+        InputStream output = start(query, binary, 0);
+        try {
+            return binary
+                    ? TabDataReader.ofBinary(output)
+                    : TabDataReader.of(new BufferedReader(new InputStreamReader(output, UTF_8)));
+        } catch (IOException ex) {
+            try {
+                output.close();
+            } catch (IOException suppressed) {
+                ex.addSuppressed(suppressed);
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Runs all the procedures in a single PowerShell process whose output is
+     * a text section per procedure. Queries that only differ by the parameters
+     * of the same command run against a single prepared command.
+     */
+    @Override
+    public @NonNull TabDataResults execBatch(@NonNull List<TabDataQuery> queries) throws IOException {
+        if (closed) {
+            throw new IOException("Executor closed");
+        }
+        if (queries.isEmpty()) {
+            throw new IllegalArgumentException("Empty batch");
+        }
+        InputStream output = isSingleCommand(queries)
+                ? start(toCommandBatchQuery(queries), false, queries.size())
+                : start(toBatchQuery(queries), false, 0);
+        return TabDataResults.ofSections(new BufferedReader(new InputStreamReader(output, UTF_8)), queries.size());
     }
 
     @Override
@@ -61,17 +108,108 @@ final class PsExecutor implements TabDataExecutor {
         return closed;
     }
 
-    private BufferedReader exec(String scriptName, String[] args) throws IOException {
-        File script = scripts.getResourceAsFile(scriptName);
-        Process process = PowerShellWrapper.exec(script, encodeArguments(args));
-        return ProcessReader.newReader(UTF_8, process);
+    private TabDataQuery toBatchQuery(List<TabDataQuery> queries) throws IOException {
+        TabDataQuery.Builder result = TabDataQuery.builder().procedure(BATCH_PROCEDURE);
+        for (TabDataQuery query : queries) {
+            result
+                    .parameter(scripts.getResourceAsFile(query.getProcedure() + ".ps1").toString())
+                    .parameter(Integer.toString(query.getMaxRows()))
+                    .parameter(Integer.toString(query.getTimeout()))
+                    .parameter(Integer.toString(query.getParameters().size()))
+                    .parameters(query.getParameters());
+        }
+        return withBatchLimits(result, queries).build();
+    }
+
+    // the parameter sets follow the connection string and the command text
+    private static TabDataQuery toCommandBatchQuery(List<TabDataQuery> queries) {
+        TabDataQuery first = queries.get(0);
+        TabDataQuery.Builder result = TabDataQuery
+                .builder()
+                .procedure(COMMAND_PROCEDURE)
+                .parameters(first.getParameters().subList(0, COMMAND_PREFIX))
+                .maxRows(first.getMaxRows());
+        for (TabDataQuery query : queries) {
+            result.parameters(query.getParameters().subList(COMMAND_PREFIX, query.getParameters().size()));
+        }
+        return withBatchLimits(result, queries).build();
+    }
+
+    private static boolean isSingleCommand(List<TabDataQuery> queries) {
+        TabDataQuery first = queries.get(0);
+        if (!first.getProcedure().equals(COMMAND_PROCEDURE) || first.getParameters().size() < COMMAND_PREFIX) {
+            return false;
+        }
+        return queries
+                .stream()
+                .allMatch(query -> query.getProcedure().equals(COMMAND_PROCEDURE)
+                        && query.getParameters().size() == first.getParameters().size()
+                        && query.getParameters().subList(0, COMMAND_PREFIX).equals(first.getParameters().subList(0, COMMAND_PREFIX))
+                        && query.getMaxRows() == first.getMaxRows()
+                        && query.getTimeout() == first.getTimeout());
     }
 
-    private String[] encodeArguments(String[] args) {
-        return Stream.of(args).map(PsExecutor::toBase64).toArray(String[]::new);
+    // the process is given the sum of the timeouts of the procedures
+    private static TabDataQuery.Builder withBatchLimits(TabDataQuery.Builder builder, List<TabDataQuery> queries) {
+        int timeout = 0;
+        boolean unlimited = false;
+        for (TabDataQuery query : queries) {
+            timeout += query.getTimeout();
+            unlimited |= query.getTimeout() == 0;
+            if (query.getCancellation() != null) {
+                builder.cancellation(query.getCancellation());
+            }
+        }
+        return builder.timeout(unlimited ? 0 : timeout);
     }
 
-    private static String toBase64(String arg) {
-        return "base64_" + Base64.getEncoder().encodeToString(arg.getBytes(UTF_8));
+    private static final String BATCH_PROCEDURE = "Batch";
+
+    private static final String COMMAND_PROCEDURE = "PreparedStatement";
+
+    private static final int COMMAND_PREFIX = 2;
+
+    private InputStream start(TabDataQuery query, boolean binary, int batchSize) throws IOException {
+        File script = scripts.getResourceAsFile(query.getProcedure() + ".ps1");
+        List<String> command = new ArrayList<>();
+        command.add(PowerShellWrapper.COMMAND);
+        command.addAll(Arrays.asList("-NoProfile", "-ExecutionPolicy", "Bypass", "-NoLogo", "-File", script.getPath()));
+        // the error stream is kept to report the failures of PowerShell itself
+        ProcessBuilder builder = new ProcessBuilder(command);
+        if (binary) {
+            builder.environment().put(FORMAT_VARIABLE, "binary");
+        }
+        if (batchSize > 0) {
+            builder.environment().put(BATCH_SIZE_VARIABLE, Integer.toString(batchSize));
+        }
+        TabDataProcesses.putLimits(builder.environment(), query);
+        return TabDataProcesses.start(builder, query, input -> sendArguments(input, query.getParameters()));
+    }
+
+    // the arguments are not limited by the length of the command line
+    private static void sendArguments(OutputStream input, List<String> arguments) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(input, UTF_8));
+        TabDataFrames.writeArguments(writer, arguments);
+    }
+
+    private static final String FORMAT_VARIABLE = "LHOD_FORMAT";
+
+    private static final String BATCH_SIZE_VARIABLE = "LHOD_BATCH_SIZE";
+
+    /**
+     * Creates an executor that keeps a single PowerShell host alive and sends
+     * it the procedures to run over its standard input.
+     *
+     * @param scripts a non-null script extractor
+     * @return a non-null executor
+     */
+    static @NonNull TabDataExecutor resident(@NonNull ResourceExtractor scripts) {
+        return ResidentExecutor.of(
+                () -> PowerShellWrapper.exec(scripts.getResourceAsFile("Server.ps1")),
+                query -> query
+                        .toBuilder()
+                        .procedure(scripts.getResourceAsFile(query.getProcedure() + ".ps1").toString())
+                        .build()
+        );
     }
 }
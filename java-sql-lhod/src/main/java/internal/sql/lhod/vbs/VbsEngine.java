@@ -31,7 +31,7 @@ import java.io.IOException;
  */
 public final class VbsEngine implements TabDataEngine {
 
-    private final ResourceExtractor scripts = CachedResourceExtractor.of(DefaultResourceExtractor.of(VbsEngine.class));
+    private final ResourceExtractor scripts = CachedResourceExtractor.of(DefaultResourceExtractor.ofHashed(VbsEngine.class, "com.github.nbbrd.java-sql-util", "java-sql-lhod"));
 
     @Override
     public @NonNull String getId() {
@@ -17,17 +17,22 @@
 package internal.sql.lhod.vbs;
 
 import internal.sql.lhod.TabDataExecutor;
+import internal.sql.lhod.TabDataProcesses;
 import internal.sql.lhod.TabDataQuery;
 import internal.sql.lhod.TabDataReader;
 import internal.sys.ResourceExtractor;
 import lombok.NonNull;
-import nbbrd.io.sys.ProcessReader;
 import nbbrd.io.win.CScriptWrapper;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Stream;
 
 /**
@@ -46,7 +51,17 @@ final class VbsExecutor implements TabDataExecutor {
         if (closed) {
             throw new IOException("Executor closed");
         }
-        return TabDataReader.of(exec(query.getProcedure() + ".vbs", query.getParameters().toArray(new String[0])));
+        InputStream output = start(query);
+        try {
+            return TabDataReader.of(new BufferedReader(new InputStreamReader(output, Charset.defaultCharset())));
+        } catch (IOException ex) {
+            try {
+                output.close();
+            } catch (IOException suppressed) {
+                ex.addSuppressed(suppressed);
+            }
+            throw ex;
+        }
     }
 
     @Override
@@ -59,10 +74,21 @@ final class VbsExecutor implements TabDataExecutor {
         return closed;
     }
 
-    private BufferedReader exec(String scriptName, String[] args) throws IOException {
-        File script = scripts.getResourceAsFile(scriptName);
-        Process process = CScriptWrapper.exec(script, CScriptWrapper.NO_TIMEOUT, encodeArguments(args));
-        return ProcessReader.newReader(Charset.defaultCharset(), process);
+    private InputStream start(TabDataQuery query) throws IOException {
+        File script = scripts.getResourceAsFile(query.getProcedure() + ".vbs");
+        List<String> command = new ArrayList<>();
+        command.add(CScriptWrapper.COMMAND);
+        command.add(script.getName());
+        command.add("//NoLogo");
+        if (query.getTimeout() > 0) {
+            // the script host also stops by itself
+            command.add("//T:" + query.getTimeout());
+        }
+        command.addAll(Arrays.asList(encodeArguments(query.getParameters().toArray(new String[0]))));
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(script.getParentFile());
+        TabDataProcesses.putLimits(builder.environment(), query);
+        return TabDataProcesses.start(builder, query);
     }
 
     private String[] encodeArguments(String[] args) {
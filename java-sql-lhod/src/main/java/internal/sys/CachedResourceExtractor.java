@@ -20,13 +20,21 @@ import lombok.NonNull;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.attribute.FileTime;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
 
 /**
+ * A resource extractor that extracts each resource once and reuses its file.
+ * <p>
+ * The file of a resource is checked again only once the revalidation interval
+ * has elapsed since its last check, and is extracted again if it has been
+ * modified or deleted in the meantime.
  *
  * @author Philippe Charles
  */
@@ -40,30 +48,55 @@ public final class CachedResourceExtractor implements ResourceExtractor {
     @lombok.NonNull
     private final ConcurrentMap<String, Entry> index;
 
+    @lombok.NonNull
+    private final Duration revalidation;
+
+    @lombok.NonNull
+    private final LongSupplier clock;
+
     @Override
     public @NonNull File getResourceAsFile(@NonNull String resourceName) throws IOException {
         Objects.requireNonNull(resourceName);
 
         Entry result = index.get(resourceName);
-        if (!isValid(result)) {
-            result = newEntry(resourceName);
-            index.put(resourceName, result);
+        if (result == null) {
+            return computeIfInvalid(resourceName, null).getFile();
         }
-        return result.getFile();
+        long now = clock.getAsLong();
+        if (now - result.getCheckedAt() < revalidation.toNanos()) {
+            return result.getFile();
+        }
+        if (result.isValidFile()) {
+            // losing this race only means an earlier check time
+            index.replace(resourceName, result, result.withCheckedAt(now));
+            return result.getFile();
+        }
+        return computeIfInvalid(resourceName, result).getFile();
     }
 
-    private boolean isValid(Entry entry) throws IOException {
-        return entry != null && entry.isValidFile();
+    // a single thread extracts the resource while the others wait for its entry
+    private Entry computeIfInvalid(String resourceName, Entry invalid) throws IOException {
+        try {
+            return index.compute(resourceName, (key, current) -> current == null || current == invalid ? newEntry(key) : current);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
     }
 
-    private Entry newEntry(String resourceName) throws IOException {
-        File file = extractor.getResourceAsFile(resourceName);
-        return new Entry(file, file.length(), Files.getLastModifiedTime(file.toPath()));
+    private Entry newEntry(String resourceName) throws UncheckedIOException {
+        try {
+            File file = extractor.getResourceAsFile(resourceName);
+            return new Entry(file, file.length(), Files.getLastModifiedTime(file.toPath()), clock.getAsLong());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
     }
 
     public static Builder builder() {
         return new Builder()
-                .index(new ConcurrentHashMap<>());
+                .index(new ConcurrentHashMap<>())
+                .revalidation(Duration.ofSeconds(10))
+                .clock(System::nanoTime);
     }
 
     public static CachedResourceExtractor of(ResourceExtractor extractor) {
@@ -71,14 +104,16 @@ public final class CachedResourceExtractor implements ResourceExtractor {
     }
 
     @lombok.Value
+    @lombok.With
     public static class Entry {
 
         File file;
         long size;
         FileTime lastModified;
+        long checkedAt;
 
         public boolean isValidFile() throws IOException {
-            return file.exists() && file.isFile() && file.canRead()
+            return file.isFile() && file.canRead()
                     && size == file.length()
                     && lastModified.equals(Files.getLastModifiedTime(file.toPath()));
         }
@@ -18,13 +18,24 @@ package internal.sys;
 
 import lombok.NonNull;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Properties;
 
 /**
  *
@@ -38,10 +49,19 @@ public class DefaultResourceExtractor implements ResourceExtractor {
 
     boolean persist;
 
+    /**
+     * Names the files after the content of the resources so that a file
+     * extracted by a previous run is reused instead of being written again.
+     */
+    boolean hashed;
+
     @lombok.NonNull Class<?> anchor;
 
     @Override
     public @NonNull File getResourceAsFile(@NonNull String resourceName) throws IOException {
+        if (hashed) {
+            return getResourceAsHashedFile(resourceName);
+        }
         try (InputStream stream = anchor.getResourceAsStream(resourceName)) {
             if (stream == null) {
                 throw new FileNotFoundException(resourceName);
@@ -55,20 +75,151 @@ public class DefaultResourceExtractor implements ResourceExtractor {
         }
     }
 
+    private File getResourceAsHashedFile(String resourceName) throws IOException {
+        byte[] content = readResource(resourceName);
+        File result = new File(repository, getHashedFileName(resourceName, content));
+        if (hasContent(result, content)) {
+            return result;
+        }
+        Files.createDirectories(repository.toPath());
+        // the runs that share the repository extract a resource one at a time
+        synchronized (LOCK) {
+            try (FileChannel channel = FileChannel.open(repository.toPath().resolve(LOCK_FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignore = channel.lock()) {
+                if (!hasContent(result, content)) {
+                    write(result.toPath(), content);
+                }
+            }
+        }
+        if (!persist) {
+            result.deleteOnExit();
+        }
+        return result;
+    }
+
+    // file locks are held by the whole process and cannot be shared by its threads
+    private static final Object LOCK = new Object();
+
+    private static final String LOCK_FILE_NAME = ".lock";
+
+    private static boolean hasContent(File file, byte[] content) throws IOException {
+        return file.isFile() && file.length() == content.length && Arrays.equals(content, Files.readAllBytes(file.toPath()));
+    }
+
+    // readers never see a partially written file
+    private static void write(Path target, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            move(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private byte[] readResource(String resourceName) throws IOException {
+        try (InputStream stream = anchor.getResourceAsStream(resourceName)) {
+            if (stream == null) {
+                throw new FileNotFoundException(resourceName);
+            }
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = stream.read(buffer)) != -1) {
+                result.write(buffer, 0, n);
+            }
+            return result.toByteArray();
+        }
+    }
+
     public static Builder builder() {
         return new Builder()
                 .repository(getTempFolder())
-                .persist(false);
+                .persist(false)
+                .hashed(false);
     }
 
     public static DefaultResourceExtractor of(Class<?> anchor) {
         return builder().anchor(anchor).build();
     }
 
+    /**
+     * Creates an extractor that keeps the files of the resources, named after
+     * their content, in a folder of the temp folder that is specific to the
+     * version of an artifact and shared by all the runs of the host.
+     *
+     * @param anchor     a non-null class of the artifact used to load the resources
+     * @param groupId    the non-null group of the artifact
+     * @param artifactId the non-null name of the artifact
+     * @return a non-null extractor
+     */
+    public static DefaultResourceExtractor ofHashed(Class<?> anchor, String groupId, String artifactId) {
+        return builder()
+                .anchor(anchor)
+                .repository(getTempFolder().toPath().resolve(artifactId).resolve(getVersion(anchor, groupId, artifactId)).toFile())
+                .persist(true)
+                .hashed(true)
+                .build();
+    }
+
+    static String getVersion(Class<?> anchor, String groupId, String artifactId) {
+        try (InputStream stream = anchor.getResourceAsStream("/META-INF/maven/" + groupId + "/" + artifactId + "/pom.properties")) {
+            if (stream != null) {
+                Properties properties = new Properties();
+                properties.load(stream);
+                String result = properties.getProperty("version");
+                if (result != null && !result.isEmpty()) {
+                    return result;
+                }
+            }
+        } catch (IOException ex) {
+            // fall back to the manifest
+        }
+        Package result = anchor.getPackage();
+        return result != null && result.getImplementationVersion() != null ? result.getImplementationVersion() : UNKNOWN_VERSION;
+    }
+
+    private static final String UNKNOWN_VERSION = "dev";
+
     private static File getTempFolder() {
         return Paths.get(System.getProperty("java.io.tmpdir")).toFile();
     }
 
+    static String getHashedFileName(String resourceName, byte[] content) {
+        String fileName = resourceName.substring(resourceName.lastIndexOf('/') + 1);
+        int idx = fileName.lastIndexOf(".");
+        String hash = toHex(sha256(content), HASH_LENGTH);
+        return idx != -1
+                ? fileName.substring(0, idx) + "-" + hash + fileName.substring(idx)
+                : fileName + "-" + hash;
+    }
+
+    private static final int HASH_LENGTH = 16;
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String toHex(byte[] bytes, int length) {
+        StringBuilder result = new StringBuilder(length * 2);
+        for (int i = 0; i < length; i++) {
+            result.append(String.format(Locale.ROOT, "%02x", bytes[i]));
+        }
+        return result.toString();
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
     private static File createEmptyFile(File parent, String resourceName) throws IOException {
         int idx = resourceName.lastIndexOf(".");
         return idx != -1
@@ -0,0 +1,109 @@
+Set-StrictMode -Version 2.0
+
+# the text output is decoded as UTF-8 whatever the console code page; a host that already uses it keeps its writer
+if ([Console]::OutputEncoding.CodePage -ne 65001) { [Console]::OutputEncoding = New-Object System.Text.UTF8Encoding($false) }
+
+# Batch: runs several procedure scripts in this process and writes the output
+# of each one as a section of chunks (length + chars) ended by an empty chunk.
+# The arguments are read on stdin as a count of strings followed by each string
+# (length + chars) and are, for each procedure: the script path, the maximum
+# number of rows, the timeout in seconds, the number of arguments and the
+# arguments. The arguments of the procedures are handed to their scripts through
+# $global:LhodArguments.
+
+Add-Type -TypeDefinition @"
+using System;
+using System.Globalization;
+using System.IO;
+using System.Text;
+
+public sealed class LhodChunkWriter : TextWriter {
+    private readonly TextWriter output;
+
+    public LhodChunkWriter(TextWriter output) {
+        this.output = output;
+    }
+
+    public override Encoding Encoding {
+        get { return output.Encoding; }
+    }
+
+    public override void Write(char value) {
+        Write(value.ToString());
+    }
+
+    public override void Write(char[] buffer, int index, int count) {
+        if (count > 0) {
+            Write(new string(buffer, index, count));
+        }
+    }
+
+    public override void Write(string value) {
+        if (!String.IsNullOrEmpty(value)) {
+            output.Write(value.Length.ToString(CultureInfo.InvariantCulture));
+            output.Write('\n');
+            output.Write(value);
+        }
+    }
+
+    public void End() {
+        output.Write("0\n");
+        output.Flush();
+    }
+}
+"@
+
+function Print-Error( [System.IO.TextWriter] $writer, $exception ) {
+    $message = $exception.Message.Replace('"', '""')
+    $writer.Write("`r`n`"$($exception.HResult)`"`t`"$message`"`r`n")
+}
+
+function Read-Args {
+    $reader = New-Object System.IO.StreamReader([Console]::OpenStandardInput(), (New-Object System.Text.UTF8Encoding($false)))
+    $count = [int] $reader.ReadLine()
+    $result = New-Object string[] $count
+    for ($i = 0; $i -lt $count; $i++) {
+        $length = [int] $reader.ReadLine()
+        $chars = New-Object char[] $length
+        $offset = 0
+        while ($offset -lt $length) {
+            $n = $reader.Read($chars, $offset, $length - $offset)
+            if ($n -le 0) { throw New-Object System.IO.EndOfStreamException }
+            $offset += $n
+        }
+        $result[$i] = New-Object string (,$chars)
+    }
+    return ,$result
+}
+
+# sections are always written in the text format
+$env:LHOD_FORMAT = $null
+
+$stdout = [Console]::Out
+
+$batch = Read-Args
+
+$i = 0
+while ($i -lt $batch.Length) {
+    $script = $batch[$i]
+    # limits are read by the procedure scripts as in a standalone process
+    $env:LHOD_MAX_ROWS = $batch[$i + 1]
+    $env:LHOD_TIMEOUT = $batch[$i + 2]
+    $count = [int] $batch[$i + 3]
+    $global:LhodArguments = @()
+    if ($count -gt 0) {
+        $global:LhodArguments = $batch[($i + 4)..($i + 3 + $count)]
+    }
+    $i += 4 + $count
+
+    $writer = New-Object LhodChunkWriter($stdout)
+    [Console]::SetOut($writer)
+    try {
+        & $script | ForEach-Object { $writer.WriteLine($_) }
+    } catch {
+        Print-Error $writer $_.Exception
+    } finally {
+        [Console]::SetOut($stdout)
+        $writer.End()
+    }
+}
@@ -1,9 +1,11 @@
 Set-StrictMode -Version 2.0
 
+# the text output is decoded as UTF-8 whatever the console code page; a host that already uses it keeps its writer
+if ([Console]::OutputEncoding.CodePage -ne 65001) { [Console]::OutputEncoding = New-Object System.Text.UTF8Encoding($false) }
+
 Set-Variable adVarChar -Option Constant -Value 200
-Set-Variable adModeRead -Option Constant -Value 1
 
-function Print-Head( [CsvWriter] $csv ) {
+function Print-Head( $csv ) {
     $csv.WriteField("Name")
     $csv.WriteField("Value")
     $csv.WriteEndOfLine()
@@ -13,7 +15,7 @@ function Print-Head( [CsvWriter] $csv ) {
     $csv.WriteEndOfLine()
 }
 
-function Print-Body( [CsvWriter] $csv, $properties, $dynamicPropertyKeys ) {
+function Print-Body( $csv, $properties, $dynamicPropertyKeys ) {
     if ($dynamicPropertyKeys.Length -eq 0) {
         foreach($prop in $properties) {
             Print-Property $csv $prop
@@ -27,7 +29,7 @@ function Print-Body( [CsvWriter] $csv, $properties, $dynamicPropertyKeys ) {
     }
 }
 
-function Print-Property( [CsvWriter] $csv, $prop ) {
+function Print-Property( $csv, $prop ) {
     $csv.WriteField($prop.Name)
     $csv.WriteField($prop.Value)
     $csv.WriteEndOfLine()
@@ -35,51 +37,95 @@ function Print-Property( [CsvWriter] $csv, $prop ) {
 
 [System.Threading.Thread]::CurrentThread.CurrentCulture = "en_US"
 
-$connectionString = [Helper]::DecodeArg($args[0])
-$dynamicPropertyKeys = [Helper]::DecodeArgs($args[1..$args.Length])
+$arguments = [Helper]::ReadArgs()
+$connectionString = $arguments[0]
+$dynamicPropertyKeys = @($arguments | Select-Object -Skip 1)
 
-$csv = New-Object CsvWriter
-$conn = New-Object -ComObject ADODB.Connection
+$csv = [Helper]::NewWriter()
+$conn = $null
 try {
-    $conn.Mode = $adModeRead
-    $conn.Open($connectionString)
+    $conn = [Helper]::OpenConnection($connectionString)
+    [Helper]::Mark("connect")
 
     Print-Head $csv
     Print-Body $csv $conn.Properties $dynamicPropertyKeys
+    $csv.Flush()
+    [Helper]::Mark("stream")
 } catch {
     [Helper]::PrintError($csv, $_.Exception)
-    Exit(1)
+    return
 } finally {
-    [Helper]::CloseResource($conn)
+    [Helper]::ReleaseConnection($connectionString, $conn)
 }
 
 # --- generic code ---
 
 class Helper {
     static [int] $adStateOpen = 1
+    static [int] $adModeRead = 1
+
+    static [void] PrintError( $csv, $error ) {
+        $csv.WriteError($error.ErrorCode, $error.Message)
+    }
+
+    # the binary format is requested by the driver through the environment
+    static [object] NewWriter() {
+        if ($env:LHOD_FORMAT -eq "binary") {
+            return [BinaryRowWriter]::new()
+        }
+        return [CsvWriter]::new()
+    }
 
-    static [void] PrintError( [CsvWriter] $csv, $error ) {
-        $csv.WriteEndOfLine()
-        $csv.WriteField($error.ErrorCode)
-        $csv.WriteField($error.Message)
-        $csv.WriteEndOfLine()
+    # phases are timed by a resident host that reports them to the driver
+    static [void] Mark( [string] $phase ) {
+        if (Test-Path variable:global:LhodTimer) {
+            $global:LhodTimings[$phase] += $global:LhodTimer.Elapsed.Ticks
+            $global:LhodTimer.Restart()
+        }
     }
 
     static [void] CloseResource( $resource ) {
         if ($resource.State -eq [Helper]::adStateOpen) { $resource.Close() }
     }
 
-    static [string] DecodeArg( [string] $argument ) {
-        if ($argument -like "base64_*") {
-            return [System.Text.Encoding]::UTF8.GetString([System.Convert]::FromBase64String($argument.Substring(7)))
-        } else {
-            return $argument
+    # reuses the connection of an open session if the script runs in a resident host
+    static [object] OpenConnection( [string] $connectionString ) {
+        if ((Test-Path variable:global:LhodSessions) -and $global:LhodSessions.ContainsKey($connectionString)) {
+            return $global:LhodSessions[$connectionString]
         }
+        $result = New-Object -ComObject ADODB.Connection
+        $result.Mode = [Helper]::adModeRead
+        $result.Open($connectionString)
+        return $result
     }
 
-    static [array] DecodeArgs( [array] $arguments ) {
-        if ($arguments.Length -eq 0) { return @() }
-        return $arguments | ForEach-Object { [Helper]::DecodeArg($_) }
+    static [void] ReleaseConnection( [string] $connectionString, $conn ) {
+        if ($null -eq $conn) { return }
+        if ((Test-Path variable:global:LhodSessions) -and $global:LhodSessions.ContainsKey($connectionString)) { return }
+        [Helper]::CloseResource($conn)
+    }
+
+    # the arguments are set by the host that runs the script in process or
+    # sent by the driver over the standard input (count + strings of length + chars)
+    static [string[]] ReadArgs() {
+        if (Test-Path variable:global:LhodArguments) {
+            return [string[]] $global:LhodArguments
+        }
+        $reader = [System.IO.StreamReader]::new([Console]::OpenStandardInput(), [System.Text.UTF8Encoding]::new($false))
+        $count = [int] $reader.ReadLine()
+        $result = [string[]]::new($count)
+        for ($i = 0; $i -lt $count; $i++) {
+            $length = [int] $reader.ReadLine()
+            $chars = [char[]]::new($length)
+            $offset = 0
+            while ($offset -lt $length) {
+                $n = $reader.Read($chars, $offset, $length - $offset)
+                if ($n -le 0) { throw [System.IO.EndOfStreamException]::new() }
+                $offset += $n
+            }
+            $result[$i] = [string]::new($chars)
+        }
+        return $result
     }
 }
 
@@ -90,6 +136,9 @@ class CsvWriter {
     [string] $delimiter
     [string] $endOfLine
 
+    [char[]] $specialChars
+    [int] $flushThreshold
+
     [STATE] $state
     [System.Text.StringBuilder] $buffer
 
@@ -98,6 +147,8 @@ class CsvWriter {
         $this.quote = '"'
         $this.delimiter = "`t"
         $this.endOfLine = "`r`n"
+        $this.specialChars = [char[]] @('"', "`t", "`r", "`n")
+        $this.flushThreshold = 65536
         # Initial state
         $this.state = [STATE]::NO_FIELD
         $this.buffer = [System.Text.StringBuilder]::new()
@@ -132,7 +183,22 @@ class CsvWriter {
     [void] WriteEndOfLine() {
         $this.FlushField()
         $this.buffer.Append($this.endOfLine)
-        [Console]::Write($this.buffer.ToString())
+        if ($this.buffer.Length -ge $this.flushThreshold) {
+            $this.Flush()
+        }
+    }
+
+    [void] WriteError( [string] $code, [string] $message ) {
+        $this.WriteEndOfLine()
+        $this.WriteField($code)
+        $this.WriteField($message)
+        $this.WriteEndOfLine()
+        $this.Flush()
+    }
+
+    [void] Flush() {
+        [Console]::Out.Write($this.buffer.ToString())
+        [Console]::Out.Flush()
         $this.buffer.Clear()
     }
 
@@ -141,14 +207,13 @@ class CsvWriter {
     }
 
     [void] WriteNonEmptyField( [string] $field ) {
-        $this.buffer.Append($this.quote)
-        foreach ($char in $field.ToCharArray()) {
-            if ($char -eq $this.quote) {
-                $this.buffer.Append($this.quote)
-            }
-            $this.buffer.Append($char)
+        if ($field.IndexOfAny($this.specialChars) -lt 0) {
+            $this.buffer.Append($field)
+        } else {
+            $this.buffer.Append($this.quote)
+            $this.buffer.Append($field.Replace($this.quote, $this.quote + $this.quote))
+            $this.buffer.Append($this.quote)
         }
-        $this.buffer.Append($this.quote)
     }
 
     [void] FlushField() {
@@ -159,3 +224,94 @@ class CsvWriter {
         $this.state = [STATE]::NO_FIELD
     }
 }
+
+class BinaryRowWriter {
+    # see TabDataBinaryReader for the format
+    [System.IO.Stream] $output
+    [System.IO.MemoryStream] $buffer
+    [System.IO.BinaryWriter] $writer
+    [int] $row
+    [int] $flushThreshold
+    [System.Collections.ArrayList] $names
+    [System.Collections.ArrayList] $values
+
+    BinaryRowWriter() {
+        $this.output = [Console]::OpenStandardOutput()
+        $this.buffer = [System.IO.MemoryStream]::new()
+        $this.writer = [System.IO.BinaryWriter]::new($this.buffer, [System.Text.UTF8Encoding]::new($false))
+        $this.row = 0
+        $this.flushThreshold = 65536
+        $this.values = [System.Collections.ArrayList]::new()
+        # magic "LHDB" and version
+        $this.writer.Write([byte[]] @(76, 72, 68, 66, 1))
+        $this.Flush()
+    }
+
+    [void] WriteField( [object] $field ) {
+        [void] $this.values.Add($field)
+    }
+
+    [void] WriteEndOfLine() {
+        if ($this.row -eq 0) {
+            $this.names = [System.Collections.ArrayList]::new($this.values)
+        } elseif ($this.row -eq 1) {
+            $this.writer.Write([byte] 1)
+            $this.writer.Write([int] $this.names.Count)
+            for ($i = 0; $i -lt $this.names.Count; $i++) {
+                $this.writer.Write([string] $this.names[$i])
+                $this.writer.Write([int] $this.values[$i])
+            }
+        } else {
+            $this.writer.Write([byte] 2)
+            foreach ($value in $this.values) {
+                $this.WriteValue($value)
+            }
+        }
+        $this.row++
+        $this.values.Clear()
+        if ($this.buffer.Length -ge $this.flushThreshold) {
+            $this.Flush()
+        }
+    }
+
+    [void] WriteError( [string] $code, [string] $message ) {
+        $this.writer.Write([byte] 3)
+        $this.writer.Write([int] $code)
+        $this.writer.Write([string] $message)
+        $this.Flush()
+    }
+
+    [void] WriteValue( [object] $value ) {
+        if ($null -eq $value -or $value -is [System.DBNull]) {
+            $this.writer.Write([byte] 0)
+        } elseif ($value -is [string]) {
+            $this.writer.Write([byte] 1)
+            $this.writer.Write([string] $value)
+        } elseif ($value -is [int] -or $value -is [long] -or $value -is [int16] -or $value -is [byte] -or $value -is [sbyte] -or $value -is [uint16] -or $value -is [uint32]) {
+            $this.writer.Write([byte] 2)
+            $this.writer.Write([long] $value)
+        } elseif ($value -is [double] -or $value -is [single]) {
+            $this.writer.Write([byte] 3)
+            $this.writer.Write([double] $value)
+        } elseif ($value -is [bool]) {
+            $this.writer.Write([byte] 4)
+            $this.writer.Write([byte] $(if ($value) { 1 } else { 0 }))
+        } elseif ($value -is [datetime]) {
+            $this.writer.Write([byte] 5)
+            $this.writer.Write([long] $value.Ticks)
+        } elseif ($value -is [decimal]) {
+            $this.writer.Write([byte] 6)
+            $this.writer.Write($value.ToString([System.Globalization.CultureInfo]::InvariantCulture))
+        } else {
+            $this.writer.Write([byte] 1)
+            $this.writer.Write([string] $value)
+        }
+    }
+
+    [void] Flush() {
+        $this.writer.Flush()
+        $this.buffer.WriteTo($this.output)
+        $this.buffer.SetLength(0)
+        $this.output.Flush()
+    }
+}
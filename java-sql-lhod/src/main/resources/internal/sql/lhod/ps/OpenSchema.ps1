@@ -1,28 +1,44 @@
 Set-StrictMode -Version 2.0
 
+# the text output is decoded as UTF-8 whatever the console code page; a host that already uses it keeps its writer
+if ([Console]::OutputEncoding.CodePage -ne 65001) { [Console]::OutputEncoding = New-Object System.Text.UTF8Encoding($false) }
+
 Set-Variable adSchemaTables -Option Constant -Value 20
-Set-Variable adModeRead -Option Constant -Value 1
+Set-Variable fetchBlockSize -Option Constant -Value 1000
 
-function Print-Head( [CsvWriter] $csv, $rs ) {
-    foreach ($field in $rs.Fields) {
-        $csv.WriteField($field.Name)
+# indexes of the requested fields, all fields if none is requested
+function Get-FieldIndexes( $rs, $columns ) {
+    $result = [System.Collections.Generic.List[int]]::new()
+    for ($f = 0; $f -lt $rs.Fields.Count; $f++) {
+        if ($columns.Length -eq 0 -or $rs.Fields[$f].Name -in $columns) {
+            $result.Add($f)
+        }
+    }
+    return ,$result.ToArray()
+}
+
+function Print-Head( $csv, $rs, $indexes ) {
+    foreach ($f in $indexes) {
+        $csv.WriteField($rs.Fields[$f].Name)
     }
     $csv.WriteEndOfLine()
-    foreach ($field in $rs.Fields) {
-        $csv.WriteField($field.Type)
+    foreach ($f in $indexes) {
+        $csv.WriteField($rs.Fields[$f].Type)
     }
     $csv.WriteEndOfLine()
 }
 
-function Print-Body( [CsvWriter] $csv, $rs, $types ) {
+function Print-Body( $csv, $rs, $indexes ) {
     while ($rs.EOF -eq $false) {
-        if ($types.length -eq 0 -or $rs.Fields["TABLE_TYPE"].Value -in $types) {
-            foreach ($field in $rs.Fields) {
-                $csv.WriteField($field.Value)
+        # block fetching: rows[field, row]
+        $rows = $rs.GetRows($fetchBlockSize)
+        $rowCount = $rows.GetLength(1)
+        for ($r = 0; $r -lt $rowCount; $r++) {
+            foreach ($f in $indexes) {
+                $csv.WriteField($rows[$f, $r])
             }
             $csv.WriteEndOfLine()
         }
-        $rs.MoveNext()
     }
 }
 
@@ -35,62 +51,121 @@ function EmptyToNull( $value ) {
 
 [System.Threading.Thread]::CurrentThread.CurrentCulture = "en_US"
 
-$connectionString = [Helper]::DecodeArg($args[0])
-$catalog = EmptyToNull $([Helper]::DecodeArg($args[1]))
-$schema = EmptyToNull $([Helper]::DecodeArg($args[2]))
-$tableName = EmptyToNull $([Helper]::DecodeArg($args[3]))
-$types = [Helper]::DecodeArgs($args[4..$args.Length])
+$arguments = [Helper]::ReadArgs()
+$connectionString = $arguments[0]
+$catalog = EmptyToNull $arguments[1]
+$schema = EmptyToNull $arguments[2]
+$tableName = EmptyToNull $arguments[3]
+$columns = @($arguments[4] -split "," | Where-Object { $_ -ne "" })
+$types = @($arguments | Select-Object -Skip 5)
+
+# the table type is a restriction of the schema rowset so that the provider
+# filters the tables; one rowset is opened per requested type
+$typeRestrictions = @($null)
+if ($types.Length -gt 0) {
+    $typeRestrictions = $types
+}
 
-$csv = New-Object CsvWriter
-$conn = New-Object -ComObject ADODB.Connection
+$csv = [Helper]::NewWriter()
+$conn = $null
 try {
-    $conn.Mode = $adModeRead
-    $conn.Open($connectionString)
-
-    $rs = $conn.OpenSchema($adSchemaTables, @($catalog, $schema, $tableName, $null))
-    try {
-        Print-Head $csv $rs
-        Print-Body $csv $rs $types
-    } catch {
-        [Helper]::PrintError($csv, $_.Exception)
-        Exit(2)
-    } finally {
-        [Helper]::CloseResource($rs)
+    $conn = [Helper]::OpenConnection($connectionString)
+    [Helper]::Mark("connect")
+
+    $indexes = $null
+    foreach ($type in $typeRestrictions) {
+        $rs = $conn.OpenSchema($adSchemaTables, @($catalog, $schema, $tableName, $type))
+        [Helper]::Mark("execute")
+        try {
+            if ($null -eq $indexes) {
+                $indexes = Get-FieldIndexes $rs $columns
+                Print-Head $csv $rs $indexes
+            }
+            Print-Body $csv $rs $indexes
+            $csv.Flush()
+            [Helper]::Mark("stream")
+        } catch {
+            [Helper]::PrintError($csv, $_.Exception)
+            return
+        } finally {
+            [Helper]::CloseResource($rs)
+        }
     }
 } catch {
     [Helper]::PrintError($csv, $_.Exception)
-    Exit(1)
+    return
 } finally {
-    [Helper]::CloseResource($conn)
+    [Helper]::ReleaseConnection($connectionString, $conn)
 }
 
 # --- generic code ---
 
 class Helper {
     static [int] $adStateOpen = 1
+    static [int] $adModeRead = 1
 
-    static [void] PrintError( [CsvWriter] $csv, $error ) {
-        $csv.WriteEndOfLine()
-        $csv.WriteField($error.ErrorCode)
-        $csv.WriteField($error.Message)
-        $csv.WriteEndOfLine()
+    static [void] PrintError( $csv, $error ) {
+        $csv.WriteError($error.ErrorCode, $error.Message)
+    }
+
+    # the binary format is requested by the driver through the environment
+    static [object] NewWriter() {
+        if ($env:LHOD_FORMAT -eq "binary") {
+            return [BinaryRowWriter]::new()
+        }
+        return [CsvWriter]::new()
+    }
+
+    # phases are timed by a resident host that reports them to the driver
+    static [void] Mark( [string] $phase ) {
+        if (Test-Path variable:global:LhodTimer) {
+            $global:LhodTimings[$phase] += $global:LhodTimer.Elapsed.Ticks
+            $global:LhodTimer.Restart()
+        }
     }
 
     static [void] CloseResource( $resource ) {
         if ($resource.State -eq [Helper]::adStateOpen) { $resource.Close() }
     }
 
-    static [string] DecodeArg( [string] $argument ) {
-        if ($argument -like "base64_*") {
-            return [System.Text.Encoding]::UTF8.GetString([System.Convert]::FromBase64String($argument.Substring(7)))
-        } else {
-            return $argument
+    # reuses the connection of an open session if the script runs in a resident host
+    static [object] OpenConnection( [string] $connectionString ) {
+        if ((Test-Path variable:global:LhodSessions) -and $global:LhodSessions.ContainsKey($connectionString)) {
+            return $global:LhodSessions[$connectionString]
         }
+        $result = New-Object -ComObject ADODB.Connection
+        $result.Mode = [Helper]::adModeRead
+        $result.Open($connectionString)
+        return $result
     }
 
-    static [array] DecodeArgs( [array] $arguments ) {
-        if ($arguments.Length -eq 0) { return @() }
-        return $arguments | ForEach-Object { [Helper]::DecodeArg($_) }
+    static [void] ReleaseConnection( [string] $connectionString, $conn ) {
+        if ($null -eq $conn) { return }
+        if ((Test-Path variable:global:LhodSessions) -and $global:LhodSessions.ContainsKey($connectionString)) { return }
+        [Helper]::CloseResource($conn)
+    }
+
+    # the arguments are set by the host that runs the script in process or
+    # sent by the driver over the standard input (count + strings of length + chars)
+    static [string[]] ReadArgs() {
+        if (Test-Path variable:global:LhodArguments) {
+            return [string[]] $global:LhodArguments
+        }
+        $reader = [System.IO.StreamReader]::new([Console]::OpenStandardInput(), [System.Text.UTF8Encoding]::new($false))
+        $count = [int] $reader.ReadLine()
+        $result = [string[]]::new($count)
+        for ($i = 0; $i -lt $count; $i++) {
+            $length = [int] $reader.ReadLine()
+            $chars = [char[]]::new($length)
+            $offset = 0
+            while ($offset -lt $length) {
+                $n = $reader.Read($chars, $offset, $length - $offset)
+                if ($n -le 0) { throw [System.IO.EndOfStreamException]::new() }
+                $offset += $n
+            }
+            $result[$i] = [string]::new($chars)
+        }
+        return $result
     }
 }
 
@@ -101,6 +176,9 @@ class CsvWriter {
     [string] $delimiter
     [string] $endOfLine
 
+    [char[]] $specialChars
+    [int] $flushThreshold
+
     [STATE] $state
     [System.Text.StringBuilder] $buffer
 
@@ -109,6 +187,8 @@ class CsvWriter {
         $this.quote = '"'
         $this.delimiter = "`t"
         $this.endOfLine = "`r`n"
+        $this.specialChars = [char[]] @('"', "`t", "`r", "`n")
+        $this.flushThreshold = 65536
         # Initial state
         $this.state = [STATE]::NO_FIELD
         $this.buffer = [System.Text.StringBuilder]::new()
@@ -143,7 +223,22 @@ class CsvWriter {
     [void] WriteEndOfLine() {
         $this.FlushField()
         $this.buffer.Append($this.endOfLine)
-        [Console]::Write($this.buffer.ToString())
+        if ($this.buffer.Length -ge $this.flushThreshold) {
+            $this.Flush()
+        }
+    }
+
+    [void] WriteError( [string] $code, [string] $message ) {
+        $this.WriteEndOfLine()
+        $this.WriteField($code)
+        $this.WriteField($message)
+        $this.WriteEndOfLine()
+        $this.Flush()
+    }
+
+    [void] Flush() {
+        [Console]::Out.Write($this.buffer.ToString())
+        [Console]::Out.Flush()
         $this.buffer.Clear()
     }
 
@@ -152,14 +247,13 @@ class CsvWriter {
     }
 
     [void] WriteNonEmptyField( [string] $field ) {
-        $this.buffer.Append($this.quote)
-        foreach ($char in $field.ToCharArray()) {
-            if ($char -eq $this.quote) {
-                $this.buffer.Append($this.quote)
-            }
-            $this.buffer.Append($char)
+        if ($field.IndexOfAny($this.specialChars) -lt 0) {
+            $this.buffer.Append($field)
+        } else {
+            $this.buffer.Append($this.quote)
+            $this.buffer.Append($field.Replace($this.quote, $this.quote + $this.quote))
+            $this.buffer.Append($this.quote)
         }
-        $this.buffer.Append($this.quote)
     }
 
     [void] FlushField() {
@@ -170,3 +264,94 @@ class CsvWriter {
         $this.state = [STATE]::NO_FIELD
     }
 }
+
+class BinaryRowWriter {
+    # see TabDataBinaryReader for the format
+    [System.IO.Stream] $output
+    [System.IO.MemoryStream] $buffer
+    [System.IO.BinaryWriter] $writer
+    [int] $row
+    [int] $flushThreshold
+    [System.Collections.ArrayList] $names
+    [System.Collections.ArrayList] $values
+
+    BinaryRowWriter() {
+        $this.output = [Console]::OpenStandardOutput()
+        $this.buffer = [System.IO.MemoryStream]::new()
+        $this.writer = [System.IO.BinaryWriter]::new($this.buffer, [System.Text.UTF8Encoding]::new($false))
+        $this.row = 0
+        $this.flushThreshold = 65536
+        $this.values = [System.Collections.ArrayList]::new()
+        # magic "LHDB" and version
+        $this.writer.Write([byte[]] @(76, 72, 68, 66, 1))
+        $this.Flush()
+    }
+
+    [void] WriteField( [object] $field ) {
+        [void] $this.values.Add($field)
+    }
+
+    [void] WriteEndOfLine() {
+        if ($this.row -eq 0) {
+            $this.names = [System.Collections.ArrayList]::new($this.values)
+        } elseif ($this.row -eq 1) {
+            $this.writer.Write([byte] 1)
+            $this.writer.Write([int] $this.names.Count)
+            for ($i = 0; $i -lt $this.names.Count; $i++) {
+                $this.writer.Write([string] $this.names[$i])
+                $this.writer.Write([int] $this.values[$i])
+            }
+        } else {
+            $this.writer.Write([byte] 2)
+            foreach ($value in $this.values) {
+                $this.WriteValue($value)
+            }
+        }
+        $this.row++
+        $this.values.Clear()
+        if ($this.buffer.Length -ge $this.flushThreshold) {
+            $this.Flush()
+        }
+    }
+
+    [void] WriteError( [string] $code, [string] $message ) {
+        $this.writer.Write([byte] 3)
+        $this.writer.Write([int] $code)
+        $this.writer.Write([string] $message)
+        $this.Flush()
+    }
+
+    [void] WriteValue( [object] $value ) {
+        if ($null -eq $value -or $value -is [System.DBNull]) {
+            $this.writer.Write([byte] 0)
+        } elseif ($value -is [string]) {
+            $this.writer.Write([byte] 1)
+            $this.writer.Write([string] $value)
+        } elseif ($value -is [int] -or $value -is [long] -or $value -is [int16] -or $value -is [byte] -or $value -is [sbyte] -or $value -is [uint16] -or $value -is [uint32]) {
+            $this.writer.Write([byte] 2)
+            $this.writer.Write([long] $value)
+        } elseif ($value -is [double] -or $value -is [single]) {
+            $this.writer.Write([byte] 3)
+            $this.writer.Write([double] $value)
+        } elseif ($value -is [bool]) {
+            $this.writer.Write([byte] 4)
+            $this.writer.Write([byte] $(if ($value) { 1 } else { 0 }))
+        } elseif ($value -is [datetime]) {
+            $this.writer.Write([byte] 5)
+            $this.writer.Write([long] $value.Ticks)
+        } elseif ($value -is [decimal]) {
+            $this.writer.Write([byte] 6)
+            $this.writer.Write($value.ToString([System.Globalization.CultureInfo]::InvariantCulture))
+        } else {
+            $this.writer.Write([byte] 1)
+            $this.writer.Write([string] $value)
+        }
+    }
+
+    [void] Flush() {
+        $this.writer.Flush()
+        $this.buffer.WriteTo($this.output)
+        $this.buffer.SetLength(0)
+        $this.output.Flush()
+    }
+}
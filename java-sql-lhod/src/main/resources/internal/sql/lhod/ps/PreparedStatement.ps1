@@ -1,10 +1,19 @@
 Set-StrictMode -Version 2.0
 
-Set-Variable adModeRead -Option Constant -Value 1
+# the text output is decoded as UTF-8 whatever the console code page; a host that already uses it keeps its writer
+if ([Console]::OutputEncoding.CodePage -ne 65001) { [Console]::OutputEncoding = New-Object System.Text.UTF8Encoding($false) }
+
+Set-Variable adInteger -Option Constant -Value 3
+Set-Variable adDouble -Option Constant -Value 5
+Set-Variable adDate -Option Constant -Value 7
+Set-Variable adBoolean -Option Constant -Value 11
+Set-Variable adBigInt -Option Constant -Value 20
+Set-Variable adNumeric -Option Constant -Value 131
 Set-Variable adVarChar -Option Constant -Value 200
 Set-Variable adParamInput -Option Constant -Value 1
+Set-Variable fetchBlockSize -Option Constant -Value 1000
 
-function Print-Head( [CsvWriter] $csv, $rs ) {
+function Print-Head( $csv, $rs ) {
     foreach ($field in $rs.Fields) {
         $csv.WriteField($field.Name)
     }
@@ -15,87 +24,205 @@ function Print-Head( [CsvWriter] $csv, $rs ) {
     $csv.WriteEndOfLine()
 }
 
-function Print-Body( [CsvWriter] $csv, $rs ) {
-    while ($rs.EOF -eq $false) {
-        foreach ($field in $rs.Fields) {
-            $csv.WriteField($field.Value)
+function Print-Body( $csv, $rs, [int] $maxRows ) {
+    $fieldCount = $rs.Fields.Count
+    $remaining = if ($maxRows -gt 0) { $maxRows } else { [int]::MaxValue }
+    while ($remaining -gt 0 -and $rs.EOF -eq $false) {
+        # block fetching: rows[field, row]
+        $rows = $rs.GetRows([Math]::Min($fetchBlockSize, $remaining))
+        $rowCount = $rows.GetLength(1)
+        $remaining -= $rowCount
+        for ($r = 0; $r -lt $rowCount; $r++) {
+            for ($f = 0; $f -lt $fieldCount; $f++) {
+                $csv.WriteField($rows[$f, $r])
+            }
+            $csv.WriteEndOfLine()
+        }
+    }
+}
+
+# parameters are typed as "type:value" (see TabDataParameters); a missing value is null
+function Set-ParameterValue( $param, [string] $text ) {
+    $separator = $text.IndexOf(":")
+    $type = [int] $(if ($separator -lt 0) { $text } else { $text.Substring(0, $separator) })
+    $param.Type = $type
+    if ($separator -lt 0) {
+        $param.Size = 1
+        $param.Value = [System.DBNull]::Value
+        return
+    }
+    $value = $text.Substring($separator + 1)
+    $invariant = [System.Globalization.CultureInfo]::InvariantCulture
+    switch ($type) {
+        $adInteger { $param.Value = [int]::Parse($value, $invariant) }
+        $adDouble { $param.Value = [double]::Parse($value, $invariant) }
+        $adDate { $param.Value = [datetime]::ParseExact($value, "yyyy-MM-dd HH:mm:ss.fff", $invariant) }
+        $adBoolean { $param.Value = [int]::Parse($value, $invariant) -ne 0 }
+        $adBigInt { $param.Value = [long]::Parse($value, $invariant) }
+        $adNumeric {
+            $dot = $value.IndexOf(".")
+            $param.Precision = 28
+            $param.NumericScale = if ($dot -lt 0) { 0 } else { $value.Length - $dot - 1 }
+            $param.Value = [decimal]::Parse($value, $invariant)
+        }
+        default {
+            $param.Size = [Math]::Max(1, $value.Length)
+            $param.Value = $value
         }
-        $csv.WriteEndOfLine()
-        $rs.MoveNext()
     }
 }
 
 [System.Threading.Thread]::CurrentThread.CurrentCulture = "en_US"
 
-$connectionString = [Helper]::DecodeArg($args[0])
-$sql = [Helper]::DecodeArg($args[1])
-$params = [Helper]::DecodeArgs($args[2..$args.Length])
+$arguments = [Helper]::ReadArgs()
+$connectionString = $arguments[0]
+$sql = $arguments[1]
+$params = @($arguments | Select-Object -Skip 2)
+$maxRows = [Helper]::GetLimit("LHOD_MAX_ROWS")
+$timeout = [Helper]::GetLimit("LHOD_TIMEOUT")
+
+# in batch mode, the parameters hold one set per execution of the prepared
+# command and the output of each execution is a section of chunks
+$batchSize = [Helper]::GetLimit("LHOD_BATCH_SIZE")
+$batched = $batchSize -gt 0
+if (-not $batched) { $batchSize = 1 }
+$paramCount = $params.Length / $batchSize
 
-$csv = New-Object CsvWriter
-$conn = New-Object -ComObject ADODB.Connection
+$csv = [Helper]::NewWriter($batched)
+$conn = $null
 try {
-    $conn.Mode = $adModeRead
-    $conn.Open($connectionString)
+    $conn = [Helper]::OpenConnection($connectionString)
+    [Helper]::Mark("connect")
 
     $cmd = New-Object -ComObject ADODB.Command
     try {
         $cmd.ActiveConnection = $conn
         $cmd.CommandText = "$sql"
+        if ($timeout -gt 0) { $cmd.CommandTimeout = $timeout }
 
-        for ($i = 0; $i -lt $params.Length; $i++) {
-            $cmd.Parameters.Append($cmd.CreateParameter("p$i", $adVarChar, $adParamInput, $params[$i].Length, $params[$i]))
+        for ($i = 0; $i -lt $paramCount; $i++) {
+            $cmd.Parameters.Append($cmd.CreateParameter("p$i", $adVarChar, $adParamInput, 1))
         }
+        if ($batched) { $cmd.Prepared = $true }
 
-        $rs = $cmd.Execute()
-        try {
-            Print-Head $csv $rs
-            Print-Body $csv $rs
-        } catch {
-            [Helper]::PrintError($csv, $_.Exception)
-            Exit(3)
-        } finally {
-            [Helper]::CloseResource($rs)
+        for ($set = 0; $set -lt $batchSize; $set++) {
+            try {
+                for ($i = 0; $i -lt $paramCount; $i++) {
+                    Set-ParameterValue $cmd.Parameters.Item($i) $params[$set * $paramCount + $i]
+                }
+
+                $rs = $cmd.Execute()
+                [Helper]::Mark("execute")
+                try {
+                    Print-Head $csv $rs
+                    Print-Body $csv $rs $maxRows
+                    $csv.Flush()
+                    [Helper]::Mark("stream")
+                } finally {
+                    [Helper]::CloseResource($rs)
+                }
+            } catch {
+                [Helper]::PrintError($csv, $_.Exception)
+                if (-not $batched) { return }
+            }
+            $csv.EndSection()
         }
     } catch {
-        [Helper]::PrintError($csv, $_.Exception)
-        Exit(2)
+        [Helper]::PrintErrors($csv, $_.Exception, $batchSize)
+        return
     } finally {
         [Helper]::CloseResource($cmd)
     }
 } catch {
-    [Helper]::PrintError($csv, $_.Exception)
-    Exit(1)
+    [Helper]::PrintErrors($csv, $_.Exception, $batchSize)
+    return
 } finally {
-    [Helper]::CloseResource($conn)
+    [Helper]::ReleaseConnection($connectionString, $conn)
 }
 
 # --- generic code ---
 
 class Helper {
     static [int] $adStateOpen = 1
+    static [int] $adModeRead = 1
+
+    static [void] PrintError( $csv, $error ) {
+        $csv.WriteError($error.ErrorCode, $error.Message)
+    }
+
+    # an error that happens before the executions ends every remaining section
+    static [void] PrintErrors( $csv, $error, [int] $count ) {
+        for ($i = 0; $i -lt $count; $i++) {
+            [Helper]::PrintError($csv, $error)
+            $csv.EndSection()
+        }
+    }
 
-    static [void] PrintError( [CsvWriter] $csv, $error ) {
-        $csv.WriteEndOfLine()
-        $csv.WriteField($error.ErrorCode)
-        $csv.WriteField($error.Message)
-        $csv.WriteEndOfLine()
+    # the binary format is requested by the driver through the environment
+    static [object] NewWriter( [boolean] $chunked ) {
+        if ($env:LHOD_FORMAT -eq "binary" -and -not $chunked) {
+            return [BinaryRowWriter]::new()
+        }
+        return [CsvWriter]::new($chunked)
+    }
+
+    # limits of the query are given by the driver through the environment; zero means no limit
+    static [int] GetLimit( [string] $name ) {
+        $value = [System.Environment]::GetEnvironmentVariable($name)
+        if ([string]::IsNullOrEmpty($value)) { return 0 }
+        return [int] $value
+    }
+
+    # phases are timed by a resident host that reports them to the driver
+    static [void] Mark( [string] $phase ) {
+        if (Test-Path variable:global:LhodTimer) {
+            $global:LhodTimings[$phase] += $global:LhodTimer.Elapsed.Ticks
+            $global:LhodTimer.Restart()
+        }
     }
 
     static [void] CloseResource( $resource ) {
         if ($resource.State -eq [Helper]::adStateOpen) { $resource.Close() }
     }
 
-    static [string] DecodeArg( [string] $argument ) {
-        if ($argument -like "base64_*") {
-            return [System.Text.Encoding]::UTF8.GetString([System.Convert]::FromBase64String($argument.Substring(7)))
-        } else {
-            return $argument
+    # reuses the connection of an open session if the script runs in a resident host
+    static [object] OpenConnection( [string] $connectionString ) {
+        if ((Test-Path variable:global:LhodSessions) -and $global:LhodSessions.ContainsKey($connectionString)) {
+            return $global:LhodSessions[$connectionString]
         }
+        $result = New-Object -ComObject ADODB.Connection
+        $result.Mode = [Helper]::adModeRead
+        $result.Open($connectionString)
+        return $result
     }
 
-    static [array] DecodeArgs( [array] $arguments ) {
-        if ($arguments.Length -eq 0) { return @() }
-        return $arguments | ForEach-Object { [Helper]::DecodeArg($_) }
+    static [void] ReleaseConnection( [string] $connectionString, $conn ) {
+        if ($null -eq $conn) { return }
+        if ((Test-Path variable:global:LhodSessions) -and $global:LhodSessions.ContainsKey($connectionString)) { return }
+        [Helper]::CloseResource($conn)
+    }
+
+    # the arguments are set by the host that runs the script in process or
+    # sent by the driver over the standard input (count + strings of length + chars)
+    static [string[]] ReadArgs() {
+        if (Test-Path variable:global:LhodArguments) {
+            return [string[]] $global:LhodArguments
+        }
+        $reader = [System.IO.StreamReader]::new([Console]::OpenStandardInput(), [System.Text.UTF8Encoding]::new($false))
+        $count = [int] $reader.ReadLine()
+        $result = [string[]]::new($count)
+        for ($i = 0; $i -lt $count; $i++) {
+            $length = [int] $reader.ReadLine()
+            $chars = [char[]]::new($length)
+            $offset = 0
+            while ($offset -lt $length) {
+                $n = $reader.Read($chars, $offset, $length - $offset)
+                if ($n -le 0) { throw [System.IO.EndOfStreamException]::new() }
+                $offset += $n
+            }
+            $result[$i] = [string]::new($chars)
+        }
+        return $result
     }
 }
 
@@ -106,14 +233,21 @@ class CsvWriter {
     [string] $delimiter
     [string] $endOfLine
 
+    [char[]] $specialChars
+    [int] $flushThreshold
+
     [STATE] $state
     [System.Text.StringBuilder] $buffer
+    [boolean] $chunked
 
-    CsvWriter() {
+    CsvWriter( [boolean] $chunked ) {
+        $this.chunked = $chunked
         # Csv format
         $this.quote = '"'
         $this.delimiter = "`t"
         $this.endOfLine = "`r`n"
+        $this.specialChars = [char[]] @('"', "`t", "`r", "`n")
+        $this.flushThreshold = 65536
         # Initial state
         $this.state = [STATE]::NO_FIELD
         $this.buffer = [System.Text.StringBuilder]::new()
@@ -148,23 +282,51 @@ class CsvWriter {
     [void] WriteEndOfLine() {
         $this.FlushField()
         $this.buffer.Append($this.endOfLine)
-        [Console]::Write($this.buffer.ToString())
+        if ($this.buffer.Length -ge $this.flushThreshold) {
+            $this.Flush()
+        }
+    }
+
+    [void] WriteError( [string] $code, [string] $message ) {
+        $this.WriteEndOfLine()
+        $this.WriteField($code)
+        $this.WriteField($message)
+        $this.WriteEndOfLine()
+        $this.Flush()
+    }
+
+    # chunks are written as a length followed by their chars
+    [void] Flush() {
+        if ($this.chunked) {
+            if ($this.buffer.Length -eq 0) { return }
+            [Console]::Out.Write("$($this.buffer.Length)`n")
+        }
+        [Console]::Out.Write($this.buffer.ToString())
+        [Console]::Out.Flush()
         $this.buffer.Clear()
     }
 
+    # a section is ended by an empty chunk
+    [void] EndSection() {
+        if ($this.chunked) {
+            $this.Flush()
+            [Console]::Out.Write("0`n")
+            [Console]::Out.Flush()
+        }
+    }
+
     [boolean] IsNonEmptyField( [string] $field ) {
         return ($field.length -ne "")
     }
 
     [void] WriteNonEmptyField( [string] $field ) {
-        $this.buffer.Append($this.quote)
-        foreach ($char in $field.ToCharArray()) {
-            if ($char -eq $this.quote) {
-                $this.buffer.Append($this.quote)
-            }
-            $this.buffer.Append($char)
+        if ($field.IndexOfAny($this.specialChars) -lt 0) {
+            $this.buffer.Append($field)
+        } else {
+            $this.buffer.Append($this.quote)
+            $this.buffer.Append($field.Replace($this.quote, $this.quote + $this.quote))
+            $this.buffer.Append($this.quote)
         }
-        $this.buffer.Append($this.quote)
     }
 
     [void] FlushField() {
@@ -175,3 +337,97 @@ class CsvWriter {
         $this.state = [STATE]::NO_FIELD
     }
 }
+
+class BinaryRowWriter {
+    # see TabDataBinaryReader for the format
+    [System.IO.Stream] $output
+    [System.IO.MemoryStream] $buffer
+    [System.IO.BinaryWriter] $writer
+    [int] $row
+    [int] $flushThreshold
+    [System.Collections.ArrayList] $names
+    [System.Collections.ArrayList] $values
+
+    BinaryRowWriter() {
+        $this.output = [Console]::OpenStandardOutput()
+        $this.buffer = [System.IO.MemoryStream]::new()
+        $this.writer = [System.IO.BinaryWriter]::new($this.buffer, [System.Text.UTF8Encoding]::new($false))
+        $this.row = 0
+        $this.flushThreshold = 65536
+        $this.values = [System.Collections.ArrayList]::new()
+        # magic "LHDB" and version
+        $this.writer.Write([byte[]] @(76, 72, 68, 66, 1))
+        $this.Flush()
+    }
+
+    [void] WriteField( [object] $field ) {
+        [void] $this.values.Add($field)
+    }
+
+    [void] WriteEndOfLine() {
+        if ($this.row -eq 0) {
+            $this.names = [System.Collections.ArrayList]::new($this.values)
+        } elseif ($this.row -eq 1) {
+            $this.writer.Write([byte] 1)
+            $this.writer.Write([int] $this.names.Count)
+            for ($i = 0; $i -lt $this.names.Count; $i++) {
+                $this.writer.Write([string] $this.names[$i])
+                $this.writer.Write([int] $this.values[$i])
+            }
+        } else {
+            $this.writer.Write([byte] 2)
+            foreach ($value in $this.values) {
+                $this.WriteValue($value)
+            }
+        }
+        $this.row++
+        $this.values.Clear()
+        if ($this.buffer.Length -ge $this.flushThreshold) {
+            $this.Flush()
+        }
+    }
+
+    [void] WriteError( [string] $code, [string] $message ) {
+        $this.writer.Write([byte] 3)
+        $this.writer.Write([int] $code)
+        $this.writer.Write([string] $message)
+        $this.Flush()
+    }
+
+    [void] EndSection() {
+    }
+
+    [void] WriteValue( [object] $value ) {
+        if ($null -eq $value -or $value -is [System.DBNull]) {
+            $this.writer.Write([byte] 0)
+        } elseif ($value -is [string]) {
+            $this.writer.Write([byte] 1)
+            $this.writer.Write([string] $value)
+        } elseif ($value -is [int] -or $value -is [long] -or $value -is [int16] -or $value -is [byte] -or $value -is [sbyte] -or $value -is [uint16] -or $value -is [uint32]) {
+            $this.writer.Write([byte] 2)
+            $this.writer.Write([long] $value)
+        } elseif ($value -is [double] -or $value -is [single]) {
+            $this.writer.Write([byte] 3)
+            $this.writer.Write([double] $value)
+        } elseif ($value -is [bool]) {
+            $this.writer.Write([byte] 4)
+            $this.writer.Write([byte] $(if ($value) { 1 } else { 0 }))
+        } elseif ($value -is [datetime]) {
+            $this.writer.Write([byte] 5)
+            $this.writer.Write([long] $value.Ticks)
+        } elseif ($value -is [decimal]) {
+            $this.writer.Write([byte] 6)
+            $this.writer.Write($value.ToString([System.Globalization.CultureInfo]::InvariantCulture))
+        } else {
+            $this.writer.Write([byte] 1)
+            $this.writer.Write([string] $value)
+        }
+    }
+
+    [void] Flush() {
+        $this.writer.Flush()
+        $this.buffer.WriteTo($this.output)
+        $this.buffer.SetLength(0)
+        $this.output.Flush()
+    }
+}
@@ -0,0 +1,193 @@
+Set-StrictMode -Version 2.0
+
+# Resident host: reads framed queries on stdin, runs the requested procedure
+# script and writes its output as chunks on stdout.
+# A query is a count of strings followed by each string (length + chars): the
+# procedure, the maximum number of rows, the timeout in seconds and the arguments.
+# A response is a sequence of chunks (length + chars) ended by an empty chunk.
+# The OpenSession and CloseSession queries keep an ADODB connection open per
+# connection string; procedure scripts reuse it through $global:LhodSessions.
+# Procedure scripts are parsed once into script blocks and dispatched by path.
+# The response of a procedure has a timing record (T + microseconds spent in
+# parse, connect, execute and stream, comma-separated) before its empty chunk.
+
+Add-Type -TypeDefinition @"
+using System;
+using System.Globalization;
+using System.IO;
+using System.Text;
+
+public sealed class LhodChunkWriter : TextWriter {
+    private readonly TextWriter output;
+
+    public LhodChunkWriter(TextWriter output) {
+        this.output = output;
+    }
+
+    public override Encoding Encoding {
+        get { return output.Encoding; }
+    }
+
+    public override void Write(char value) {
+        Write(value.ToString());
+    }
+
+    public override void Write(char[] buffer, int index, int count) {
+        if (count > 0) {
+            Write(new string(buffer, index, count));
+        }
+    }
+
+    public override void Write(string value) {
+        if (!String.IsNullOrEmpty(value)) {
+            output.Write(value.Length.ToString(CultureInfo.InvariantCulture));
+            output.Write('\n');
+            output.Write(value);
+        }
+    }
+
+    public void End() {
+        output.Write("0\n");
+        output.Flush();
+    }
+
+    public void End(string timings) {
+        output.Write('T');
+        output.Write(timings);
+        output.Write('\n');
+        End();
+    }
+}
+
+public static class LhodFrames {
+    public static string[] ReadQuery(TextReader input) {
+        int count = ReadLength(input);
+        if (count < 0) {
+            return null;
+        }
+        string[] result = new string[count];
+        for (int i = 0; i < count; i++) {
+            int length = ReadLength(input);
+            if (length < 0) {
+                throw new EndOfStreamException();
+            }
+            char[] chars = new char[length];
+            int offset = 0;
+            while (offset < length) {
+                int n = input.Read(chars, offset, length - offset);
+                if (n <= 0) {
+                    throw new EndOfStreamException();
+                }
+                offset += n;
+            }
+            result[i] = new string(chars);
+        }
+        return result;
+    }
+
+    private static int ReadLength(TextReader input) {
+        string line = input.ReadLine();
+        if (line == null) {
+            return -1;
+        }
+        return Int32.Parse(line.Trim(), CultureInfo.InvariantCulture);
+    }
+}
+"@
+
+function Print-Error( [System.IO.TextWriter] $writer, $exception ) {
+    $message = $exception.Message.Replace('"', '""')
+    $writer.Write("`r`n`"$($exception.HResult)`"`t`"$message`"`r`n")
+}
+
+function Open-Session( [string] $connectionString ) {
+    if (-not $global:LhodSessions.ContainsKey($connectionString)) {
+        $conn = New-Object -ComObject ADODB.Connection
+        $conn.Mode = 1 # adModeRead
+        $conn.Open($connectionString)
+        $global:LhodSessions[$connectionString] = $conn
+    }
+}
+
+function Close-Session( [string] $connectionString ) {
+    if ($global:LhodSessions.ContainsKey($connectionString)) {
+        $conn = $global:LhodSessions[$connectionString]
+        $global:LhodSessions.Remove($connectionString)
+        if ($conn.State -eq 1) { $conn.Close() } # adStateOpen
+    }
+}
+
+[Console]::InputEncoding = New-Object System.Text.UTF8Encoding($false)
+
+$global:LhodSessions = @{}
+
+$procedures = @{}
+
+function Get-Procedure( [string] $script ) {
+    $result = $procedures[$script]
+    if ($null -eq $result) {
+        $result = [ScriptBlock]::Create([System.IO.File]::ReadAllText($script))
+        $procedures[$script] = $result
+    }
+    return $result
+}
+
+function Format-Timings {
+    $phases = "parse", "connect", "execute", "stream"
+    return ($phases | ForEach-Object { [long] ($global:LhodTimings[$_] / 10) }) -join ","
+}
+
+$stdin = [Console]::In
+$stdout = [Console]::Out
+
+while ($true) {
+    $query = [LhodFrames]::ReadQuery($stdin)
+    if ($null -eq $query) {
+        break
+    }
+
+    $script = $query[0]
+    # limits are read by the procedure scripts as in a standalone process
+    $env:LHOD_MAX_ROWS = $query[1]
+    $env:LHOD_TIMEOUT = $query[2]
+    # the arguments are read by the procedure scripts through [Helper]::ReadArgs()
+    $arguments = @()
+    if ($query.Length -gt 3) {
+        $arguments = $query[3..($query.Length - 1)]
+    }
+    $global:LhodArguments = $arguments
+
+    # timings are in ticks of 100 ns, restarted at each phase by [Helper]::Mark()
+    $global:LhodTimer = [System.Diagnostics.Stopwatch]::StartNew()
+    $global:LhodTimings = @{ parse = 0; connect = 0; execute = 0; stream = 0 }
+    $timed = $false
+
+    $writer = New-Object LhodChunkWriter($stdout)
+    [Console]::SetOut($writer)
+    try {
+        switch ($script) {
+            "OpenSession" { Open-Session $arguments[0] }
+            "CloseSession" { Close-Session $arguments[0] }
+            default {
+                $timed = $true
+                $procedure = Get-Procedure $script
+                $global:LhodTimings["parse"] = $global:LhodTimer.Elapsed.Ticks
+                $global:LhodTimer.Restart()
+                & $procedure | ForEach-Object { $writer.WriteLine($_) }
+            }
+        }
+    } catch {
+        Print-Error $writer $_.Exception
+    } finally {
+        [Console]::SetOut($stdout)
+        if ($timed) {
+            $writer.End((Format-Timings))
+        } else {
+            $writer.End()
+        }
+    }
+}
+
+foreach ($connectionString in @($global:LhodSessions.Keys)) {
+    Close-Session $connectionString
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package _demo;
+
+import internal.nbbrd.picocsv.Csv;
+import internal.sql.lhod.TabDataReader;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Locale;
+
+/**
+ * Compares the former row decoding, that creates a string per field, with
+ * the char sequence access of {@link TabDataReader} on a synthetic extract.
+ * Run it as a plain Java program: {@code TabDataReaderBenchmark [rows]}.
+ *
+ * @author Philippe Charles
+ */
+public final class TabDataReaderBenchmark {
+
+    private static final int WARMUP = 5;
+    private static final int ROUNDS = 10;
+
+    private static final Csv.Format FORMAT = Csv.Format.RFC4180.toBuilder().delimiter('\t').build();
+    private static final Csv.ReaderOptions OPTIONS = Csv.ReaderOptions.builder().lenientSeparator(true).build();
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        String content = newContent(rows);
+
+        for (int i = 0; i < WARMUP; i++) {
+            former(content);
+            lazy(content);
+        }
+
+        long formerNanos = 0;
+        long lazyNanos = 0;
+        long blackhole = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            blackhole += former(content);
+            formerNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            blackhole += lazy(content);
+            lazyNanos += System.nanoTime() - start;
+        }
+
+        System.out.println(String.format(Locale.ROOT, "rows=%d former=%.1f ms lazy=%.1f ms (%d)",
+                rows, formerNanos / 1e6 / ROUNDS, lazyNanos / 1e6 / ROUNDS, blackhole));
+    }
+
+    // copies every field into a new string when the row is read, like the former TabDataReader
+    static long former(String content) throws IOException {
+        long result = 0;
+        try (Csv.Reader reader = Csv.Reader.of(FORMAT, OPTIONS, new StringReader(content))) {
+            reader.readLine();
+            int columns = 0;
+            while (reader.readField()) {
+                columns++;
+            }
+            reader.readLine();
+            String[] currentRow = new String[columns];
+            while (reader.readLine()) {
+                int idx = 0;
+                while (reader.readField()) {
+                    currentRow[idx++] = reader.toString();
+                }
+                for (int i = 0; i < columns; i++) {
+                    result += currentRow[i].length();
+                }
+            }
+        }
+        return result;
+    }
+
+    // reads every field as a view over the row buffer
+    static long lazy(String content) throws IOException {
+        long result = 0;
+        try (TabDataReader reader = TabDataReader.of(new StringReader(content))) {
+            int columns = reader.getColumns().size();
+            while (reader.readNextRow()) {
+                for (int i = 0; i < columns; i++) {
+                    result += reader.getChars(i).length();
+                }
+            }
+        }
+        return result;
+    }
+
+    static String newContent(int rows) {
+        StringBuilder result = new StringBuilder();
+        result.append("Id\tName\tDate\tValue\r\n");
+        result.append("3\t202\t135\t5\r\n");
+        for (int i = 0; i < rows; i++) {
+            result.append(i).append('\t')
+                    .append("\"Item ").append(i).append("\"\t")
+                    .append(1 + i % 12).append('/').append(1 + i % 28).append("/2008\t")
+                    .append(i * 0.25).append("\r\n");
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package _demo;
+
+import internal.sql.lhod.TabDataFrames;
+import internal.sql.lhod.TabDataReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Replays generated tab-separated data through {@link TabDataReader} to
+ * measure the client side of the script output. It compares fields that are
+ * always quoted with fields quoted only when needed, and one chunk per row
+ * with large chunks when the data goes through the resident host framing.
+ * Run it as a plain Java program:
+ * {@code TabDataThroughputBenchmark [rows] [columns]}.
+ *
+ * @author Philippe Charles
+ */
+public final class TabDataThroughputBenchmark {
+
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 5;
+    private static final int BLOCK_SIZE = 65536;
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int columns = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        String quoted = generate(rows, columns, true);
+        String minimal = generate(rows, columns, false);
+
+        run("quoted", quoted, rows, false);
+        run("minimal", minimal, rows, false);
+        run("minimal+row chunks", frame(minimal, true), rows, true);
+        run("minimal+block chunks", frame(minimal, false), rows, true);
+    }
+
+    private static void run(String label, String content, int rows, boolean framed) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            replay(content, framed);
+        }
+        long nanos = 0;
+        long blackhole = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            blackhole += replay(content, framed);
+            nanos += System.nanoTime() - start;
+        }
+        double seconds = nanos / 1e9 / ROUNDS;
+        System.out.println(String.format(Locale.ROOT, "%-22s %8.1f ms %10.0f rows/s %8.1f MB/s (%d)",
+                label, seconds * 1e3, rows / seconds, content.length() * 2 / 1e6 / seconds, blackhole));
+    }
+
+    static long replay(String content, boolean framed) throws IOException {
+        Reader input = new StringReader(content);
+        if (framed) {
+            input = TabDataFrames.newChunkedReader(input);
+        }
+        long result = 0;
+        try (TabDataReader reader = TabDataReader.of(input)) {
+            int columns = reader.getColumns().size();
+            while (reader.readNextRow()) {
+                for (int i = 0; i < columns; i++) {
+                    result += reader.getChars(i).length();
+                }
+            }
+        }
+        return result;
+    }
+
+    // mimics the CsvWriter of the scripts
+    static String generate(int rows, int columns, boolean alwaysQuote) {
+        StringBuilder result = new StringBuilder();
+        for (int j = 0; j < columns; j++) {
+            result.append(j == 0 ? "" : "\t").append("Column").append(j);
+        }
+        result.append("\r\n");
+        for (int j = 0; j < columns; j++) {
+            result.append(j == 0 ? "" : "\t").append(j % 3 == 0 ? 202 : j % 3 == 1 ? 5 : 135);
+        }
+        result.append("\r\n");
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if (j > 0) {
+                    result.append('\t');
+                }
+                String field = j % 3 == 0 ? "Item " + i + (i % 100 == 0 ? " \"quoted\"" : "")
+                        : j % 3 == 1 ? Double.toString(i * 0.25)
+                        : (1 + i % 12) + "/" + (1 + i % 28) + "/2008";
+                appendField(result, field, alwaysQuote);
+            }
+            result.append("\r\n");
+        }
+        return result.toString();
+    }
+
+    private static void appendField(StringBuilder result, String field, boolean alwaysQuote) {
+        boolean special = field.indexOf('"') != -1 || field.indexOf('\t') != -1 || field.indexOf('\r') != -1 || field.indexOf('\n') != -1;
+        if (alwaysQuote || special) {
+            result.append('"').append(field.replace("\"", "\"\"")).append('"');
+        } else {
+            result.append(field);
+        }
+    }
+
+    // mimics the resident host output, flushed per row or per block
+    static String frame(String content, boolean perRow) throws IOException {
+        StringWriter result = new StringWriter();
+        try (Writer chunks = TabDataFrames.newChunkedWriter(result)) {
+            int start = 0;
+            while (start < content.length()) {
+                int end = perRow
+                        ? content.indexOf("\r\n", start) + 2
+                        : Math.min(content.length(), start + BLOCK_SIZE);
+                chunks.write(content, start, end - start);
+                start = end;
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Locale;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Converts the text samples into the binary format, as the scripts would
+ * write them. Run {@link #main(String[])} from the module directory to
+ * regenerate the binary samples.
+ * <p>
+ * The samples are written by this Java encoder, not by the BinaryRowWriter
+ * of the scripts, so they only test the reader against this specification
+ * of the format: the PowerShell writer itself is untested.
+ *
+ * @author Philippe Charles
+ */
+final class BinarySamples {
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get("src/test/resources/internal/sql/lhod");
+        for (Resources.Sample sample : Resources.Sample.values()) {
+            Path file = dir.resolve(sample.getResourceName().replace(".tsv", ".bin"));
+            Files.write(file, encode(sample.getContent()));
+            System.out.println(file);
+        }
+    }
+
+    static byte[] encode(String content) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        Output output = new Output(result);
+        result.write(TabDataBinaryReader.MAGIC);
+        result.write(TabDataBinaryReader.VERSION);
+        try (TabDataReader reader = TabDataReader.of(new StringReader(content))) {
+            output.writeByte(TabDataBinaryReader.HEADER);
+            output.writeInt32(reader.getColumns().size());
+            for (TabDataColumn column : reader.getColumns()) {
+                output.writeString(column.getName());
+                output.writeInt32(column.getType());
+            }
+            while (reader.readNextRow()) {
+                output.writeByte(TabDataBinaryReader.ROW);
+                for (int i = 0; i < reader.getColumns().size(); i++) {
+                    writeValue(output, reader.getColumns().get(i).getType(), reader.get(i));
+                }
+            }
+            output.writeByte(TabDataBinaryReader.END);
+        } catch (TabDataRemoteError ex) {
+            output.writeByte(TabDataBinaryReader.ERROR);
+            output.writeInt32(ex.getNumber());
+            output.writeString(ex.getMessage());
+        }
+        return result.toByteArray();
+    }
+
+    private static void writeValue(Output output, int adoType, String text) throws IOException {
+        if (text.isEmpty()) {
+            output.writeByte(TabDataBinaryReader.NULL);
+            return;
+        }
+        switch (adoType) {
+            case 2: case 3: case 16: case 17: case 18: case 19: case 20: case 21:
+                output.writeByte(TabDataBinaryReader.INT64);
+                output.writeInt64(Long.parseLong(text));
+                break;
+            case 4: case 5:
+                output.writeByte(TabDataBinaryReader.DOUBLE);
+                output.writeInt64(Double.doubleToLongBits(Double.parseDouble(text)));
+                break;
+            case 6: case 14: case 131:
+                output.writeByte(TabDataBinaryReader.DECIMAL);
+                output.writeString(text);
+                break;
+            case 11:
+                output.writeByte(TabDataBinaryReader.BOOLEAN);
+                output.writeByte(Boolean.parseBoolean(text) ? 1 : 0);
+                break;
+            case 7: case 133: case 135:
+                output.writeByte(TabDataBinaryReader.DATETIME);
+                output.writeInt64(toTicks(text));
+                break;
+            default:
+                output.writeByte(TabDataBinaryReader.STRING);
+                output.writeString(text);
+                break;
+        }
+    }
+
+    private static long toTicks(String text) throws IOException {
+        try {
+            Date date = new SimpleDateFormat(text.indexOf(' ') != -1 ? "M/d/yyyy H:mm:ss" : "M/d/yyyy", Locale.ROOT).parse(text);
+            LocalDateTime local = LocalDateTime.ofInstant(Instant.ofEpochMilli(date.getTime()), ZoneId.systemDefault());
+            return (local.toEpochSecond(ZoneOffset.UTC) - TabDataBinaryReader.EPOCH_SECONDS_AT_TICK_ZERO) * TabDataBinaryReader.TICKS_PER_SECOND;
+        } catch (ParseException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class Output {
+
+        private final OutputStream stream;
+
+        void writeByte(int value) throws IOException {
+            stream.write(value);
+        }
+
+        void writeInt32(int value) throws IOException {
+            for (int i = 0; i < 4; i++) {
+                stream.write(value >>> (8 * i));
+            }
+        }
+
+        void writeInt64(long value) throws IOException {
+            for (int i = 0; i < 8; i++) {
+                stream.write((int) (value >>> (8 * i)));
+            }
+        }
+
+        void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(UTF_8);
+            int length = bytes.length;
+            while (length >= 0x80) {
+                stream.write(length | 0x80);
+                length >>>= 7;
+            }
+            stream.write(length);
+            stream.write(bytes);
+        }
+    }
+}
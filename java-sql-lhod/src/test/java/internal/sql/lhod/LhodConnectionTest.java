@@ -119,6 +119,24 @@ public class LhodConnectionTest {
         }
     }
 
+    @Test
+    public void testSession() throws SQLException, IOException {
+        try (Resources.FakeExecutor resource = Resources.goodExecutor()) {
+            try (LhodConnection conn = of(resource, CONN_STRING)) {
+                assertThat(resource.sessions)
+                        .as("Session must be opened lazily")
+                        .isEmpty();
+                conn.getCatalog();
+                assertThat(resource.sessions)
+                        .as("Session must be opened on first query")
+                        .containsExactly(CONN_STRING);
+            }
+            assertThat(resource.sessions)
+                    .as("Session must be closed with the connection")
+                    .isEmpty();
+        }
+    }
+
     @Test
     public void testGetMetaData() throws SQLException {
         testCloseException("getMetaData", LhodConnection::getMetaData);
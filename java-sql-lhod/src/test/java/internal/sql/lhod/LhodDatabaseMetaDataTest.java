@@ -22,8 +22,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static _test.SQLExceptions.*;
@@ -156,6 +160,86 @@ public class LhodDatabaseMetaDataTest {
         }
     }
 
+    @Test
+    public void testGetTablesWithProperties() throws SQLException, IOException {
+        List<TabDataQuery> queries = new ArrayList<>();
+        Resources.FakeExecutor executor = new Resources.FakeExecutor(query -> {
+            queries.add(query);
+            return Resources.GOOD_QUERIES.get(query);
+        });
+
+        try (LhodConnection conn = LhodConnection.of(executor, CONN_STRING)) {
+            of(conn).getTables(null, null, null, null).close();
+            assertThat(conn.getProperty(LhodConnection.DynamicProperty.CURRENT_CATALOG))
+                    .isEqualTo("C:\\Temp\\Top5-Table.mdb");
+            of(conn).getTables(null, null, null, null).close();
+        }
+
+        assertThat(queries)
+                .as("Properties are loaded along with the first tables")
+                .containsExactly(Resources.GOOD_PROPERTIES_QUERY, Resources.GOOD_SCHEMA_QUERY, Resources.GOOD_SCHEMA_QUERY);
+    }
+
+    @Test
+    public void testGetTablesWithColumns() throws SQLException, IOException {
+        List<String> columns = Arrays.asList("TABLE_CATALOG", "TABLE_SCHEMA", "TABLE_NAME", "TABLE_TYPE");
+        List<TabDataQuery> queries = new ArrayList<>();
+        Resources.FakeExecutor executor = new Resources.FakeExecutor(query -> {
+            queries.add(query);
+            return query.getProcedure().equals("OpenSchema")
+                    ? Resources.Sample.TOP5_SCHEMA_TABLES.getContent()
+                    : Resources.GOOD_QUERIES.get(query);
+        });
+
+        try (LhodConnection conn = LhodConnection.of(executor, CONN_STRING, LhodOptions.builder().tableColumns(columns).build())) {
+            try (ResultSet rs = of(conn).getTables(null, null, null, new String[]{"TABLE", "TABLE"})) {
+                assertThat(rs.getMetaData().getColumnCount()).isEqualTo(4);
+                assertThat(rs.getMetaData().getColumnName(4)).isEqualTo("TABLE_TYPE");
+                int count = 0;
+                while (rs.next()) {
+                    count++;
+                }
+                assertThat(count).isEqualTo(3);
+            }
+        }
+
+        assertThat(queries)
+                .filteredOn(query -> query.getProcedure().equals("OpenSchema"))
+                .singleElement()
+                .extracting(TabDataQuery::getParameters)
+                .asList()
+                .containsExactly(CONN_STRING, "", "", "", "TABLE_CATALOG,TABLE_SCHEMA,TABLE_NAME,TABLE_TYPE", "TABLE");
+
+        assertThat(Resources.Sample.TOP5_SCHEMA.getContent().getBytes(StandardCharsets.UTF_8)).hasSize(992);
+        assertThat(Resources.Sample.TOP5_SCHEMA_TABLES.getContent().getBytes(StandardCharsets.UTF_8))
+                .as("The unused columns and the other types are not sent")
+                .hasSize(179);
+    }
+
+    @Test
+    public void testGetTablesWithTypesInAnyOrder() throws SQLException, IOException {
+        List<TabDataQuery> queries = new ArrayList<>();
+        Resources.FakeExecutor executor = new Resources.FakeExecutor(query -> {
+            queries.add(query);
+            return query.getProcedure().equals("OpenSchema")
+                    ? Resources.Sample.TOP5_SCHEMA.getContent()
+                    : Resources.GOOD_QUERIES.get(query);
+        });
+
+        try (LhodConnection conn = LhodConnection.of(executor, CONN_STRING, LhodOptions.builder().metaDataCache(MetaDataCache.builder().build()).build())) {
+            of(conn).getTables(null, null, null, new String[]{"TABLE", "VIEW"}).close();
+            of(conn).getTables(null, null, null, new String[]{"VIEW", "TABLE", "VIEW"}).close();
+        }
+
+        assertThat(queries)
+                .as("Types in another order must hit the same cache entry")
+                .filteredOn(query -> query.getProcedure().equals("OpenSchema"))
+                .singleElement()
+                .extracting(TabDataQuery::getParameters)
+                .asList()
+                .containsExactly(CONN_STRING, "", "", "", "", "TABLE", "VIEW");
+    }
+
     @Test
     public void testGetConnection() throws SQLException {
         testCloseException("getConnection", LhodDatabaseMetaData::getConnection);
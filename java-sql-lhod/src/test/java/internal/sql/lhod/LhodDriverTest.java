@@ -22,6 +22,7 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -53,6 +54,23 @@ public class LhodDriverTest {
         }).doesNotThrowAnyException();
     }
 
+    @Test
+    public void testOptions() throws SQLException {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> LhodOptions.builder().prefetch(-1).build());
+
+        assertThat(LhodOptions.DEFAULT)
+                .extracting(LhodOptions::getPrefetch, LhodOptions::getMetaDataCache, LhodOptions::getPropertiesCache, LhodOptions::getTableColumns)
+                .containsExactly(0, null, null, Collections.emptyList());
+
+        LhodOptions options = LhodOptions.builder().prefetch(2).tableColumns(Collections.singletonList("TABLE_NAME")).build();
+        try (Connection conn = new LhodDriver(goodEngine, options).connect("jdbc:lhod:hello", null)) {
+            assertThat(((LhodConnection) conn).getOptions())
+                    .as("Options must be passed to connections")
+                    .isSameAs(options);
+        }
+    }
+
     @Test
     public void testAcceptsURL() throws SQLException {
         LhodDriver x = new LhodDriver(goodEngine);
@@ -22,8 +22,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.stream.Stream;
 
 import static _test.SQLExceptions.*;
@@ -93,12 +98,90 @@ public class LhodPreparedStatementTest {
             stmt.setString(1, "first");
             stmt.setString(2, "second");
             assertThat(stmt.getParameterList())
-                    .containsExactly("first", "second");
+                    .containsExactly("200:first", "200:second");
 
             stmt.setString(2, "other");
             assertThat(stmt.getParameterList())
-                    .containsExactly("first", "other");
+                    .containsExactly("200:first", "200:other");
+
+            stmt.setString(2, null);
+            assertThat(stmt.getParameterList())
+                    .containsExactly("200:first", "200");
+        }
+    }
+
+    @Test
+    public void testTypedSetters() throws SQLException {
+        try (LhodPreparedStatement stmt = LhodPreparedStatement.of(good, SQL_PREP_STMT_QUERY)) {
+            stmt.setInt(1, -42);
+            stmt.setLong(2, 1234567890123L);
+            stmt.setDouble(3, 3.5);
+            stmt.setBoolean(4, true);
+            stmt.setBigDecimal(5, new BigDecimal("1E-3"));
+            stmt.setDate(6, Date.valueOf("2024-02-29"));
+            stmt.setTimestamp(7, Timestamp.valueOf("2024-02-29 13:14:15.123"));
+            stmt.setNull(8, Types.INTEGER);
+            stmt.setNull(9, Types.VARCHAR);
+            assertThat(stmt.getParameterList())
+                    .containsExactly(
+                            "3:-42",
+                            "20:1234567890123",
+                            "5:3.5",
+                            "11:1",
+                            "131:0.001",
+                            "7:2024-02-29 00:00:00.000",
+                            "7:2024-02-29 13:14:15.123",
+                            "3",
+                            "200"
+                    );
+
+            stmt.clearParameters();
+            assertThat(stmt.getParameterList()).isEmpty();
+        }
+    }
+
+    @Test
+    public void testExecuteBatch() throws SQLException {
+        testCloseException("executeBatch", LhodPreparedStatement::executeBatch);
+
+        try (LhodPreparedStatement stmt = LhodPreparedStatement.of(good, SQL_PREP_STMT_QUERY)) {
+            assertThat(stmt.executeBatch()).isEmpty();
+            assertThat(stmt.getResultSet()).isNull();
+
+            stmt.setString(1, "Firefox");
+            stmt.addBatch();
+            stmt.addBatch();
+            assertThat(stmt.executeBatch())
+                    .containsExactly(Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO);
+
+            assertThat(countRows(stmt.getResultSet())).isEqualTo(55);
+            assertThat(stmt.getMoreResults()).isTrue();
+            assertThat(countRows(stmt.getResultSet())).isEqualTo(55);
+            assertThat(stmt.getMoreResults()).isFalse();
+            assertThat(stmt.getResultSet()).isNull();
+
+            assertThat(stmt.executeBatch())
+                    .as("Batch must be cleared after execution")
+                    .isEmpty();
+        }
+
+        try (LhodPreparedStatement stmt = LhodPreparedStatement.of(err, SQL_PREP_STMT_QUERY)) {
+            stmt.setString(1, "Firefox");
+            stmt.addBatch();
+            assertThatSQLException()
+                    .isThrownBy(stmt::executeBatch)
+                    .withMessageContaining("name not found");
+        }
+    }
+
+    private static int countRows(ResultSet rs) throws SQLException {
+        int result = 0;
+        try (ResultSet closeable = rs) {
+            while (closeable.next()) {
+                result++;
+            }
         }
+        return result;
     }
 
     @Test
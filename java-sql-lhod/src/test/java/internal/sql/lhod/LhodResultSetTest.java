@@ -21,7 +21,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Date;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 
 import static _test.SQLExceptions.assertThatSQLException;
 import static _test.SQLExceptions.withoutErrorCode;
@@ -114,6 +117,23 @@ public class LhodResultSetTest {
         }
     }
 
+    @Test
+    public void testGetters() throws IOException, SQLException {
+        try (LhodResultSet rs = LhodResultSet.of(TabDataReader.of(new StringReader("A\tB\tC\r\n200\t5\t7\r\n\"1,234.5\"\t7/1/2008 13:45:00\tx\r\n")))) {
+            assertThat(rs.next()).isTrue();
+            assertThat(rs.getDouble(1)).isEqualTo(1234.5);
+            assertThat(rs.getFloat(1)).isEqualTo(1234.5f);
+            assertThat(rs.getLong(1)).isEqualTo(1234L);
+            assertThat(rs.getInt(1)).isEqualTo(1234);
+            assertThat(rs.getShort(1)).isEqualTo((short) 1234);
+            assertThat(rs.getString(1)).isEqualTo("1,234.5");
+            assertThat(rs.getDate(2)).hasSameTimeAs(Date.valueOf("2008-07-01"));
+            assertThat(rs.getTimestamp(2)).isEqualTo(Timestamp.valueOf("2008-07-01 13:45:00"));
+            assertThatSQLException().isThrownBy(() -> rs.getInt(3));
+            assertThatSQLException().isThrownBy(() -> rs.getDate(3));
+        }
+    }
+
     @Test
     public void testGetMetaData() throws IOException {
         testCloseException("getMetaData", LhodResultSet::getMetaData);
@@ -24,12 +24,17 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static _test.SQLExceptions.*;
 import static internal.sql.lhod.Resources.CONN_STRING;
 import static internal.sql.lhod.Resources.SQL_STMT_QUERY;
 import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 
 ;
 
@@ -92,6 +97,222 @@ public class LhodStatementTest {
         }
     }
 
+    @Test
+    public void testExecute() throws SQLException {
+        testAllExceptions("execute", stmt -> stmt.execute(SQL_STMT_QUERY + "; " + SQL_STMT_QUERY));
+
+        try (LhodStatement stmt = LhodStatement.of(good)) {
+            assertThat(stmt.execute(SQL_STMT_QUERY)).isTrue();
+            assertThat(countRows(stmt.getResultSet())).isEqualTo(330);
+            assertThat(stmt.getUpdateCount()).isEqualTo(-1);
+            assertThat(stmt.getMoreResults()).isFalse();
+            assertThat(stmt.getResultSet()).isNull();
+
+            assertThat(stmt.execute(SQL_STMT_QUERY + ";\r\n" + SQL_STMT_QUERY + ";")).isTrue();
+            ResultSet first = stmt.getResultSet();
+            assertThat(countRows(first)).isEqualTo(330);
+            assertThat(stmt.getMoreResults()).isTrue();
+            assertThat(first.isClosed()).isTrue();
+            assertThat(countRows(stmt.getResultSet())).isEqualTo(330);
+            assertThat(stmt.getMoreResults()).isFalse();
+            assertThat(stmt.getResultSet()).isNull();
+            assertThat(stmt.getUpdateCount()).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    public void testSplitStatements() {
+        assertThat(LhodStatement.splitStatements("")).isEmpty();
+        assertThat(LhodStatement.splitStatements(" ; ;")).isEmpty();
+        assertThat(LhodStatement.splitStatements("select 1")).containsExactly("select 1");
+        assertThat(LhodStatement.splitStatements("select 1; select 2;")).containsExactly("select 1", "select 2");
+        assertThat(LhodStatement.splitStatements("select ';' from [a;b]; select \"x;y\""))
+                .containsExactly("select ';' from [a;b]", "select \"x;y\"");
+        assertThat(LhodStatement.splitStatements("select 1 -- one; two\nfrom t; select 2"))
+                .containsExactly("select 1 -- one; two\nfrom t", "select 2");
+        assertThat(LhodStatement.splitStatements("select 1; -- done;"))
+                .containsExactly("select 1");
+        assertThat(LhodStatement.splitStatements("select /* a; 'b */ 1; /* c; */ ; select 2 /* d;"))
+                .containsExactly("select /* a; 'b */ 1", "select 2 /* d;");
+        assertThat(LhodStatement.splitStatements("select '--;' , '/*;' ; select 2"))
+                .containsExactly("select '--;' , '/*;'", "select 2");
+    }
+
+    @Test
+    public void testFetchSize() throws SQLException, IOException {
+        testCloseException("getFetchSize", LhodStatement::getFetchSize);
+
+        try (LhodStatement stmt = LhodStatement.of(good)) {
+            assertThat(stmt.getFetchSize()).isZero();
+            stmt.setFetchSize(7);
+            assertThat(stmt.getFetchSize()).isEqualTo(7);
+            assertThatSQLException().isThrownBy(() -> stmt.setFetchSize(-1));
+        }
+
+        try (LhodConnection prefetched = LhodConnection.of(Resources.goodExecutor(), CONN_STRING, LhodOptions.builder().prefetch(2).build());
+             LhodStatement stmt = LhodStatement.of(prefetched)) {
+            stmt.setFetchSize(7);
+            try (ResultSet rs = stmt.executeQuery(SQL_STMT_QUERY)) {
+                int index = 0;
+                while (rs.next()) {
+                    if (index++ == 329) {
+                        assertThat(rs.getString(3)).isEqualTo("10/1/2011");
+                    }
+                }
+                assertThat(index).isEqualTo(330);
+            }
+        }
+
+        List<TabDataQuery> queries = new ArrayList<>();
+        TabDataExecutor binary = new TabDataExecutor() {
+            @Override
+            public TabDataReader exec(TabDataQuery query) throws IOException {
+                queries.add(query);
+                return TabDataReader.ofBinary(Resources.Sample.TOP5_STMT.newBinaryStream());
+            }
+
+            @Override
+            public boolean isClosed() {
+                return false;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        try (LhodConnection plain = LhodConnection.of(binary, CONN_STRING);
+             LhodConnection prefetched = LhodConnection.of(binary, CONN_STRING, LhodOptions.builder().prefetch(2).build())) {
+            assertThat(readAll(prefetched.exec(Resources.GOOD_STMT_QUERY, 7)))
+                    .as("Binary rows must be prefetched too")
+                    .hasSize(330)
+                    .isEqualTo(readAll(plain.exec(Resources.GOOD_STMT_QUERY, 7)));
+            assertThat(queries.get(0).getCancellation())
+                    .as("Prefetched queries must be cancellable so that closing them early aborts them")
+                    .isNotNull();
+        }
+    }
+
+    private static List<List<String>> readAll(TabDataReader reader) throws IOException {
+        try (TabDataReader closeable = reader) {
+            List<List<String>> result = new ArrayList<>();
+            while (closeable.readNextRow()) {
+                List<String> row = new ArrayList<>();
+                for (int i = 0; i < closeable.getColumns().size(); i++) {
+                    row.add(closeable.get(i));
+                }
+                result.add(row);
+            }
+            return result;
+        }
+    }
+
+    @Test
+    public void testLimits() throws SQLException {
+        testCloseException("getMaxRows", LhodStatement::getMaxRows);
+        testCloseException("getQueryTimeout", LhodStatement::getQueryTimeout);
+
+        List<TabDataQuery> queries = new ArrayList<>();
+        Resources.FakeExecutor executor = new Resources.FakeExecutor(query -> {
+            queries.add(query);
+            return Resources.Sample.TOP5_STMT.getContent();
+        });
+
+        try (LhodConnection conn = LhodConnection.of(executor, CONN_STRING);
+             LhodStatement stmt = LhodStatement.of(conn)) {
+            assertThat(stmt.getMaxRows()).isZero();
+            assertThat(stmt.getQueryTimeout()).isZero();
+            assertThatSQLException().isThrownBy(() -> stmt.setMaxRows(-1));
+            assertThatSQLException().isThrownBy(() -> stmt.setQueryTimeout(-1));
+
+            stmt.setMaxRows(10);
+            stmt.setQueryTimeout(5);
+            try (ResultSet rs = stmt.executeQuery(SQL_STMT_QUERY)) {
+                int index = 0;
+                while (rs.next()) {
+                    index++;
+                }
+                assertThat(index)
+                        .as("Max rows must be enforced even if the procedure ignores it")
+                        .isEqualTo(10);
+            }
+            assertThat(queries)
+                    .singleElement()
+                    .returns(10, TabDataQuery::getMaxRows)
+                    .returns(5, TabDataQuery::getTimeout);
+        }
+
+        LhodConnection timedOut = LhodConnection.of(new Resources.FailingExecutor(() -> new TabDataTimeoutError(5), Resources.CloseIOException::new), CONN_STRING);
+        assertThatExceptionOfType(SQLTimeoutException.class)
+                .isThrownBy(() -> LhodStatement.of(timedOut).executeQuery(SQL_STMT_QUERY))
+                .withMessageContaining("5 seconds");
+    }
+
+    @Test
+    public void testCancel() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            try (LhodConnection conn = LhodConnection.of(new Resources.StandInExecutor(StandInHost.SILENT_MODE), CONN_STRING);
+                 LhodStatement stmt = LhodStatement.of(conn)) {
+                assertThatCode(stmt::cancel)
+                        .as("Cancel without execution must do nothing")
+                        .doesNotThrowAnyException();
+
+                Thread canceller = new Thread(() -> {
+                    try {
+                        Thread.sleep(200);
+                        stmt.cancel();
+                    } catch (InterruptedException | SQLException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                });
+                canceller.start();
+                assertThatSQLException()
+                        .isThrownBy(() -> stmt.executeQuery(SQL_STMT_QUERY))
+                        .withMessageContaining("cancelled")
+                        .satisfies(ex -> assertThat(ex.getSQLState()).isEqualTo(LhodResultSet.CANCELLED_STATE));
+                canceller.join();
+            }
+        });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            try (LhodConnection conn = LhodConnection.of(new Resources.StandInExecutor(StandInHost.ENDLESS_MODE), CONN_STRING);
+                 LhodStatement stmt = LhodStatement.of(conn);
+                 ResultSet rs = stmt.executeQuery(SQL_STMT_QUERY)) {
+                assertThat(rs.next()).isTrue();
+                stmt.cancel();
+                assertThatSQLException()
+                        .isThrownBy(() -> {
+                            // rows already in the buffers may still be returned
+                            while (rs.next()) {
+                            }
+                        })
+                        .satisfies(ex -> assertThat(ex.getSQLState()).isEqualTo(LhodResultSet.CANCELLED_STATE));
+            }
+        });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            try (LhodConnection conn = LhodConnection.of(Resources.residentExecutor(), CONN_STRING);
+                 LhodStatement stmt = LhodStatement.of(conn);
+                 ResultSet rs = stmt.executeQuery(StandInHost.STALL_SQL)) {
+                List<SQLException> errors = new ArrayList<>();
+                Thread reader = new Thread(() -> {
+                    try {
+                        rs.next();
+                    } catch (SQLException ex) {
+                        errors.add(ex);
+                    }
+                });
+                reader.start();
+                Thread.sleep(200);
+                assertTimeoutPreemptively(Duration.ofSeconds(5), stmt::cancel,
+                        "Cancel must not wait for the executor busy with a blocked read");
+                reader.join();
+                assertThat(errors)
+                        .singleElement()
+                        .satisfies(ex -> assertThat(ex.getSQLState()).isEqualTo(LhodResultSet.CANCELLED_STATE));
+            }
+        });
+    }
+
     @Test
     public void testIsClosed() throws SQLException {
         try (LhodStatement closeable = LhodStatement.of(good)) {
@@ -132,6 +353,14 @@ public class LhodStatementTest {
         assertThat(LhodStatement.of(good).getConnection()).isEqualTo(good);
     }
 
+    private static int countRows(ResultSet rs) throws SQLException {
+        int result = 0;
+        while (rs.next()) {
+            result++;
+        }
+        return result;
+    }
+
     private void testCloseException(String methodName, SqlFunc<LhodStatement, ?> method) {
         assertThatSQLException()
                 .as("%s must throw SQLException if called on a closed connection", methodName)
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static _test.TabConditions.rowCount;
+import static internal.sql.lhod.Resources.*;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * @author Philippe Charles
+ */
+public class MetaDataCacheTest {
+
+    @Test
+    @SuppressWarnings("null")
+    public void testBuilder() {
+        assertThatNullPointerException()
+                .isThrownBy(() -> MetaDataCache.builder().ttl(null).build());
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> MetaDataCache.builder().maxSize(0).build());
+    }
+
+    @Test
+    public void testTtl() throws IOException {
+        AtomicLong clock = new AtomicLong();
+        AtomicInteger loads = new AtomicInteger();
+        MetaDataCache x = MetaDataCache.builder().ttl(Duration.ofNanos(10)).clock(clock::get).build();
+
+        assertThat(x.get(keyOf(CONN_STRING), () -> load(loads)).newReader()).has(rowCount(2));
+        assertThat(x.get(keyOf(CONN_STRING), () -> load(loads)).newReader()).has(rowCount(2));
+        assertThat(loads).hasValue(1);
+        assertThat(x.getMetrics()).isEqualTo(new MetaDataCache.Metrics(1, 1, 1));
+
+        clock.set(10);
+        x.get(keyOf(CONN_STRING), () -> load(loads));
+        assertThat(loads).hasValue(2);
+        assertThat(x.getMetrics()).isEqualTo(new MetaDataCache.Metrics(1, 2, 1));
+
+        x.clear();
+        assertThat(x.getMetrics()).isEqualTo(new MetaDataCache.Metrics(1, 2, 0));
+    }
+
+    @Test
+    public void testMaxSize() throws IOException {
+        AtomicInteger loads = new AtomicInteger();
+        MetaDataCache x = MetaDataCache.builder().maxSize(2).build();
+
+        x.get(keyOf("a"), () -> load(loads));
+        x.get(keyOf("b"), () -> load(loads));
+        x.get(keyOf("a"), () -> load(loads));
+        x.get(keyOf("c"), () -> load(loads));
+        assertThat(loads).hasValue(3);
+        assertThat(x.getMetrics().getSize()).isEqualTo(2);
+
+        x.get(keyOf("a"), () -> load(loads));
+        assertThat(loads).hasValue(3);
+
+        x.get(keyOf("b"), () -> load(loads));
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    public void testModificationTime(@TempDir Path folder) throws IOException {
+        Path file = Files.createFile(folder.resolve("Top5.xlsx"));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000));
+        String connectionString = "Provider=Microsoft.ACE.OLEDB.12.0;Data Source=\"" + file + "\";Extended Properties=\"Excel 12.0;HDR=YES\"";
+
+        AtomicInteger loads = new AtomicInteger();
+        MetaDataCache x = MetaDataCache.builder().build();
+
+        x.get(keyOf(connectionString), () -> load(loads));
+        x.get(keyOf(connectionString), () -> load(loads));
+        assertThat(loads).hasValue(1);
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(2_000_000));
+        x.get(keyOf(connectionString), () -> load(loads));
+        assertThat(loads).hasValue(2);
+
+        Files.delete(file);
+        x.get(keyOf(connectionString), () -> load(loads));
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    public void testLoadFailure() throws IOException {
+        MetaDataCache x = MetaDataCache.builder().build();
+
+        assertThatExceptionOfType(ExecIOException.class)
+                .isThrownBy(() -> x.get(keyOf(CONN_STRING), () -> {
+                    throw new ExecIOException();
+                }));
+        assertThat(x.getMetrics()).isEqualTo(new MetaDataCache.Metrics(0, 1, 0));
+    }
+
+    @Test
+    public void testGetDataFile(@TempDir Path folder) throws IOException {
+        Path file = Files.createFile(folder.resolve("db.accdb"));
+
+        assertThat(MetaDataCache.getDataFile("Provider=Microsoft.ACE.OLEDB.12.0;Data Source=" + file)).isEqualTo(file);
+        assertThat(MetaDataCache.getDataFile("Provider=Microsoft.ACE.OLEDB.12.0; data source = \"" + file + "\" ;")).isEqualTo(file);
+        assertThat(MetaDataCache.getDataFile("Driver={Microsoft Access Driver (*.mdb, *.accdb)};DBQ=" + file)).isEqualTo(file);
+        assertThat(MetaDataCache.getDataFile("Provider=SQLOLEDB;Data Source=" + folder)).isNull();
+        assertThat(MetaDataCache.getDataFile("Provider=SQLOLEDB;Data Source=myServer;Initial Catalog=myDb")).isNull();
+        assertThat(MetaDataCache.getDataFile(CONN_STRING)).isNull();
+    }
+
+    @Test
+    public void testSharedAcrossConnections() throws SQLException {
+        AtomicInteger loads = new AtomicInteger();
+        FakeExecutor executor = new FakeExecutor(query -> {
+            if (query.getProcedure().equals("OpenSchema")) {
+                loads.incrementAndGet();
+            }
+            return GOOD_QUERIES.get(query);
+        });
+        MetaDataCache x = MetaDataCache.builder().build();
+
+        try (LhodConnection first = LhodConnection.of(executor, CONN_STRING, LhodOptions.builder().metaDataCache(x).build())) {
+            assertThat(countTables(first)).isEqualTo(15);
+            assertThat(countTables(first)).isEqualTo(15);
+        }
+        try (LhodConnection second = LhodConnection.of(new FakeExecutor(GOOD_QUERIES::get), CONN_STRING, LhodOptions.builder().metaDataCache(x).build())) {
+            assertThat(countTables(second)).isEqualTo(15);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(x.getMetrics()).isEqualTo(new MetaDataCache.Metrics(2, 1, 1));
+    }
+
+    private static int countTables(LhodConnection conn) throws SQLException {
+        int result = 0;
+        try (ResultSet rs = conn.getMetaData().getTables(null, "%", "%", null)) {
+            while (rs.next()) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private static MetaDataCache.Key keyOf(String connectionString) {
+        return new MetaDataCache.Key(connectionString, "", "", "", Collections.emptyList(), Collections.emptyList());
+    }
+
+    private static TabDataReader load(AtomicInteger loads) throws IOException {
+        loads.incrementAndGet();
+        return TabDataReader.of(new BufferedReader(new StringReader("TABLE_NAME\r\n202\r\nfirst\r\nsecond\r\n")));
+    }
+}
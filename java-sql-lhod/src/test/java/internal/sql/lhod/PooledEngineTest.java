@@ -0,0 +1,232 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static _test.TabConditions.rowCount;
+import static internal.sql.lhod.Resources.*;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * @author Philippe Charles
+ */
+public class PooledEngineTest {
+
+    @Test
+    @SuppressWarnings("null")
+    public void testBuilder() {
+        assertThatNullPointerException()
+                .isThrownBy(() -> PooledEngine.builder().build());
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> PooledEngine.builder().engine(new FakeEngine(Resources::goodExecutor)).maxSize(0).build());
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> PooledEngine.builder().engine(new FakeEngine(Resources::goodExecutor)).evictionPeriod(Duration.ofSeconds(-1)).build());
+    }
+
+    @Test
+    public void testReuse() throws IOException {
+        FakeEngine engine = new FakeEngine(Resources::goodExecutor);
+        try (PooledEngine x = PooledEngine.builder().engine(engine).maxSize(2).build()) {
+            assertThat(x.getId()).isEqualTo("fake");
+
+            TabDataExecutor first = x.getExecutor();
+            try (TabDataReader reader = first.exec(GOOD_STMT_QUERY)) {
+                assertThat(reader).has(rowCount(330));
+            }
+            assertThat(x.getMetrics()).extracting("active", "idle").containsExactly(1, 0);
+
+            first.close();
+            assertThat(first.isClosed()).isTrue();
+            assertThatIOException().isThrownBy(() -> first.exec(GOOD_STMT_QUERY));
+            assertThatCode(first::close).doesNotThrowAnyException();
+            assertThat(x.getMetrics()).extracting("active", "idle").containsExactly(0, 1);
+
+            try (TabDataExecutor second = x.getExecutor()) {
+                assertThat(second.isClosed()).isFalse();
+            }
+            assertThat(engine.executors)
+                    .as("Idle executor must be reused")
+                    .hasSize(1);
+            assertThat(x.getMetrics().getBorrowCount()).isEqualTo(2);
+        }
+        assertThat(engine.executors.get(0).isClosed())
+                .as("Idle executors must be closed with the pool")
+                .isTrue();
+    }
+
+    @Test
+    public void testBoundedSize() throws Exception {
+        FakeEngine engine = new FakeEngine(Resources::goodExecutor);
+        try (PooledEngine x = PooledEngine.builder().engine(engine).maxSize(1).maxWait(Duration.ZERO).build()) {
+            try (TabDataExecutor ignore = x.getExecutor()) {
+                assertThatIOException()
+                        .isThrownBy(x::getExecutor)
+                        .withMessageContaining("Timeout");
+            }
+        }
+
+        try (PooledEngine x = PooledEngine.builder().engine(engine).maxSize(1).maxWait(Duration.ofSeconds(10)).build()) {
+            ExecutorService pool = Executors.newSingleThreadExecutor();
+            try {
+                CountDownLatch waiting = new CountDownLatch(1);
+                TabDataExecutor first = x.getExecutor();
+                Future<Boolean> second = pool.submit(() -> {
+                    waiting.countDown();
+                    try (TabDataExecutor executor = x.getExecutor()) {
+                        return executor.isClosed();
+                    }
+                });
+                waiting.await();
+                Thread.sleep(50);
+                first.close();
+                assertThat(second.get()).isFalse();
+            } finally {
+                pool.shutdown();
+            }
+            assertThat(x.getMetrics().getMaxWaitTime()).isGreaterThan(Duration.ZERO);
+            assertThat(x.getMetrics().getTotalWaitTime()).isGreaterThanOrEqualTo(x.getMetrics().getMaxWaitTime());
+        }
+    }
+
+    @Test
+    public void testHealthCheck() throws IOException {
+        FakeEngine engine = new FakeEngine(Resources::goodExecutor);
+        try (PooledEngine x = PooledEngine.builder().engine(engine).build()) {
+            TabDataExecutor first = x.getExecutor();
+            engine.executors.get(0).close();
+            assertThat(first.isClosed()).isTrue();
+            first.close();
+            assertThat(x.getMetrics()).extracting("active", "idle").containsExactly(0, 0);
+
+            x.getExecutor().close();
+            engine.executors.get(1).close();
+            try (TabDataExecutor ignore = x.getExecutor()) {
+                assertThat(engine.executors)
+                        .as("Closed executors must not be lent")
+                        .hasSize(3);
+            }
+        }
+
+        try (PooledEngine x = PooledEngine.builder().engine(new FailingEngine(ExecIOException::new)).maxSize(1).maxWait(Duration.ZERO).build()) {
+            assertThatIOException().isThrownBy(x::getExecutor).isInstanceOf(ExecIOException.class);
+            assertThatIOException()
+                    .as("Failed creation must release its slot")
+                    .isThrownBy(x::getExecutor).isInstanceOf(ExecIOException.class);
+        }
+    }
+
+    @Test
+    public void testIdleEviction() throws IOException {
+        AtomicLong clock = new AtomicLong();
+        FakeEngine engine = new FakeEngine(Resources::goodExecutor);
+        try (PooledEngine x = PooledEngine.builder().engine(engine).idleTimeout(Duration.ofNanos(100)).clock(clock::get).build()) {
+            x.getExecutor().close();
+            clock.addAndGet(99);
+            x.getExecutor().close();
+            assertThat(engine.executors).hasSize(1);
+
+            clock.addAndGet(100);
+            x.getExecutor().close();
+            assertThat(engine.executors).hasSize(2);
+            assertThat(engine.executors.get(0).isClosed())
+                    .as("Expired executor must be closed")
+                    .isTrue();
+        }
+    }
+
+    @Test
+    public void testIdleEvictionWithoutBorrow() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        FakeEngine engine = new FakeEngine(Resources::goodExecutor);
+        try (PooledEngine x = PooledEngine.builder().engine(engine).maxSize(2).idleTimeout(Duration.ofNanos(100)).evictionPeriod(Duration.ZERO).clock(clock::get).build()) {
+            TabDataExecutor first = x.getExecutor();
+            TabDataExecutor second = x.getExecutor();
+            first.close();
+
+            clock.addAndGet(100);
+            second.close();
+            assertThat(engine.executors.get(0).isClosed())
+                    .as("Expired executor must be closed when another one is returned")
+                    .isTrue();
+            assertThat(x.getMetrics()).extracting("active", "idle").containsExactly(0, 1);
+
+            clock.addAndGet(100);
+            x.evict();
+            assertThat(engine.executors.get(1).isClosed())
+                    .as("Expired executor must be closed by eviction")
+                    .isTrue();
+            assertThat(x.getMetrics()).extracting("active", "idle").containsExactly(0, 0);
+        }
+
+        engine.executors.clear();
+        try (PooledEngine x = PooledEngine.builder().engine(engine).idleTimeout(Duration.ofNanos(100)).evictionPeriod(Duration.ofMillis(10)).clock(clock::get).build()) {
+            x.getExecutor().close();
+            clock.addAndGet(100);
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (!engine.executors.get(0).isClosed() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(engine.executors.get(0).isClosed())
+                    .as("Expired executor must be closed by the reaper without a later borrow")
+                    .isTrue();
+            assertThat(x.getMetrics().getIdle()).isZero();
+        }
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        FakeEngine engine = new FakeEngine(Resources::goodExecutor);
+        PooledEngine x = PooledEngine.builder().engine(engine).build();
+        TabDataExecutor borrowed = x.getExecutor();
+        x.close();
+        assertThatCode(x::close).doesNotThrowAnyException();
+        assertThatIOException().isThrownBy(x::getExecutor).withMessageContaining("closed");
+
+        borrowed.close();
+        assertThat(engine.executors.get(0).isClosed())
+                .as("Executor returned to a closed pool must be closed")
+                .isTrue();
+    }
+
+    @Test
+    public void testDriver() throws SQLException, IOException {
+        FakeEngine engine = new FakeEngine(Resources::goodExecutor);
+        try (PooledEngine pool = PooledEngine.builder().engine(engine).build()) {
+            LhodDriver driver = new LhodDriver(pool);
+            for (int i = 0; i < 3; i++) {
+                try (Connection conn = driver.connect(LhodDriver.PREFIX + CONN_STRING, null)) {
+                    assertThat(conn.getCatalog()).isEqualTo("C:\\Temp\\Top5-Table.mdb");
+                }
+            }
+            assertThat(engine.executors).hasSize(1);
+            assertThat(pool.getMetrics()).extracting("active", "idle", "borrowCount").containsExactly(0, 1, 3L);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static internal.sql.lhod.Resources.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * @author Philippe Charles
+ */
+public class PropertiesCacheTest {
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        PropertiesCache x = PropertiesCache.builder().build();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Map<String, String>>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(pool.submit(() -> x.get(CONN_STRING, () -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException ex) {
+                        throw new InterruptedIOException();
+                    }
+                    return Collections.singletonMap("Current Catalog", "Top5");
+                })));
+            }
+            while (x.getMetrics().getHitCount() + x.getMetrics().getMissCount() < 4) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+            for (Future<Map<String, String>> result : results) {
+                assertThat(result.get()).containsEntry("Current Catalog", "Top5");
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(x.getMetrics()).isEqualTo(new PropertiesCache.Metrics(3, 1, 1));
+    }
+
+    @Test
+    public void testLoadFailure() throws IOException {
+        PropertiesCache x = PropertiesCache.builder().build();
+
+        assertThatExceptionOfType(ExecIOException.class)
+                .isThrownBy(() -> x.get(CONN_STRING, () -> {
+                    throw new ExecIOException();
+                }));
+        assertThat(x.getMetrics().getSize()).isZero();
+
+        assertThat(x.get(CONN_STRING, () -> Collections.singletonMap("k", "v")))
+                .containsExactly(entry("k", "v"));
+        assertThat(x.getMetrics()).isEqualTo(new PropertiesCache.Metrics(0, 2, 1));
+    }
+
+    @Test
+    public void testPersistence(@TempDir Path folder) throws IOException {
+        Path file = folder.resolve("cache").resolve("properties.txt");
+        String secret = "Provider=SQLOLEDB;Data Source=myServer;Password=secret";
+
+        PropertiesCache first = PropertiesCache.builder().file(file).build();
+        first.get(secret, () -> Collections.singletonMap("Special Characters", "$#@_"));
+        assertThat(file).exists();
+        assertThat(new String(Files.readAllBytes(file), UTF_8)).doesNotContain("secret");
+        assertThat(file.getParent()).isDirectoryNotContaining("glob:**.tmp");
+
+        PropertiesCache second = PropertiesCache.builder().file(file).build();
+        assertThat(second.get(secret, () -> {
+            throw new ExecIOException();
+        })).containsExactly(entry("Special Characters", "$#@_"));
+        assertThat(second.getMetrics()).isEqualTo(new PropertiesCache.Metrics(1, 0, 1));
+
+        second.clear();
+        assertThat(PropertiesCache.builder().file(file).build().getMetrics().getSize()).isZero();
+    }
+
+    @Test
+    public void testSharedFile(@TempDir Path folder) throws IOException {
+        Path file = folder.resolve("properties.txt");
+
+        PropertiesCache first = PropertiesCache.builder().file(file).build();
+        PropertiesCache second = PropertiesCache.builder().file(file).build();
+        first.get("first", () -> Collections.singletonMap("k", "1"));
+        second.get("second", () -> Collections.singletonMap("k", "2"));
+        first.get("third", () -> Collections.singletonMap("k", "3"));
+
+        PropertiesCache x = PropertiesCache.builder().file(file).build();
+        assertThat(x.getMetrics().getSize())
+                .as("The entries of the other caches must be kept")
+                .isEqualTo(3);
+        assertThat(x.get("second", () -> {
+            throw new ExecIOException();
+        })).containsExactly(entry("k", "2"));
+
+        first.clear();
+        assertThat(PropertiesCache.builder().file(file).build().getMetrics().getSize()).isZero();
+    }
+
+    @Test
+    public void testInvalidFile(@TempDir Path folder) throws IOException {
+        Path file = Files.createDirectory(folder.resolve("properties.txt"));
+
+        PropertiesCache x = PropertiesCache.builder().file(file).build();
+        assertThat(x.get(CONN_STRING, () -> Collections.singletonMap("k", "v")))
+                .containsExactly(entry("k", "v"));
+    }
+
+    @Test
+    public void testSharedAcrossConnections() throws SQLException {
+        AtomicInteger loads = new AtomicInteger();
+        PropertiesCache x = PropertiesCache.builder().build();
+
+        for (int i = 0; i < 3; i++) {
+            FakeExecutor executor = new FakeExecutor(query -> {
+                if (query.getProcedure().equals("DbProperties")) {
+                    loads.incrementAndGet();
+                }
+                return GOOD_QUERIES.get(query);
+            });
+            try (LhodConnection conn = LhodConnection.of(executor, CONN_STRING, LhodOptions.builder().propertiesCache(x).build())) {
+                assertThat(conn.getCatalog()).isEqualTo("C:\\Temp\\Top5-Table.mdb");
+                assertThat(conn.getMetaData().storesMixedCaseIdentifiers()).isFalse();
+            }
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(x.getMetrics()).isEqualTo(new PropertiesCache.Metrics(2, 1, 1));
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import nbbrd.io.function.IOUnaryOperator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static _test.TabConditions.rowCount;
+import static internal.sql.lhod.Resources.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * @author Philippe Charles
+ */
+public class ResidentExecutorTest {
+
+    @Test
+    @SuppressWarnings("null")
+    public void testFactory() {
+        assertThatNullPointerException()
+                .isThrownBy(() -> ResidentExecutor.of(null, IOUnaryOperator.identity()));
+
+        assertThatNullPointerException()
+                .isThrownBy(() -> ResidentExecutor.of(StandInHost::launch, null));
+    }
+
+    @Test
+    public void testExec() throws IOException {
+        try (ResidentExecutor x = residentExecutor()) {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> x.exec(null));
+
+            try (TabDataReader reader = x.exec(GOOD_STMT_QUERY)) {
+                assertThat(reader.getColumns()).hasSize(4);
+                assertThat(reader).has(rowCount(330));
+            }
+
+            assertThatIOException()
+                    .isThrownBy(() -> x.exec(TabDataQuery.builder().procedure("Unknown").build()))
+                    .isInstanceOf(TabDataRemoteError.class)
+                    .withMessageContaining("name not found");
+
+            assertThat(countRequests(x))
+                    .as("Host must be reused across queries")
+                    .isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void testTimings() throws IOException {
+        try (ResidentExecutor x = residentExecutor()) {
+            try (TabDataReader reader = x.exec(GOOD_STMT_QUERY)) {
+                assertThat(reader.getTimings())
+                        .as("Timings must be reported at the end of the response")
+                        .isNull();
+                assertThat(reader).has(rowCount(330));
+                assertThat(reader.getTimings())
+                        .isNotNull()
+                        .satisfies(timings -> {
+                            assertThat(timings.getStartup()).as("Host is started by the first query").isPositive();
+                            assertThat(timings.getParse()).isEqualTo(Duration.ofMillis(1));
+                            assertThat(timings.getConnect()).isEqualTo(Duration.ofMillis(2));
+                            assertThat(timings.getExecute()).isEqualTo(Duration.ofMillis(3));
+                            assertThat(timings.getStream()).isEqualTo(Duration.ofMillis(4));
+                        });
+            }
+
+            TabDataReader first = x.exec(GOOD_STMT_QUERY);
+            try (TabDataReader second = x.exec(GOOD_STMT_QUERY)) {
+                assertThat(first.getTimings())
+                        .as("Timings must be kept when the response is detached")
+                        .isNotNull()
+                        .extracting(TabDataTimings::getStartup)
+                        .isEqualTo(Duration.ZERO);
+                assertThat(second).has(rowCount(330));
+            } finally {
+                first.close();
+            }
+        }
+    }
+
+    @Test
+    public void testTimeout() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            try (ResidentExecutor x = residentExecutor()) {
+                TabDataQuery stall = TabDataQuery.builder().procedure(StandInHost.STALL_PROCEDURE).timeout(1).build();
+                try (TabDataReader reader = x.exec(stall)) {
+                    assertThatIOException()
+                            .isThrownBy(reader::readNextRow)
+                            .isInstanceOf(TabDataTimeoutError.class);
+                }
+
+                try (TabDataReader reader = x.exec(GOOD_STMT_QUERY.toBuilder().timeout(60).build())) {
+                    assertThat(reader)
+                            .as("Host must be restarted after a timeout")
+                            .has(rowCount(330));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testCancel() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            try (ResidentExecutor x = residentExecutor()) {
+                TabDataCancellation cancellation = new TabDataCancellation();
+                try (TabDataReader reader = x.exec(TabDataQuery.builder().procedure(StandInHost.STALL_PROCEDURE).cancellation(cancellation).build())) {
+                    cancellation.cancel();
+                    assertThatIOException()
+                            .isThrownBy(reader::readNextRow)
+                            .isInstanceOf(TabDataCancelError.class);
+                }
+
+                try (TabDataReader reader = x.exec(GOOD_STMT_QUERY)) {
+                    assertThat(reader)
+                            .as("Host must be restarted after a cancel")
+                            .has(rowCount(330));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testEarlyClose() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            try (ResidentExecutor x = residentExecutor()) {
+                try (TabDataReader reader = x.exec(GOOD_STMT_QUERY)) {
+                    assertThat(reader.readNextRow()).isTrue();
+                }
+                assertThat(countRequests(x))
+                        .as("Host must be kept when the rest of a response is small")
+                        .isEqualTo(2);
+
+                TabDataReader stalled = x.exec(TabDataQuery.builder().procedure(StandInHost.STALL_PROCEDURE).build());
+                assertThatCode(stalled::close)
+                        .as("Closing must abort a response that does not end")
+                        .doesNotThrowAnyException();
+
+                try (TabDataReader reader = x.exec(GOOD_STMT_QUERY)) {
+                    assertThat(reader)
+                            .as("Host must be restarted after an early close")
+                            .has(rowCount(330));
+                }
+                assertThat(countRequests(x)).isEqualTo(2);
+            }
+        });
+    }
+
+    @Test
+    public void testInterleavedReaders() throws IOException {
+        try (ResidentExecutor x = residentExecutor()) {
+            try (TabDataReader first = x.exec(GOOD_STMT_QUERY)) {
+                for (int i = 0; i < 10; i++) {
+                    assertThat(first.readNextRow()).isTrue();
+                }
+                try (TabDataReader second = x.exec(GOOD_PREP_STMT_QUERY)) {
+                    assertThat(second).has(rowCount(55));
+                }
+                assertThat(first).has(rowCount(320));
+            }
+
+            try (TabDataReader ignore = x.exec(GOOD_STMT_QUERY)) {
+                // closed without reading
+            }
+            assertThat(countRequests(x)).isEqualTo(4);
+        }
+    }
+
+    @Test
+    public void testLargeInterleavedReaders() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            try (ResidentExecutor x = residentExecutor()) {
+                try (TabDataReader first = x.exec(TabDataQuery.builder().procedure(StandInHost.LARGE_PROCEDURE).build())) {
+                    assertThat(first.readNextRow()).isTrue();
+                    try (TabDataReader second = x.exec(GOOD_STMT_QUERY)) {
+                        assertThat(second)
+                                .as("Host must be restarted when the rest of a response is too large to be kept")
+                                .has(rowCount(330));
+                    }
+                    assertThatIOException()
+                            .isThrownBy(() -> {
+                                while (first.readNextRow()) {
+                                }
+                            })
+                            .withMessageContaining("exceeds");
+                }
+                assertThat(countRequests(x)).isEqualTo(2);
+            }
+        });
+    }
+
+    @Test
+    public void testSession() throws IOException {
+        try (ResidentExecutor x = residentExecutor()) {
+            x.openSession(CONN_STRING);
+            x.openSession(CONN_STRING);
+            assertThat(countSessions(x)).isEqualTo(1);
+
+            try (TabDataReader reader = x.exec(GOOD_STMT_QUERY)) {
+                assertThat(reader).has(rowCount(330));
+            }
+            assertThat(countSessions(x)).isEqualTo(1);
+
+            x.closeSession(CONN_STRING);
+            assertThat(countSessions(x)).isEqualTo(0);
+
+            assertThatIOException()
+                    .isThrownBy(() -> x.openSession(StandInHost.BAD_CONN_STRING))
+                    .isInstanceOf(TabDataRemoteError.class)
+                    .withMessageContaining("name not found");
+            assertThat(countSessions(x)).isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        ResidentExecutor x = residentExecutor();
+        assertThat(x.isClosed()).isFalse();
+        x.exec(GOOD_STMT_QUERY);
+        x.close();
+        assertThat(x.isClosed()).isTrue();
+        assertThatCode(x::close).doesNotThrowAnyException();
+        assertThatIOException()
+                .isThrownBy(() -> x.exec(GOOD_STMT_QUERY))
+                .withMessageContaining("closed");
+    }
+
+    @Test
+    public void testConnection() throws SQLException {
+        try (LhodConnection conn = LhodConnection.of(residentExecutor(), CONN_STRING)) {
+            assertThat(conn.getCatalog()).isEqualTo("C:\\Temp\\Top5-Table.mdb");
+            try (Statement stmt = conn.createStatement()) {
+                try (ResultSet rs = stmt.executeQuery(SQL_STMT_QUERY)) {
+                    int count = 0;
+                    while (rs.next()) {
+                        count++;
+                    }
+                    assertThat(count).isEqualTo(330);
+                }
+            }
+        }
+    }
+
+    private static int countRequests(TabDataExecutor executor) throws IOException {
+        return count(executor, StandInHost.COUNT_PROCEDURE);
+    }
+
+    private static int countSessions(TabDataExecutor executor) throws IOException {
+        return count(executor, StandInHost.SESSIONS_PROCEDURE);
+    }
+
+    private static int count(TabDataExecutor executor, String procedure) throws IOException {
+        try (TabDataReader reader = executor.exec(TabDataQuery.builder().procedure(procedure).build())) {
+            assertThat(reader.readNextRow()).isTrue();
+            return Integer.parseInt(reader.get(0));
+        }
+    }
+}
@@ -17,16 +17,23 @@
 package internal.sql.lhod;
 
 import lombok.NonNull;
+import nbbrd.io.function.IOUnaryOperator;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -54,6 +61,27 @@ class Resources {
         }
     }
 
+    @lombok.RequiredArgsConstructor
+    static final class FakeEngine implements TabDataEngine {
+
+        @lombok.NonNull
+        private final Supplier<? extends TabDataExecutor> onGetExecutor;
+
+        final List<TabDataExecutor> executors = new ArrayList<>();
+
+        @Override
+        public @NonNull String getId() {
+            return "fake";
+        }
+
+        @Override
+        public synchronized @NonNull TabDataExecutor getExecutor() throws IOException {
+            TabDataExecutor result = onGetExecutor.get();
+            executors.add(result);
+            return result;
+        }
+    }
+
     @lombok.RequiredArgsConstructor
     static final class FailingExecutor implements TabDataExecutor {
 
@@ -87,6 +115,8 @@ class Resources {
 
         private boolean closed = false;
 
+        final Set<String> sessions = new HashSet<>();
+
         @Override
         public @NonNull TabDataReader exec(@NonNull TabDataQuery query) throws IOException {
             if (closed) {
@@ -101,6 +131,16 @@ class Resources {
             return TabDataReader.of(new BufferedReader(new StringReader(content)));
         }
 
+        @Override
+        public void openSession(@NonNull String connectionString) throws IOException {
+            sessions.add(connectionString);
+        }
+
+        @Override
+        public void closeSession(@NonNull String connectionString) throws IOException {
+            sessions.remove(connectionString);
+        }
+
         @Override
         public void close() throws IOException {
             closed = true;
@@ -112,6 +152,32 @@ class Resources {
         }
     }
 
+    // runs every query in a stand-in process
+    @lombok.RequiredArgsConstructor
+    static final class StandInExecutor implements TabDataExecutor {
+
+        @lombok.NonNull
+        private final String mode;
+
+        private boolean closed = false;
+
+        @Override
+        public @NonNull TabDataReader exec(@NonNull TabDataQuery query) throws IOException {
+            InputStream output = TabDataProcesses.start(StandInHost.builder(mode), query);
+            return TabDataReader.of(new BufferedReader(new InputStreamReader(output, StandardCharsets.UTF_8)));
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+    }
+
     static final String CONN_STRING = "Top5";
 
     static final String SQL_STMT_QUERY = "select * from Top5";
@@ -131,6 +197,7 @@ class Resources {
             .parameter("")
             .parameter("")
             .parameter("")
+            .parameter("")
             .build();
 
     static final TabDataQuery GOOD_STMT_QUERY = TabDataQuery
@@ -145,7 +212,7 @@ class Resources {
             .procedure("PreparedStatement")
             .parameter(CONN_STRING)
             .parameter(SQL_PREP_STMT_QUERY)
-            .parameter("Firefox")
+            .parameter("200:Firefox")
             .build();
 
     static final Map<TabDataQuery, String> GOOD_QUERIES = loadGoodQueries();
@@ -175,6 +242,10 @@ class Resources {
         return new FakeExecutor(query -> Sample.MYDB_ERR.getContent());
     }
 
+    static ResidentExecutor residentExecutor() {
+        return ResidentExecutor.of(StandInHost::launch, IOUnaryOperator.identity());
+    }
+
     static TabDataExecutor closedExecutor() {
         FakeExecutor result = new FakeExecutor(query -> "");
         try {
@@ -194,14 +265,19 @@ class Resources {
     enum Sample {
         TOP5_PROPS("Top5Props.tsv"),
         TOP5_SCHEMA("Top5Schema.tsv"),
+        TOP5_SCHEMA_TABLES("Top5SchemaTables.tsv"),
         TOP5_STMT("Top5Stmt.tsv"),
         TOP5_PREP_STMT("Top5PrepStmt.tsv"),
         MYDB_ERR("MyDbErr.tsv");
 
+        @lombok.Getter
+        private final String resourceName;
+
         @lombok.Getter
         private final String content;
 
         Sample(String resourceName) {
+            this.resourceName = resourceName;
             this.content = load(resourceName);
         }
 
@@ -209,6 +285,14 @@ class Resources {
             return new BufferedReader(new StringReader(content));
         }
 
+        public InputStream newBinaryStream() throws IOException {
+            InputStream result = Resources.class.getResourceAsStream(resourceName.replace(".tsv", ".bin"));
+            if (result == null) {
+                throw new FileNotFoundException(resourceName);
+            }
+            return new BufferedInputStream(result);
+        }
+
         private static String load(String resourceName) {
             try (BufferedReader reader = new BufferedReader(new InputStreamReader(Resources.class.getResourceAsStream(resourceName), StandardCharsets.UTF_8))) {
                 return reader.lines().collect(Collectors.joining("\r\n"));
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A stand-in for the resident script host that speaks the same framing and
+ * replies with recorded samples.
+ *
+ * @author Philippe Charles
+ */
+final class StandInHost {
+
+    static final String COUNT_PROCEDURE = "Count";
+
+    static final String SESSIONS_PROCEDURE = "Sessions";
+
+    static final String STALL_PROCEDURE = "Stall";
+
+    /**
+     * Procedure whose response exceeds {@link ResidentExecutor#DETACH_LIMIT}.
+     */
+    static final String LARGE_PROCEDURE = "Large";
+
+    static final int LARGE_ROW_COUNT = 200_000;
+
+    /**
+     * Statement that behaves like {@link #STALL_PROCEDURE}.
+     */
+    static final String STALL_SQL = "select * from Stall";
+
+    static final String BAD_CONN_STRING = "Bad connection string";
+
+    /**
+     * Timings reported for every procedure: 1, 2, 3 and 4 milliseconds.
+     */
+    static final String TIMINGS_RECORD = "T1000,2000,3000,4000\n";
+
+    /**
+     * Standalone mode that writes rows without end.
+     */
+    static final String ENDLESS_MODE = "endless";
+
+    /**
+     * Standalone mode that writes the headers and then hangs.
+     */
+    static final String STALL_MODE = "stall";
+
+    /**
+     * Standalone mode that hangs before writing anything.
+     */
+    static final String SILENT_MODE = "silent";
+
+    /**
+     * Standalone mode that reads arguments on its input and writes them as rows.
+     */
+    static final String ECHO_MODE = "echo";
+
+    /**
+     * Standalone mode that writes an error and exits with a non-zero code.
+     */
+    static final String FAIL_MODE = "fail";
+
+    static Process launch() throws IOException {
+        return builder().start();
+    }
+
+    static ProcessBuilder builder(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StandInHost.class.getName());
+        command.addAll(Arrays.asList(args));
+        return new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0) {
+            standalone(args[0]);
+            return;
+        }
+        Reader input = new BufferedReader(new InputStreamReader(System.in, UTF_8));
+        Writer output = new BufferedWriter(new OutputStreamWriter(System.out, UTF_8));
+        Set<String> sessions = new HashSet<>();
+        int count = 0;
+        TabDataQuery query;
+        while ((query = TabDataFrames.readQuery(input)) != null) {
+            count++;
+            if (query.getProcedure().equals(STALL_PROCEDURE) || query.getParameters().contains(STALL_SQL)) {
+                Writer response = TabDataFrames.newChunkedWriter(output);
+                response.write("Stall\r\n3\r\n");
+                response.flush();
+                Thread.sleep(Long.MAX_VALUE);
+            }
+            try (Writer response = TabDataFrames.newChunkedWriter(output)) {
+                response.write(reply(query, count, sessions));
+                if (!isControl(query)) {
+                    output.write(TIMINGS_RECORD);
+                }
+            }
+        }
+    }
+
+    private static void standalone(String mode) throws IOException, InterruptedException {
+        if (mode.equals(SILENT_MODE)) {
+            Thread.sleep(Long.MAX_VALUE);
+        }
+        if (mode.equals(FAIL_MODE)) {
+            System.err.println("Script not found");
+            System.exit(2);
+        }
+        Writer output = new BufferedWriter(new OutputStreamWriter(System.out, UTF_8));
+        output.write("Value\r\n3\r\n");
+        output.flush();
+        switch (mode) {
+            case ECHO_MODE:
+                for (String argument : TabDataFrames.readArguments(new BufferedReader(new InputStreamReader(System.in, UTF_8)))) {
+                    output.write("\"" + argument.replace("\"", "\"\"") + "\"\r\n");
+                }
+                output.flush();
+                return;
+            case ENDLESS_MODE:
+                for (long i = 0; ; i++) {
+                    output.write(i + "\r\n");
+                }
+            case STALL_MODE:
+                Thread.sleep(Long.MAX_VALUE);
+        }
+    }
+
+    private static boolean isControl(TabDataQuery query) {
+        return query.getProcedure().equals(TabDataFrames.OPEN_SESSION) || query.getProcedure().equals(TabDataFrames.CLOSE_SESSION);
+    }
+
+    private static String reply(TabDataQuery query, int count, Set<String> sessions) {
+        switch (query.getProcedure()) {
+            case COUNT_PROCEDURE:
+                return "Count\r\n3\r\n\"" + count + "\"\r\n";
+            case LARGE_PROCEDURE:
+                StringBuilder rows = new StringBuilder("Large\r\n3\r\n");
+                for (int i = 0; i < LARGE_ROW_COUNT; i++) {
+                    rows.append('"').append(i).append("\"\r\n");
+                }
+                return rows.toString();
+            case SESSIONS_PROCEDURE:
+                return "Sessions\r\n3\r\n\"" + sessions.size() + "\"\r\n";
+            case TabDataFrames.OPEN_SESSION:
+                if (query.getParameters().get(0).equals(BAD_CONN_STRING)) {
+                    return Resources.Sample.MYDB_ERR.getContent();
+                }
+                sessions.add(query.getParameters().get(0));
+                return "";
+            case TabDataFrames.CLOSE_SESSION:
+                sessions.remove(query.getParameters().get(0));
+                return "";
+        }
+        String result = Resources.GOOD_QUERIES.get(query.toBuilder().maxRows(0).timeout(0).build());
+        return result != null ? result : Resources.Sample.MYDB_ERR.getContent();
+    }
+}
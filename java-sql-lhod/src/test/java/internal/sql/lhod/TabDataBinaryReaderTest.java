@@ -0,0 +1,198 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+import static _test.SQLExceptions.assertThatSQLException;
+import static _test.TabConditions.rowCount;
+import static internal.sql.lhod.Resources.Sample.*;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * @author Philippe Charles
+ */
+public class TabDataBinaryReaderTest {
+
+    @Test
+    public void testFactory() {
+        assertThatNullPointerException()
+                .isThrownBy(() -> TabDataReader.ofBinary(null));
+
+        assertThatIOException()
+                .isThrownBy(() -> TabDataReader.ofBinary(MYDB_ERR.newBinaryStream()))
+                .isInstanceOf(TabDataRemoteError.class)
+                .withMessageContaining("Data source name not found")
+                .satisfies(ex -> assertThat(((TabDataRemoteError) ex).getNumber()).isEqualTo(-2147467259));
+
+        assertThatIOException()
+                .isThrownBy(() -> TabDataReader.ofBinary(new ByteArrayInputStream("helloworld".getBytes())))
+                .isInstanceOf(TabDataFormatError.class);
+
+        assertThatIOException()
+                .isThrownBy(() -> TabDataReader.ofBinary(new ByteArrayInputStream(new byte[0])));
+    }
+
+    @Test
+    public void testSamples() throws IOException, ParseException {
+        for (Resources.Sample sample : new Resources.Sample[]{TOP5_PROPS, TOP5_SCHEMA, TOP5_STMT, TOP5_PREP_STMT}) {
+            try (TabDataReader text = TabDataReader.of(sample.newReader());
+                 TabDataReader binary = TabDataReader.ofBinary(sample.newBinaryStream())) {
+                assertThat(binary.getColumns()).isEqualTo(text.getColumns());
+                while (text.readNextRow()) {
+                    assertThat(binary.readNextRow()).isTrue();
+                    for (int i = 0; i < text.getColumns().size(); i++) {
+                        assertSameField(text, binary, i);
+                    }
+                }
+                assertThat(binary.readNextRow()).isFalse();
+                assertThat(binary.readNextRow()).isFalse();
+            }
+        }
+    }
+
+    @Test
+    public void testRowCount() throws IOException {
+        try (TabDataReader reader = TabDataReader.ofBinary(TOP5_STMT.newBinaryStream())) {
+            assertThat(reader).has(rowCount(330));
+        }
+        try (TabDataReader reader = TabDataReader.ofBinary(TOP5_PREP_STMT.newBinaryStream())) {
+            assertThat(reader).has(rowCount(55));
+        }
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        byte[] bytes = readAllBytes(TOP5_STMT.newBinaryStream());
+        try (TabDataReader reader = TabDataReader.ofBinary(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length / 2)))) {
+            assertThatIOException().isThrownBy(() -> {
+                while (reader.readNextRow()) {
+                    // consume
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testResultSet() throws IOException, SQLException {
+        try (ResultSet rs = LhodResultSet.of(TabDataReader.ofBinary(TOP5_STMT.newBinaryStream()))) {
+            assertThat(rs.next()).isTrue();
+            assertThat(rs.getString(1)).isEqualTo("Monthly");
+            assertThat(rs.getTimestamp(3)).isEqualTo(Timestamp.valueOf("2008-07-01 00:00:00"));
+            assertThat(rs.getString(3)).isEqualTo("07/01/2008 00:00:00");
+            assertThat(rs.getDouble(4)).isEqualTo(0);
+            assertThatSQLException().isThrownBy(() -> rs.getDate(4));
+        }
+    }
+
+    @Test
+    public void testParity() throws IOException {
+        String content = String.join("\r\n",
+                "Int\tDbl\tBool\tDate\tDec\tStr",
+                "3\t5\t11\t135\t131\t202",
+                "42\t1.5\tTrue\t07/01/2008 13:45:10\t12.50\tabc",
+                "-7\t1E+20\tFalse\t12/31/1999 00:00:00\t-0.001\t1.5",
+                "\t0.333333333333333\t\t\t\t",
+                "123456789012345678\t-1.5E-07\tTrue\t01/02/2003 04:05:06\t1,234.5\t07/01/2008",
+                "0\t1.23456789012346E+17\tFalse\t02/29/2020 23:59:59\t0\t");
+        try (TabDataReader text = TabDataReader.of(new StringReader(content));
+             TabDataReader binary = TabDataReader.ofBinary(new ByteArrayInputStream(BinarySamples.encode(content)))) {
+            assertThat(binary.getColumns()).isEqualTo(text.getColumns());
+            while (text.readNextRow()) {
+                assertThat(binary.readNextRow()).isTrue();
+                for (int i = 0; i < text.getColumns().size(); i++) {
+                    int index = i;
+                    assertThat(binary.get(i)).isEqualTo(text.get(i));
+                    assertThat(read(() -> binary.getLong(index))).isEqualTo(read(() -> text.getLong(index)));
+                    assertThat(read(() -> binary.getDouble(index))).isEqualTo(read(() -> text.getDouble(index)));
+                    assertThat(read(() -> binary.getDate(index, false))).isEqualTo(read(() -> text.getDate(index, false)));
+                    assertThat(read(() -> binary.getDate(index, true))).isEqualTo(read(() -> text.getDate(index, true)));
+                }
+            }
+            assertThat(binary.readNextRow()).isFalse();
+        }
+    }
+
+    @Test
+    public void testFormatDouble() {
+        assertThat(TabDataBinaryReader.formatDouble(0)).isEqualTo("0");
+        assertThat(TabDataBinaryReader.formatDouble(-0.0)).isEqualTo("0");
+        assertThat(TabDataBinaryReader.formatDouble(42)).isEqualTo("42");
+        assertThat(TabDataBinaryReader.formatDouble(-1.5)).isEqualTo("-1.5");
+        assertThat(TabDataBinaryReader.formatDouble(0.1)).isEqualTo("0.1");
+        assertThat(TabDataBinaryReader.formatDouble(1.0 / 3)).isEqualTo("0.333333333333333");
+        assertThat(TabDataBinaryReader.formatDouble(2.0 / 3)).isEqualTo("0.666666666666667");
+        assertThat(TabDataBinaryReader.formatDouble(0.0001)).isEqualTo("0.0001");
+        assertThat(TabDataBinaryReader.formatDouble(0.00001)).isEqualTo("1E-05");
+        assertThat(TabDataBinaryReader.formatDouble(-1.5e-7)).isEqualTo("-1.5E-07");
+        assertThat(TabDataBinaryReader.formatDouble(1e15)).isEqualTo("1E+15");
+        assertThat(TabDataBinaryReader.formatDouble(1e20)).isEqualTo("1E+20");
+        assertThat(TabDataBinaryReader.formatDouble(123456789012345678.0)).isEqualTo("1.23456789012346E+17");
+        assertThat(TabDataBinaryReader.formatDouble(1.7976931348623157e308)).isEqualTo("1.79769313486232E+308");
+        assertThat(TabDataBinaryReader.formatDouble(Double.NaN)).isEqualTo("NaN");
+        assertThat(TabDataBinaryReader.formatDouble(Double.NEGATIVE_INFINITY)).isEqualTo("-Infinity");
+    }
+
+    private static Object read(Callable<?> getter) {
+        try {
+            return getter.call();
+        } catch (Exception ex) {
+            return ex.getClass();
+        }
+    }
+
+    private static void assertSameField(TabDataReader text, TabDataReader binary, int i) throws ParseException {
+        switch (text.getColumns().get(i).getType()) {
+            case 5:
+                assertThat(binary.getDouble(i)).isEqualTo(text.getDouble(i));
+                assertThat(binary.getLong(i)).isEqualTo(text.getLong(i));
+                break;
+            case 135:
+                assertThat(binary.getDate(i, false)).isEqualTo(text.getDate(i, false));
+                assertThat(binary.getDate(i, true)).isEqualTo(text.getDate(i, true));
+                break;
+            default:
+                assertThat(binary.get(i)).isEqualTo(text.get(i));
+                assertThat(binary.getChars(i)).hasToString(text.get(i));
+                break;
+        }
+    }
+
+    private static byte[] readAllBytes(InputStream stream) throws IOException {
+        try (InputStream closeable = stream) {
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = closeable.read(buffer)) != -1) {
+                result.write(buffer, 0, n);
+            }
+            return result.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * @author Philippe Charles
+ */
+public class TabDataFramesTest {
+
+    @Test
+    @SuppressWarnings("null")
+    public void testQuery() throws IOException {
+        assertThatNullPointerException().isThrownBy(() -> TabDataFrames.writeQuery(null, Resources.GOOD_STMT_QUERY));
+        assertThatNullPointerException().isThrownBy(() -> TabDataFrames.writeQuery(new StringWriter(), null));
+        assertThatNullPointerException().isThrownBy(() -> TabDataFrames.readQuery(null));
+
+        TabDataQuery query = TabDataQuery
+                .builder()
+                .procedure("PreparedStatement")
+                .parameter("")
+                .parameter("line1\r\nline2\t\"é€\"")
+                .parameter("12")
+                .maxRows(100)
+                .timeout(30)
+                .build();
+
+        StringWriter writer = new StringWriter();
+        TabDataFrames.writeQuery(writer, query);
+        TabDataFrames.writeQuery(writer, Resources.GOOD_PROPERTIES_QUERY);
+
+        Reader reader = new StringReader(writer.toString());
+        assertThat(TabDataFrames.readQuery(reader)).isEqualTo(query);
+        assertThat(TabDataFrames.readQuery(reader)).isEqualTo(Resources.GOOD_PROPERTIES_QUERY);
+        assertThat(TabDataFrames.readQuery(reader)).isNull();
+
+        assertThatIOException()
+                .isThrownBy(() -> TabDataFrames.readQuery(new StringReader("4\n3\nabc")))
+                .isInstanceOf(EOFException.class);
+
+        assertThatIOException()
+                .isThrownBy(() -> TabDataFrames.readQuery(new StringReader("x\n")))
+                .isInstanceOf(TabDataFormatError.class);
+
+        assertThatIOException()
+                .as("Limits are mandatory")
+                .isThrownBy(() -> TabDataFrames.readQuery(new StringReader("1\n3\nabc")))
+                .isInstanceOf(TabDataFormatError.class);
+
+        assertThatIOException()
+                .isThrownBy(() -> TabDataFrames.readQuery(new StringReader("3\n3\nabc1\nx1\n0")))
+                .isInstanceOf(TabDataFormatError.class);
+    }
+
+    @Test
+    public void testArguments() throws IOException {
+        List<String> arguments = Arrays.asList("", "line1\r\nline2\t\"é€\"", "12");
+
+        StringWriter writer = new StringWriter();
+        TabDataFrames.writeArguments(writer, arguments);
+        TabDataFrames.writeArguments(writer, Collections.emptyList());
+        assertThat(writer.toString()).startsWith("3\n0\n").endsWith("2\n120\n");
+
+        Reader reader = new StringReader(writer.toString());
+        assertThat(TabDataFrames.readArguments(reader)).isEqualTo(arguments);
+        assertThat(TabDataFrames.readArguments(reader)).isEmpty();
+
+        assertThatIOException()
+                .as("Arguments are mandatory")
+                .isThrownBy(() -> TabDataFrames.readArguments(reader))
+                .isInstanceOf(EOFException.class);
+
+        assertThatIOException()
+                .isThrownBy(() -> TabDataFrames.readArguments(new StringReader("2\n3\nabc")))
+                .isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    public void testCorruptedLengths() {
+        assertThatIOException()
+                .as("Counts are capped before allocating")
+                .isThrownBy(() -> TabDataFrames.readArguments(new StringReader((TabDataFrames.MAX_LENGTH + 1) + "\n")))
+                .isInstanceOf(TabDataFormatError.class);
+
+        assertThatIOException()
+                .as("Lengths are capped before allocating")
+                .isThrownBy(() -> TabDataFrames.readArguments(new StringReader("1\n999999999\nabc")))
+                .isInstanceOf(TabDataFormatError.class);
+
+        assertThatIOException()
+                .as("Lengths cannot wrap")
+                .isThrownBy(() -> TabDataFrames.readArguments(new StringReader("1\n4294967299\nabc")))
+                .isInstanceOf(TabDataFormatError.class);
+
+        assertThatIOException()
+                .as("Lengths cannot be negative")
+                .isThrownBy(() -> TabDataFrames.readArguments(new StringReader("1\n-3\nabc")))
+                .isInstanceOf(TabDataFormatError.class);
+
+        assertThatIOException()
+                .as("Chunk lengths are capped")
+                .isThrownBy(() -> readAll(TabDataFrames.newChunkedReader(new StringReader("99999999999999999999\nabc"))))
+                .isInstanceOf(TabDataFormatError.class);
+    }
+
+    @Test
+    public void testTimings() throws IOException {
+        Reader response = TabDataFrames.newChunkedReader(new StringReader("5\nhelloT1,20,300,4000\n0\n"));
+        assertThat(TabDataFrames.getTimings(response)).isNull();
+        assertThat(readAll(response)).isEqualTo("hello");
+        assertThat(TabDataFrames.getTimings(response))
+                .isEqualTo(TabDataTimings
+                        .builder()
+                        .parse(Duration.ofNanos(1_000))
+                        .connect(Duration.ofNanos(20_000))
+                        .execute(Duration.ofNanos(300_000))
+                        .stream(Duration.ofNanos(4_000_000))
+                        .build())
+                .extracting(TabDataTimings::getTotal)
+                .isEqualTo(Duration.ofNanos(4_321_000));
+
+        assertThat(TabDataFrames.getTimings(new StringReader("")))
+                .as("Timings are only reported by responses")
+                .isNull();
+
+        assertThatIOException()
+                .isThrownBy(() -> readAll(TabDataFrames.newChunkedReader(new StringReader("T1,2\n0\n"))))
+                .isInstanceOf(TabDataFormatError.class);
+
+        assertThatIOException()
+                .isThrownBy(() -> readAll(TabDataFrames.newChunkedReader(new StringReader("T1,2,x,4\n0\n"))))
+                .isInstanceOf(TabDataFormatError.class);
+
+        assertThatIOException()
+                .isThrownBy(() -> readAll(TabDataFrames.newChunkedReader(new StringReader("T1,2,3,4"))))
+                .isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    public void testChunks() throws IOException {
+        StringWriter output = new StringWriter();
+        try (Writer writer = TabDataFrames.newChunkedWriter(output)) {
+            writer.write("hello");
+            writer.write("");
+            writer.write("\r\nworld");
+        }
+        try (Writer writer = TabDataFrames.newChunkedWriter(output)) {
+            writer.write("other");
+        }
+        assertThat(output.toString()).isEqualTo("5\nhello7\n\r\nworld0\n5\nother0\n");
+
+        Reader input = new StringReader(output.toString());
+        assertThat(readAll(TabDataFrames.newChunkedReader(input))).isEqualTo("hello\r\nworld");
+        assertThat(readAll(TabDataFrames.newChunkedReader(input))).isEqualTo("other");
+
+        assertThatIOException()
+                .isThrownBy(() -> readAll(TabDataFrames.newChunkedReader(new StringReader("5\nhel"))))
+                .isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    public void testChunkedReaderClose() throws IOException {
+        Reader input = new StringReader("5\nhello5\nworld0\n5\nother0\n");
+
+        Reader first = TabDataFrames.newChunkedReader(input);
+        assertThat((char) first.read()).isEqualTo('h');
+        first.close();
+        assertThatIOException().isThrownBy(first::read);
+
+        assertThat(readAll(TabDataFrames.newChunkedReader(input))).isEqualTo("other");
+    }
+
+    private static String readAll(Reader reader) throws IOException {
+        StringWriter result = new StringWriter();
+        char[] buffer = new char[3];
+        int n;
+        while ((n = reader.read(buffer)) != -1) {
+            result.write(buffer, 0, n);
+        }
+        reader.close();
+        return result.toString();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * @author Philippe Charles
+ */
+public class TabDataParserTest {
+
+    private static final Locale EN_US = new Locale("en", "us");
+
+    @Test
+    public void testParseNumber() throws ParseException {
+        TabDataParser x = new TabDataParser();
+        NumberFormat legacy = NumberFormat.getInstance(EN_US);
+        for (String text : new String[]{
+                "0", "-0", "5", "-42", "1,234", "1,234,567.89", "3.14159", "-0.001", "0.1", "100.50",
+                "123456789012345678", "1234567890123456789", "99999999999999999999", "0.12345678901234567890123",
+                "1.5E3", "12abc", "1,,2", "2147483648", "-9.99"}) {
+            assertThat(x.parseDouble(text)).as(text).isEqualTo(legacy.parse(text).doubleValue());
+            assertThat(x.parseLong(text)).as(text).isEqualTo(legacy.parse(text).longValue());
+        }
+        for (String text : new String[]{"", "-", "abc"}) {
+            assertThatExceptionOfType(ParseException.class).isThrownBy(() -> x.parseDouble(text));
+            assertThatExceptionOfType(ParseException.class).isThrownBy(() -> x.parseLong(text));
+        }
+    }
+
+    @Test
+    public void testParseDate() throws ParseException {
+        TabDataParser x = new TabDataParser();
+        SimpleDateFormat legacy = new SimpleDateFormat("MM/dd/yyyy", EN_US);
+        legacy.setLenient(false);
+        for (String text : new String[]{"7/1/2008", "07/01/2008", "12/31/1999", "2/29/2000", "07/01/2008 00:00:00"}) {
+            assertThat(x.parseDate(text, true)).as(text).isEqualTo(legacy.parse(text).getTime());
+        }
+        for (String text : new String[]{"", "2008-07-01", "2/30/2000", "13/1/2008"}) {
+            assertThatExceptionOfType(ParseException.class).isThrownBy(() -> x.parseDate(text, true));
+        }
+
+        assertThat(x.parseDate("7/1/2008 13:45:30", false)).isEqualTo(timeOf(2008, 7, 1, 13, 45, 30));
+        assertThat(x.parseDate("07/01/2008 01:45", false)).isEqualTo(timeOf(2008, 7, 1, 1, 45, 0));
+        assertThat(x.parseDate("7/1/2008 1:45:30 PM", false)).isEqualTo(timeOf(2008, 7, 1, 13, 45, 30));
+        assertThat(x.parseDate("7/1/2008 12:05:00 AM", false)).isEqualTo(timeOf(2008, 7, 1, 0, 5, 0));
+        assertThat(x.parseDate("7/1/2008", false)).isEqualTo(timeOf(2008, 7, 1, 0, 0, 0));
+        assertThat(x.parseDate("7/1/2008 25:00:00", false))
+                .as("Unexpected time must fall back to legacy parser")
+                .isEqualTo(timeOf(2008, 7, 1, 0, 0, 0));
+    }
+
+    private static long timeOf(int year, int month, int day, int hour, int minute, int second) {
+        Calendar result = new GregorianCalendar();
+        result.clear();
+        result.set(year, month - 1, day, hour, minute, second);
+        return result.getTimeInMillis();
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringReader;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * @author Philippe Charles
+ */
+public class TabDataPrefetchReaderTest {
+
+    @Test
+    public void testFactory() {
+        assertThatNullPointerException()
+                .isThrownBy(() -> TabDataPrefetchReader.open(null, 1, 1));
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> TabDataPrefetchReader.open(new CountingReader(0), 0, 1));
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> TabDataPrefetchReader.open(new CountingReader(0), 1, 0));
+    }
+
+    @Test
+    public void testSameRows() throws IOException, ParseException {
+        for (int batchSize : new int[]{1, 2, 3, 1000}) {
+            for (Resources.Sample sample : new Resources.Sample[]{Resources.Sample.TOP5_STMT, Resources.Sample.TOP5_SCHEMA}) {
+                try (TabDataReader expected = TabDataReader.of(sample.newReader());
+                     TabDataReader actual = TabDataPrefetchReader.open(TabDataReader.of(sample.newReader()), batchSize, 2)) {
+                    assertThat(actual.getColumns()).isEqualTo(expected.getColumns());
+                    while (expected.readNextRow()) {
+                        assertThat(actual.readNextRow()).isTrue();
+                        for (int i = 0; i < expected.getColumns().size(); i++) {
+                            assertThat(actual.get(i)).isEqualTo(expected.get(i));
+                            assertThat(actual.getChars(i)).hasToString(expected.get(i));
+                        }
+                    }
+                    assertThat(actual.readNextRow()).isFalse();
+                    assertThat(actual.readNextRow()).isFalse();
+                }
+            }
+        }
+
+        try (TabDataReader reader = TabDataPrefetchReader.open(TabDataReader.of(new StringReader("A\tB\r\n5\t7\r\n1,234.5\t01/02/2020\r\n")), 1, 1)) {
+            assertThat(reader.readNextRow()).isTrue();
+            assertThat(reader.getDouble(0)).isEqualTo(1234.5);
+            assertThat(reader.getLong(0)).isEqualTo(1234);
+            assertThat(reader.getDate(1, true)).isEqualTo(new TabDataParser().parseDate("01/02/2020", true));
+        }
+    }
+
+    @Test
+    public void testBackPressure() throws Exception {
+        CountingReader delegate = new CountingReader(Integer.MAX_VALUE);
+        try (TabDataReader reader = TabDataPrefetchReader.open(delegate, 10, 2)) {
+            assertThat(reader.readNextRow()).isTrue();
+            assertThat(reader.get(0)).isEqualTo("1");
+            Thread.sleep(100);
+            assertThat(delegate.count.get())
+                    .as("The producer must stop when all batches are full")
+                    .isLessThanOrEqualTo(30);
+        }
+        assertThat(delegate.closed).isTrue();
+    }
+
+    @Test
+    public void testRemoteError() throws IOException {
+        String content = "A\tB\r\n200\t200\r\na\tb\r\nc\td\r\n\r\n\"123\"\t\"boom\"\r\n";
+        for (int batchSize : new int[]{1, 2, 3}) {
+            try (TabDataReader reader = TabDataPrefetchReader.open(TabDataReader.of(new StringReader(content)), batchSize, 1)) {
+                assertThat(reader.readNextRow()).isTrue();
+                assertThat(reader.get(0)).isEqualTo("a");
+                assertThat(reader.readNextRow()).isTrue();
+                assertThat(reader.get(0)).isEqualTo("c");
+                assertThatIOException()
+                        .isThrownBy(reader::readNextRow)
+                        .isInstanceOf(TabDataRemoteError.class)
+                        .withMessage("boom");
+            }
+        }
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        CountingReader delegate = new CountingReader(Integer.MAX_VALUE);
+        TabDataReader reader = TabDataPrefetchReader.open(delegate, 5, 1);
+        assertThat(reader.readNextRow()).isTrue();
+        reader.close();
+        assertThat(reader.isClosed()).isTrue();
+        assertThat(delegate.closed).isTrue();
+        assertThatIOException().isThrownBy(reader::readNextRow);
+        reader.close();
+    }
+
+    @Test
+    public void testCloseWhileReadBlocks() throws IOException {
+        BlockingReader delegate = new BlockingReader(false);
+        TabDataReader reader = TabDataPrefetchReader.open(delegate, 5, 1);
+        delegate.awaitRead();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), reader::close, "Closing must not wait for a blocked read");
+        assertThat(delegate.closed).isTrue();
+    }
+
+    @Test
+    public void testCancelWhileReadBlocks() throws IOException {
+        BlockingReader delegate = new BlockingReader(true);
+        TabDataCancellation cancellation = new TabDataCancellation();
+        cancellation.onCancel(delegate::release);
+        TabDataReader reader = TabDataPrefetchReader.open(delegate, 5, 1, cancellation);
+        delegate.awaitRead();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), reader::close, "Closing must abort a blocked read");
+        assertThat(cancellation.isCancelled()).isTrue();
+        assertThat(delegate.closed).isTrue();
+    }
+
+    @Test
+    public void testNoCancelAfterEnd() throws Exception {
+        TabDataCancellation cancellation = new TabDataCancellation();
+        try (TabDataReader reader = TabDataPrefetchReader.open(new CountingReader(3), 5, 1, cancellation)) {
+            while (reader.readNextRow()) {
+                // consume
+            }
+            Thread.sleep(10);
+        }
+        assertThat(cancellation.isCancelled())
+                .as("A query whose rows have all been read must not be cancelled")
+                .isFalse();
+    }
+
+    // a reader whose reads block until it is closed or released
+    private static final class BlockingReader extends TabDataReader {
+
+        // true if closing needs the lock held by a blocked read, like a Reader does
+        private final boolean locked;
+        private final CountDownLatch reading = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private volatile boolean closed = false;
+
+        BlockingReader(boolean locked) {
+            this.locked = locked;
+        }
+
+        void awaitRead() {
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> reading.await());
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        @Override
+        public List<TabDataColumn> getColumns() {
+            return Collections.singletonList(new TabDataColumn("A", 3));
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public boolean readNextRow() throws IOException {
+            if (locked) {
+                synchronized (this) {
+                    return block();
+                }
+            }
+            return block();
+        }
+
+        private boolean block() throws IOException {
+            reading.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException ex) {
+                // interrupts are ignored like in a blocked pipe read
+                Thread.currentThread().interrupt();
+                try {
+                    released.await();
+                } catch (InterruptedException again) {
+                    throw new InterruptedIOException();
+                }
+            }
+            throw new IOException("Source aborted");
+        }
+
+        @Override
+        public String get(int index) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public CharSequence getChars(int index) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public long getLong(int index) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public double getDouble(int index) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public long getDate(int index, boolean ignoreTime) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void close() {
+            if (locked) {
+                synchronized (this) {
+                    closed = true;
+                }
+            } else {
+                closed = true;
+                release();
+            }
+        }
+    }
+
+    private static final class CountingReader extends TabDataReader {
+
+        private final int rowCount;
+        private final AtomicInteger count = new AtomicInteger();
+        private volatile boolean closed = false;
+
+        CountingReader(int rowCount) {
+            this.rowCount = rowCount;
+        }
+
+        @Override
+        public List<TabDataColumn> getColumns() {
+            return Collections.singletonList(new TabDataColumn("A", 3));
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public boolean readNextRow() {
+            if (count.get() == rowCount) {
+                return false;
+            }
+            count.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public String get(int index) {
+            return String.valueOf(count.get());
+        }
+
+        @Override
+        public CharSequence getChars(int index) {
+            return get(index);
+        }
+
+        @Override
+        public long getLong(int index) {
+            return count.get();
+        }
+
+        @Override
+        public double getDouble(int index) {
+            return count.get();
+        }
+
+        @Override
+        public long getDate(int index, boolean ignoreTime) {
+            return count.get();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
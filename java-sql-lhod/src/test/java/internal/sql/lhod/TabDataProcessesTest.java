@@ -0,0 +1,197 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import nbbrd.io.sys.EndOfProcessException;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * @author Philippe Charles
+ */
+public class TabDataProcessesTest {
+
+    @Test
+    public void testPutLimits() {
+        Map<String, String> environment = new HashMap<>();
+        TabDataProcesses.putLimits(environment, TabDataQuery.builder().procedure("P").maxRows(100).timeout(30).build());
+        assertThat(environment)
+                .containsEntry(TabDataProcesses.MAX_ROWS_VARIABLE, "100")
+                .containsEntry(TabDataProcesses.TIMEOUT_VARIABLE, "30");
+    }
+
+    @Test
+    public void testEarlyClose() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            Process process = StandInHost.builder(StandInHost.ENDLESS_MODE).start();
+            TabDataReader reader = TabDataReader.of(newReader(TabDataProcesses.watch(process, query(0, null))));
+            for (int i = 0; i < 10; i++) {
+                assertThat(reader.readNextRow()).isTrue();
+                assertThat(reader.get(0)).isEqualTo(String.valueOf(i));
+            }
+            // an endless output cannot be drained
+            reader.close();
+            assertThat(process.waitFor(10, TimeUnit.SECONDS))
+                    .as("Process must be destroyed on early close")
+                    .isTrue();
+        });
+    }
+
+    @Test
+    public void testCancel() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            Process process = StandInHost.builder(StandInHost.SILENT_MODE).start();
+            TabDataCancellation cancellation = new TabDataCancellation();
+            InputStream output = TabDataProcesses.watch(process, query(0, cancellation));
+            scheduleCancel(cancellation);
+            assertThatIOException()
+                    .as("Cancel must stop a query that has not produced any row yet")
+                    .isThrownBy(() -> TabDataReader.of(newReader(output)))
+                    .isInstanceOf(TabDataCancelError.class);
+            assertThat(process.waitFor(10, TimeUnit.SECONDS)).isTrue();
+            output.close();
+        });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            Process process = StandInHost.builder(StandInHost.STALL_MODE).start();
+            TabDataCancellation cancellation = new TabDataCancellation();
+            try (TabDataReader reader = TabDataReader.of(newReader(TabDataProcesses.watch(process, query(0, cancellation))))) {
+                scheduleCancel(cancellation);
+                assertThatIOException()
+                        .isThrownBy(reader::readNextRow)
+                        .isInstanceOf(TabDataCancelError.class);
+            }
+            assertThat(process.waitFor(10, TimeUnit.SECONDS)).isTrue();
+        });
+
+        TabDataCancellation cancelled = new TabDataCancellation();
+        cancelled.cancel();
+        assertThat(cancelled.isCancelled()).isTrue();
+        AtomicBoolean action = new AtomicBoolean();
+        cancelled.onCancel(() -> action.set(true));
+        assertThat(action)
+                .as("Action registered after cancel must run at once")
+                .isTrue();
+    }
+
+    @Test
+    public void testTimeout() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            try (TabDataReader reader = TabDataReader.of(newReader(TabDataProcesses.start(StandInHost.builder(StandInHost.STALL_MODE), query(1, null))))) {
+                assertThatIOException()
+                        .isThrownBy(reader::readNextRow)
+                        .isInstanceOf(TabDataTimeoutError.class)
+                        .withMessageContaining("1 seconds");
+            }
+        });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            try (TabDataReader reader = TabDataReader.of(newReader(TabDataProcesses.start(StandInHost.builder(StandInHost.ENDLESS_MODE), query(60, null))))) {
+                assertThat(reader.readNextRow())
+                        .as("Timeout must not be triggered before it elapses")
+                        .isTrue();
+            }
+        });
+    }
+
+    @Test
+    public void testInput() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            // far beyond the length of a command line
+            List<String> arguments = new ArrayList<>(Arrays.asList("Provider=Microsoft.ACE.OLEDB.12.0;", "select \"x\"\tfrom\r\ny", ""));
+            for (int i = 0; i < 20_000; i++) {
+                arguments.add("200:value\u20ac" + i);
+            }
+            InputStream output = TabDataProcesses.start(StandInHost.builder(StandInHost.ECHO_MODE), query(0, null),
+                    input -> TabDataFrames.writeArguments(new OutputStreamWriter(input, UTF_8), arguments));
+            List<String> rows = new ArrayList<>();
+            try (TabDataReader reader = TabDataReader.of(newReader(output))) {
+                while (reader.readNextRow()) {
+                    rows.add(reader.get(0));
+                }
+            }
+            assertThat(rows)
+                    .as("Arguments must be sent as is over the standard input")
+                    .isEqualTo(arguments);
+        });
+
+        assertThatIOException()
+                .isThrownBy(() -> TabDataProcesses.start(StandInHost.builder(StandInHost.SILENT_MODE), query(0, null), input -> {
+                    throw new IOException("boom");
+                }))
+                .withMessage("boom");
+    }
+
+    @Test
+    public void testExitValue() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            ProcessBuilder failing = StandInHost.builder(StandInHost.FAIL_MODE).redirectError(ProcessBuilder.Redirect.PIPE);
+            assertThatIOException()
+                    .as("A process that fails must report its exit value and its error stream")
+                    .isThrownBy(() -> TabDataReader.of(newReader(TabDataProcesses.start(failing, query(0, null)))))
+                    .isInstanceOf(EndOfProcessException.class)
+                    .withMessageContaining("2")
+                    .withMessageContaining("Script not found");
+
+            try (TabDataReader reader = TabDataReader.of(newReader(TabDataProcesses.start(StandInHost.builder(StandInHost.ECHO_MODE), query(0, null),
+                    input -> TabDataFrames.writeArguments(new OutputStreamWriter(input, UTF_8), Arrays.asList("a")))))) {
+                assertThat(reader.readNextRow()).isTrue();
+                assertThat(reader.readNextRow())
+                        .as("A process that succeeds must end normally")
+                        .isFalse();
+            }
+        });
+    }
+
+    private static TabDataQuery query(int timeout, TabDataCancellation cancellation) {
+        return TabDataQuery.builder().procedure("P").timeout(timeout).cancellation(cancellation).build();
+    }
+
+    private static void scheduleCancel(TabDataCancellation cancellation) {
+        Thread thread = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            cancellation.cancel();
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static BufferedReader newReader(InputStream stream) {
+        return new BufferedReader(new InputStreamReader(stream, UTF_8));
+    }
+}
@@ -17,7 +17,10 @@
 package internal.sql.lhod;
 
 import static org.assertj.core.api.Assertions.*;
-import org.junit.jupiter.api.Test;;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
 
 /**
  *
@@ -37,4 +40,67 @@ public class TabDataReaderTest {
                 .isThrownBy(() -> TabDataReader.of(Resources.Sample.MYDB_ERR.newReader()))
                 .isInstanceOf(TabDataRemoteError.class);
     }
+
+    @Test
+    public void testReadNextRow() throws IOException {
+        try (TabDataReader reader = TabDataReader.of(new StringReader("A\tB\r\n200\t5\r\nhello\t1.5\r\n\"x\"\"y\"\r\n"))) {
+            assertThat(reader.readNextRow()).isTrue();
+            CharSequence field = reader.getChars(0);
+            assertThat(field).hasToString("hello");
+            assertThat(field.length()).isEqualTo(5);
+            assertThat(field.charAt(1)).isEqualTo('e');
+            assertThat(field.subSequence(1, 3)).hasToString("el");
+            assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> field.charAt(5));
+            assertThat(reader.getChars(1)).hasToString("1.5");
+            assertThat(reader.get(0))
+                    .as("Strings must be materialized once per row")
+                    .isSameAs(reader.get(0));
+
+            assertThat(reader.readNextRow()).isTrue();
+            assertThat(field)
+                    .as("Views must follow the current row")
+                    .hasToString("x\"y");
+            assertThat(reader.get(1))
+                    .as("Missing fields must be empty")
+                    .isEmpty();
+
+            assertThat(reader.readNextRow()).isFalse();
+        }
+
+        try (TabDataReader reader = TabDataReader.of(new StringReader("A\r\n200\r\n1\t2\r\n"))) {
+            assertThatIOException()
+                    .isThrownBy(reader::readNextRow)
+                    .isInstanceOf(TabDataFormatError.class);
+        }
+    }
+
+    @Test
+    public void testTrailingLineSeparator() throws IOException {
+        StringBuilder content = new StringBuilder("A\tB\r\n200\t200\r\n");
+        for (int i = 0; i < 2000; i++) {
+            content.append(i % 2 == 0 ? "ab\tcd\r\n" : "ab\t\"cd\"\r\n");
+        }
+        try (TabDataReader reader = TabDataReader.of(new StringReader(content.toString()))) {
+            int count = 0;
+            while (reader.readNextRow()) {
+                assertThat(reader.get(1)).isEqualTo("cd");
+                count++;
+            }
+            assertThat(count).isEqualTo(2000);
+        }
+    }
+
+    @Test
+    public void testLargeRow() throws IOException {
+        StringBuilder content = new StringBuilder("A\tB\r\n200\t200\r\n");
+        for (int i = 0; i < 1000; i++) {
+            content.append('a');
+        }
+        content.append("\tb\r\n");
+        try (TabDataReader reader = TabDataReader.of(new StringReader(content.toString()))) {
+            assertThat(reader.readNextRow()).isTrue();
+            assertThat(reader.get(0)).hasSize(1000);
+            assertThat(reader.get(1)).isEqualTo("b");
+        }
+    }
 }
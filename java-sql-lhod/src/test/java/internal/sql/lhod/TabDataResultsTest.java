@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.sql.lhod;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static _test.TabConditions.rowCount;
+import static internal.sql.lhod.Resources.*;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * @author Philippe Charles
+ */
+public class TabDataResultsTest {
+
+    @Test
+    @SuppressWarnings("null")
+    public void testFactories() {
+        assertThatNullPointerException().isThrownBy(() -> TabDataResults.ofSections(null, 1));
+        assertThatIllegalArgumentException().isThrownBy(() -> TabDataResults.ofSections(new StringReader(""), 0));
+        assertThatIllegalArgumentException().isThrownBy(() -> TabDataResults.ofSequence(goodExecutor(), Collections.emptyList()));
+    }
+
+    @Test
+    public void testSections() throws IOException {
+        String content = sectionsOf(Sample.TOP5_STMT, Sample.MYDB_ERR, Sample.TOP5_PREP_STMT, Sample.TOP5_PROPS);
+
+        try (TabDataResults x = TabDataResults.ofSections(new StringReader(content), 4)) {
+            assertThat(x.getCount()).isEqualTo(4);
+            assertThat(x.next()).has(rowCount(330));
+            assertThatIOException()
+                    .isThrownBy(x::next)
+                    .isInstanceOf(TabDataRemoteError.class);
+            assertThat(x.next()).has(rowCount(55));
+            assertThat(x.next()).has(rowCount(92));
+            assertThat(x.next()).isNull();
+        }
+    }
+
+    @Test
+    public void testSkippedSections() throws IOException {
+        String content = sectionsOf(Sample.TOP5_STMT, Sample.TOP5_PREP_STMT, Sample.TOP5_PROPS);
+
+        try (TabDataResults x = TabDataResults.ofSections(new StringReader(content), 3)) {
+            TabDataReader first = x.next();
+            assertThat(first.readNextRow()).isTrue();
+            x.next();
+            assertThat(first.isClosed()).isTrue();
+            assertThat(x.next()).has(rowCount(92));
+        }
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        TrackingReader stream = new TrackingReader(sectionsOf(Sample.TOP5_STMT, Sample.TOP5_PREP_STMT));
+
+        TabDataResults x = TabDataResults.ofSections(stream, 2);
+        TabDataReader first = x.next();
+        x.close();
+        assertThat(first.isClosed()).isTrue();
+        assertThat(stream.closed).isTrue();
+        assertThatIOException().isThrownBy(x::next);
+
+        stream = new TrackingReader(sectionsOf(Sample.TOP5_STMT, Sample.TOP5_PREP_STMT));
+        x = TabDataResults.ofSections(stream, 2);
+        x.next();
+        try (TabDataReader last = x.next()) {
+            assertThat(last.readNextRow()).isTrue();
+        }
+        assertThat(stream.closed).as("Last section is not drained").isTrue();
+        assertThat(stream.drained).isFalse();
+    }
+
+    @Test
+    public void testTruncatedSections() throws IOException {
+        try (TabDataResults x = TabDataResults.ofSections(new StringReader(sectionsOf(Sample.TOP5_STMT)), 2)) {
+            assertThat(x.next()).has(rowCount(330));
+            assertThatIOException().isThrownBy(x::next);
+        }
+    }
+
+    @Test
+    public void testSequence() throws IOException {
+        FakeExecutor executor = goodExecutor();
+        try (TabDataResults x = executor.execBatch(Arrays.asList(GOOD_STMT_QUERY, GOOD_SCHEMA_QUERY))) {
+            assertThat(x.getCount()).isEqualTo(2);
+            assertThat(x.next()).has(rowCount(330));
+            assertThat(x.next()).has(rowCount(15));
+            assertThat(x.next()).isNull();
+        }
+
+        try (TabDataResults x = badExecutor().execBatch(Collections.singletonList(GOOD_STMT_QUERY))) {
+            assertThatIOException()
+                    .isThrownBy(x::next)
+                    .isInstanceOf(ExecIOException.class);
+        }
+    }
+
+    private static String sectionsOf(Sample... samples) throws IOException {
+        StringWriter result = new StringWriter();
+        for (Sample sample : samples) {
+            Writer section = TabDataFrames.newChunkedWriter(result);
+            section.write(sample.getContent());
+            section.close();
+        }
+        return result.toString();
+    }
+
+    private static final class TrackingReader extends StringReader {
+
+        boolean closed = false;
+        boolean drained = false;
+
+        TrackingReader(String content) {
+            super(content);
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            int result = super.read(cbuf, off, len);
+            drained |= result == -1;
+            return result;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package internal.sql.lhod.ps;
 import internal.sql.lhod.TabDataColumn;
 import internal.sql.lhod.TabDataQuery;
 import internal.sql.lhod.TabDataReader;
+import internal.sql.lhod.TabDataResults;
 import internal.sys.DefaultResourceExtractor;
 import internal.sys.ResourceExtractor;
 import org.junit.jupiter.api.Test;
@@ -10,6 +11,8 @@ import org.junit.jupiter.api.condition.EnabledOnOs;
 import org.junit.jupiter.api.condition.OS;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.UUID;
 
 import static _test.TabConditions.rowCount;
@@ -71,6 +74,86 @@ class PsExecutorTest {
         }
     }
 
+    @Test
+    public void testEmptyBatch() throws IOException {
+        try (PsExecutor x = new PsExecutor(extractor)) {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> x.execBatch(Collections.emptyList()))
+                    .withMessage("Empty batch");
+        }
+    }
+
+    @Test
+    @EnabledOnOs(value = OS.WINDOWS, architectures = "amd64")
+    public void testExecBatch() throws IOException {
+        try (PsExecutor x = new PsExecutor(extractor, true)) {
+            TabDataQuery query = TabDataQuery
+                    .builder()
+                    .procedure("Print")
+                    .parameter(extractor.getResourceAsFile("/internal/sql/lhod/Top5Stmt.tsv").toString())
+                    .build();
+
+            TabDataQuery boom = TabDataQuery.builder().procedure("Print").parameter("boom.txt").build();
+
+            try (TabDataResults results = x.execBatch(Arrays.asList(query, boom, query))) {
+                assertThat(results.next()).has(rowCount(330));
+                assertThatIOException()
+                        .isThrownBy(results::next)
+                        .withMessageContaining("boom.txt");
+                assertThat(results.next()).has(rowCount(330));
+                assertThat(results.next()).isNull();
+            }
+
+            x.close();
+            assertThatIOException()
+                    .isThrownBy(() -> x.execBatch(Arrays.asList(query, query)));
+        }
+    }
+
+    @Test
+    @EnabledOnOs(value = OS.WINDOWS, architectures = "amd64")
+    public void testExecPreparedBatch() throws IOException {
+        try (PsExecutor x = new PsExecutor(extractor)) {
+            String missingDSN = UUID.randomUUID().toString().substring(0, 32);
+            TabDataQuery firefox = TabDataQuery
+                    .builder()
+                    .procedure("PreparedStatement")
+                    .parameter(missingDSN)
+                    .parameter("select * from Top5 where browser=?")
+                    .parameter("200:Firefox")
+                    .build();
+            TabDataQuery none = firefox
+                    .toBuilder()
+                    .clearParameters()
+                    .parameter(missingDSN)
+                    .parameter("select * from Top5 where browser=?")
+                    .parameter("200")
+                    .build();
+
+            try (TabDataResults results = x.execBatch(Arrays.asList(firefox, none))) {
+                for (int i = 0; i < 2; i++) {
+                    assertThatIOException()
+                            .isThrownBy(results::next)
+                            .withMessageContaining("Data source name not found and no default driver specified");
+                }
+                assertThat(results.next()).isNull();
+            }
+        }
+    }
+
+    @Test
+    @EnabledOnOs(value = OS.WINDOWS, architectures = "amd64")
+    public void testExecBinary() {
+        try (PsExecutor x = new PsExecutor(extractor, true)) {
+            String missingDSN = UUID.randomUUID().toString().substring(0, 32);
+            for (String procedure : new String[]{"DBProperties", "OpenSchema", "PreparedStatement"}) {
+                assertThatIOException()
+                        .isThrownBy(() -> x.exec(TabDataQuery.builder().procedure(procedure).parameter(missingDSN).build()))
+                        .withMessageContaining("Data source name not found and no default driver specified");
+            }
+        }
+    }
+
     @Test
     @EnabledOnOs(value = OS.WINDOWS, architectures = "aarch64")
     public void testExecArm64() {
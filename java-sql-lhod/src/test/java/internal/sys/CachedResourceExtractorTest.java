@@ -25,7 +25,15 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIOException;
@@ -37,13 +45,11 @@ public class CachedResourceExtractorTest {
 
     @Test
     public void test(@TempDir Path folder) throws IOException, InterruptedException {
-        CachedResourceExtractor x = CachedResourceExtractor.of(
-                DefaultResourceExtractor
-                        .builder()
-                        .repository(folder.toFile())
-                        .anchor(CachedResourceExtractorTest.class)
-                        .build()
-        );
+        CachedResourceExtractor x = CachedResourceExtractor
+                .builder()
+                .extractor(newExtractor(folder))
+                .revalidation(Duration.ZERO)
+                .build();
 
         File hello = x.getResourceAsFile("Hello.txt");
 
@@ -70,4 +76,71 @@ public class CachedResourceExtractorTest {
         assertThat(hello)
                 .isNotEqualTo(x.getResourceAsFile("Hello.txt"));
     }
+
+    @Test
+    public void testRevalidation(@TempDir Path folder) throws IOException {
+        AtomicLong clock = new AtomicLong();
+        CachedResourceExtractor x = CachedResourceExtractor
+                .builder()
+                .extractor(newExtractor(folder))
+                .revalidation(Duration.ofSeconds(10))
+                .clock(clock::get)
+                .build();
+
+        File hello = x.getResourceAsFile("Hello.txt");
+        hello.delete();
+
+        clock.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertThat(x.getResourceAsFile("Hello.txt"))
+                .as("File must not be checked before the revalidation interval")
+                .isEqualTo(hello)
+                .doesNotExist();
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(x.getResourceAsFile("Hello.txt"))
+                .as("File must be extracted again once invalid")
+                .isNotEqualTo(hello)
+                .hasContent("World");
+    }
+
+    @Test
+    public void testSingleExtraction(@TempDir Path folder) throws Exception {
+        AtomicInteger count = new AtomicInteger();
+        ResourceExtractor extractor = newExtractor(folder);
+        CachedResourceExtractor x = CachedResourceExtractor.of(resourceName -> {
+            count.incrementAndGet();
+            return extractor.getResourceAsFile(resourceName);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<File>> files = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                files.add(executor.submit(() -> x.getResourceAsFile("Hello.txt")));
+            }
+            for (Future<File> file : files) {
+                assertThat(file.get()).isEqualTo(files.get(0).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(count).hasValue(1);
+
+        assertThatIOException()
+                .isThrownBy(() -> x.getResourceAsFile("Stuff.txt"))
+                .isInstanceOf(FileNotFoundException.class);
+        assertThatIOException()
+                .as("Failed extraction must not be cached")
+                .isThrownBy(() -> x.getResourceAsFile("Stuff.txt"))
+                .isInstanceOf(FileNotFoundException.class);
+        assertThat(count).hasValue(3);
+    }
+
+    private static ResourceExtractor newExtractor(Path folder) {
+        return DefaultResourceExtractor
+                .builder()
+                .repository(folder.toFile())
+                .anchor(CachedResourceExtractorTest.class)
+                .build();
+    }
 }
@@ -22,8 +22,15 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -73,4 +80,84 @@ public class DefaultResourceExtractorTest {
                 .exists()
                 .hasContent("Hello");
     }
+
+    @Test
+    public void testHashed(@TempDir Path folder) throws IOException {
+        DefaultResourceExtractor x = newHashedExtractor(folder);
+
+        File hello = x.getResourceAsFile("Hello.txt");
+        assertThat(hello)
+                .hasContent("World")
+                .hasParent(folder.resolve("scripts").toFile());
+        assertThat(hello.getName())
+                .matches("Hello-[0-9a-f]{32}\\.txt");
+
+        assertThat(newHashedExtractor(folder).getResourceAsFile("Hello.txt"))
+                .as("File of a previous run must be reused")
+                .isEqualTo(hello);
+
+        long lastModified = hello.lastModified();
+        assertThat(x.getResourceAsFile("Hello.txt"))
+                .isEqualTo(hello);
+        assertThat(hello.lastModified())
+                .as("Reused file must not be written again")
+                .isEqualTo(lastModified);
+
+        Files.write(hello.toPath(), "Other".getBytes(StandardCharsets.UTF_8));
+        assertThat(x.getResourceAsFile("Hello.txt"))
+                .as("Modified file must be written again")
+                .isEqualTo(hello)
+                .hasContent("World");
+
+        assertThat(x.getResourceAsFile("WithoutExt").getName())
+                .matches("WithoutExt-[0-9a-f]{32}");
+
+        assertThatIOException()
+                .isThrownBy(() -> x.getResourceAsFile("Stuff.txt"))
+                .isInstanceOf(FileNotFoundException.class)
+                .withMessageContaining("Stuff.txt");
+
+        assertThat(folder.resolve("scripts").toFile().list())
+                .as("Temp files must not be left behind")
+                .noneMatch(name -> name.endsWith(".tmp"));
+    }
+
+    @Test
+    public void testHashedConcurrency(@TempDir Path folder) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<File>> files = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                // each extractor stands for a separate run sharing the repository
+                files.add(executor.submit(() -> newHashedExtractor(folder).getResourceAsFile("Hello.txt")));
+            }
+            for (Future<File> file : files) {
+                assertThat(file.get())
+                        .isEqualTo(files.get(0).get())
+                        .hasContent("World");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testOfHashed() {
+        DefaultResourceExtractor x = DefaultResourceExtractor.ofHashed(DefaultResourceExtractorTest.class, "com.example", "artifact");
+        assertThat(x.isHashed()).isTrue();
+        assertThat(x.isPersist()).isTrue();
+        assertThat(x.getRepository())
+                .as("Version must fall back when the artifact is not packaged")
+                .isEqualTo(Paths.get(System.getProperty("java.io.tmpdir"), "artifact", "dev").toFile());
+    }
+
+    private static DefaultResourceExtractor newHashedExtractor(Path folder) {
+        return DefaultResourceExtractor
+                .builder()
+                .repository(folder.resolve("scripts").toFile())
+                .anchor(DefaultResourceExtractorTest.class)
+                .persist(true)
+                .hashed(true)
+                .build();
+    }
 }
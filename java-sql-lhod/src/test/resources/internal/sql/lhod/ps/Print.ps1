@@ -4,7 +4,7 @@ function Print-Error( $error ) {
     [PSCustomObject]@{ Number = 0; Description = $error.Message } | ConvertTo-Csv -NoTypeInformation -Delimiter "`t" | Select-Object -skip 1
 }
 
-$file = [Helper]::DecodeArg($args[0])
+$file = [Helper]::ReadArgs()[0]
 
 try {
     Get-Content $file -ErrorAction Stop
@@ -14,11 +14,26 @@ try {
 }
 
 class Helper {
-    static [string] DecodeArg( [string] $argument ) {
-        if ($argument -like "base64_*") {
-            return [System.Text.Encoding]::UTF8.GetString([System.Convert]::FromBase64String($argument.Substring(7)))
-        } else {
-            return $argument
+    # the arguments are set by the host that runs the script in process or
+    # sent by the driver over the standard input (count + strings of length + chars)
+    static [string[]] ReadArgs() {
+        if (Test-Path variable:global:LhodArguments) {
+            return [string[]] $global:LhodArguments
         }
+        $reader = [System.IO.StreamReader]::new([Console]::OpenStandardInput(), [System.Text.UTF8Encoding]::new($false))
+        $count = [int] $reader.ReadLine()
+        $result = [string[]]::new($count)
+        for ($i = 0; $i -lt $count; $i++) {
+            $length = [int] $reader.ReadLine()
+            $chars = [char[]]::new($length)
+            $offset = 0
+            while ($offset -lt $length) {
+                $n = $reader.Read($chars, $offset, $length - $offset)
+                if ($n -le 0) { throw [System.IO.EndOfStreamException]::new() }
+                $offset += $n
+            }
+            $result[$i] = [string]::new($chars)
+        }
+        return $result
     }
 }